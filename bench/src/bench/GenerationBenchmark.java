@@ -0,0 +1,82 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import logic.Grid;
+import logic.Piece;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import algorithms.Algorithm;
+import algorithms.GeneratorType;
+import algorithms.MazeGenerator;
+
+/**
+ * Time taken to generate one maze, by the original <code>Piece</code> based
+ * depth-first-search of <code>Algorithm</code>, its <code>Grid</code> based
+ * counterpart and every <code>MazeGenerator</code> engine.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class GenerationBenchmark {
+
+	@State(Scope.Thread)
+	public static class Sizes {
+		@Param({ "11", "101", "1001", "4001" })
+		public int size;
+
+		public Random random = new Random(42);
+	}
+
+	@State(Scope.Thread)
+	public static class Engines {
+		@Param({ "101", "1001", "4001" })
+		public int size;
+
+		@Param({ "RECURSIVE_BACKTRACKER", "KRUSKAL", "PRIM", "WILSON",
+				"ELLER", "BINARY_TREE", "PARALLEL" })
+		public GeneratorType type;
+
+		public MazeGenerator generator;
+		public Random random = new Random(42);
+
+		@Setup
+		public void setUp() {
+			generator = type.create();
+		}
+	}
+
+	@Benchmark
+	public ArrayList<ArrayList<Piece>> createMaze(Sizes state) {
+		return new Algorithm(state.size, state.random).createMaze();
+	}
+
+	@Benchmark
+	public Grid createGrid(Sizes state) {
+		return new Algorithm(state.size, state.random).createGrid();
+	}
+
+	@Benchmark
+	public Grid generate(Engines state) {
+		return state.generator.generate(state.size, state.random);
+	}
+}
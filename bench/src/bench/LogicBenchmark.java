@@ -0,0 +1,196 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import logic.Journal;
+import logic.Logic;
+import logic.Piece;
+import logic.Recording;
+import logic.TurnResult;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import algorithms.BacktrackerGenerator;
+
+/**
+ * Throughput of the game rules: whole turns with a growing number of moving
+ * dragons, played with message arrays or a reused result, up to swarms of
+ * random or chasing dragons on a huge board, the hero move check and the
+ * search for free positions, and the cost of recording moves to a journal
+ * and replaying them, and forking games to branch them.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogicBenchmark {
+
+	private static final String MOVES = "wasdwdsa";
+	private static final String[] MOVE_KEYS = { "w", "a", "s", "d", "w",
+			"d", "s", "a" };
+
+	@State(Scope.Thread)
+	public static class Turns {
+		@Param({ "1", "10", "1000" })
+		public int dragons;
+
+		public Logic logic;
+		public TurnResult result = new TurnResult();
+		public int turn;
+
+		// A new game every iteration so every one starts from the same board
+		@Setup(Level.Iteration)
+		public void setUp() {
+			logic = new Logic(101, dragons, 1, new BacktrackerGenerator(), 42);
+			turn = 0;
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Swarms {
+		@Param({ "1000", "10000", "50000" })
+		public int dragons;
+
+		@Param({ "1", "3" })
+		public int strategy;
+
+		public Logic logic;
+		public TurnResult result = new TurnResult();
+		public int turn;
+
+		@Setup(Level.Iteration)
+		public void setUp() {
+			logic = new Logic(1001, dragons, strategy,
+					new BacktrackerGenerator(), 42);
+			turn = 0;
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Boards {
+		@Param({ "11", "101", "1001" })
+		public int size;
+
+		public Logic logic;
+
+		@Setup
+		public void setUp() {
+			logic = new Logic(size, 1, 1, new BacktrackerGenerator(), 42);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Replays {
+		@Param({ "100", "1000" })
+		public int turns;
+
+		public Recording recording;
+
+		@Setup
+		public void setUp() {
+			Logic logic = new Logic(101, 10, 2, new BacktrackerGenerator(), 42);
+			byte[] inputs = new byte[turns];
+			for (int i = 0; i < turns; i++)
+				inputs[i] = (byte) MOVES.charAt(i % MOVES.length());
+			recording = new Recording(logic.snapshot(), inputs);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Journals {
+		public Path file;
+		public Journal journal;
+		public int turn;
+
+		@Setup(Level.Iteration)
+		public void setUp() throws IOException {
+			file = Files.createTempFile("bench", ".journal");
+			journal = new Journal(file, new Logic(101, 1, 1,
+					new BacktrackerGenerator(), 42));
+		}
+
+		@TearDown(Level.Iteration)
+		public void tearDown() throws IOException {
+			journal.close();
+			Files.delete(file);
+		}
+	}
+
+	@Benchmark
+	public String[] playGame(Turns state) {
+		int i = state.turn++ % MOVES.length();
+		return state.logic.playGame(MOVES.substring(i, i + 1));
+	}
+
+	@Benchmark
+	public TurnResult playTurn(Turns state) {
+		return state.logic.playTurn(MOVE_KEYS[state.turn++ % MOVE_KEYS.length],
+				state.result);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public TurnResult playSwarm(Swarms state) {
+		return state.logic.playTurn(MOVE_KEYS[state.turn++
+				% MOVE_KEYS.length], state.result);
+	}
+
+	@Benchmark
+	public HashMap<Integer, Boolean> validHeroMoves(Boards state) {
+		return state.logic.validHeroMoves();
+	}
+
+	@Benchmark
+	public int heroMoveMask(Boards state) {
+		return state.logic.heroMoveMask();
+	}
+
+	@Benchmark
+	public Piece getAvailablePosition(Boards state) {
+		return state.logic.getAvailablePosition();
+	}
+
+	@Benchmark
+	public Logic fork(Boards state) {
+		return state.logic.fork();
+	}
+
+	// A turn copies the pages and builds the dragon index of the fork
+	@Benchmark
+	public TurnResult forkTurn(Boards state) {
+		return state.logic.fork().playTurn("d", new TurnResult());
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Logic replay(Replays state) {
+		return state.recording.replay();
+	}
+
+	@Benchmark
+	public int record(Journals state) throws IOException {
+		state.journal.record(MOVE_KEYS[state.turn++ % MOVE_KEYS.length]);
+		return state.journal.getInputs();
+	}
+}
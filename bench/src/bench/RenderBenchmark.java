@@ -0,0 +1,87 @@
+package bench;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import logic.Logic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import algorithms.BacktrackerGenerator;
+import gui.GameUI;
+
+/**
+ * Time taken by <code>GameUI</code> to draw a whole board, or only the tiles
+ * of one turn, into an offscreen image. Boards bigger than the image only
+ * draw the part seen by the camera. Run it from the project folder so the
+ * tile images are found.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RenderBenchmark {
+
+	@Param({ "11", "51", "101", "1001", "5001" })
+	public int size;
+
+	private GameUI gameUI;
+	private BufferedImage image;
+	private Graphics2D graphics;
+	private Rectangle tile;
+
+	@Setup
+	public void setUp() {
+		Dimension dimension = new Dimension(800, 800);
+		Logic logic = new Logic(size, size / 10 + 1, 1,
+				new BacktrackerGenerator(), 42);
+		gameUI = new GameUI(logic, dimension);
+		gameUI.setSize(dimension);
+		image = new BufferedImage(dimension.width, dimension.height,
+				BufferedImage.TYPE_INT_ARGB);
+		graphics = image.createGraphics();
+
+		// A turn repaints about three tiles: the hero's cells and a dragon's
+		tile = new Rectangle(0, 0, 3 * gameUI.getViewport().getTileWidth(),
+				gameUI.getViewport().getTileHeight());
+	}
+
+	@TearDown
+	public void tearDown() {
+		graphics.dispose();
+	}
+
+	@Benchmark
+	public BufferedImage paint() {
+		graphics.setClip(null);
+		gameUI.paint(graphics);
+		return image;
+	}
+
+	@Benchmark
+	public BufferedImage paintTurn() {
+		graphics.setClip(tile);
+		gameUI.paint(graphics);
+		return image;
+	}
+}
@@ -0,0 +1,75 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import logic.Logic;
+import simulation.SearchPolicy;
+import simulation.SeekingPolicy;
+import simulation.Simulator;
+import simulation.Statistics;
+import algorithms.BacktrackerGenerator;
+import algorithms.GeneratorType;
+
+/**
+ * Time taken by <code>Simulator</code> to play a batch of games, and by
+ * <code>SearchPolicy</code> to search a move, with a growing number of
+ * threads, to check that both scale with the cores.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimulationBenchmark {
+
+	private static final int GAMES = 1000;
+	private static final int ROLLOUTS = 2000;
+
+	@Param({ "1", "2", "4", "8" })
+	public int threads;
+
+	private Simulator simulator;
+	private SearchPolicy search;
+	private Logic game;
+
+	@Setup
+	public void setUp() {
+		simulator = new Simulator(21, 3, 1, GeneratorType.RECURSIVE_BACKTRACKER,
+				threads);
+		search = new SearchPolicy(threads, 0, ROLLOUTS, 30);
+		game = new Logic(21, 3, 1, new BacktrackerGenerator(), 42);
+	}
+
+	@TearDown
+	public void tearDown() {
+		search.shutdown();
+	}
+
+	@Benchmark
+	public Statistics run() throws InterruptedException {
+		return simulator.run(GAMES, 42, new SeekingPolicy(), 2000);
+	}
+
+	@Benchmark
+	public String search() {
+		return search.nextMove(game, 0);
+	}
+}
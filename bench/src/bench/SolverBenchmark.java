@@ -0,0 +1,62 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import logic.Grid;
+import logic.Solver;
+import logic.Solver.Search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import algorithms.BacktrackerGenerator;
+
+/**
+ * Time taken by <code>Solver</code> to cross a board from corner to corner,
+ * reusing its buffers as a game would do every turn.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+	@Param({ "101", "1001", "4001" })
+	public int size;
+
+	@Param({ "BFS", "A_STAR", "BIDIRECTIONAL" })
+	public Search search;
+
+	private Grid grid;
+	private Solver solver;
+	private int from, to;
+
+	@Setup
+	public void setUp() {
+		grid = new BacktrackerGenerator().generate(size, new Random(42));
+		solver = new Solver();
+		from = grid.index(1, 1);
+		to = grid.index(size - 2, size - 2);
+	}
+
+	@Benchmark
+	public int[] findPath() {
+		return solver.findPath(grid, from, to, search);
+	}
+}
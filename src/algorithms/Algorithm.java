@@ -1,10 +1,13 @@
 package algorithms;
 
+import logic.Grid;
 import logic.Movement;
 import logic.Piece;
 import logic.PieceType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Random;
 import java.util.Stack;
 
@@ -28,20 +31,30 @@ public class Algorithm {
 	int mazeSize;
 
 	/**
-	 * builds a maze with a odd size
+	 * builds a maze with a odd size. The board itself is only allocated by
+	 * {@link #createMaze()} or {@link #createGrid()}.
 	 * 
 	 * @param mazeSize
 	 *            maze size integer
 	 * 
 	 */
 	public Algorithm(int mazeSize) {
-		this.mazeSize = mazeSize;
-		piecesStack = new Stack<Piece>();
-		visitedPieces = new boolean[mazeSize][mazeSize];
-		random = new Random();
+		this(mazeSize, new Random());
+	}
 
-		maze = createInitialMaze();
-		setExit(maze);
+	/**
+	 * builds a maze with a odd size taking every random choice from the given
+	 * source, so a seeded one always builds the same maze
+	 * 
+	 * @param mazeSize
+	 *            maze size integer
+	 * @param random
+	 *            source of random choices
+	 * 
+	 */
+	public Algorithm(int mazeSize, Random random) {
+		this.mazeSize = mazeSize;
+		this.random = random;
 	}
 
 	/**
@@ -125,6 +138,11 @@ public class Algorithm {
 	 * @return a random board
 	 */
 	public ArrayList<ArrayList<Piece>> createMaze() {
+		piecesStack = new Stack<Piece>();
+		visitedPieces = new boolean[mazeSize][mazeSize];
+		maze = createInitialMaze();
+		setExit(maze);
+
 		// Enquanto existirem pecas nao visitadas
 		while (!piecesStack.empty()) {
 			// Extrair uma lista de pecas vizinhas
@@ -155,6 +173,90 @@ public class Algorithm {
 		return maze;
 	}
 
+	/**
+	 * Runs the same depth-first-search as {@link #createMaze()} directly over
+	 * a <code>Grid</code>. Pieces are replaced by row-major cell indexes, the
+	 * stack by an <code>int</code> array and the visited pieces by a
+	 * <code>BitSet</code>, so no objects are allocated while carving and very
+	 * large mazes fit in memory. The board and its exit are laid out like in
+	 * the other engines, see {@link GridGenerator}.
+	 * 
+	 * @return a random board
+	 * @throws IllegalArgumentException
+	 *             if the maze size isn't odd and at least 3
+	 */
+	public Grid createGrid() {
+		Grid grid = GridGenerator.createInitialGrid(mazeSize);
+		byte[] cells = grid.getCells();
+		byte free = Grid.code(PieceType.FREE);
+
+		// Same board and exit as the other engines, carved from the exit
+		int n = GridGenerator.cellsPerLine(mazeSize);
+		int start = GridGenerator.setExit(grid, random);
+
+		BitSet visited = new BitSet(mazeSize * mazeSize);
+		int[] stack = new int[Math.max(16, mazeSize)];
+		int top = 0;
+
+		int current = grid.index(2 * (start % n) + 1, 2 * (start / n) + 1);
+		visited.set(current);
+		stack[top++] = current;
+
+		while (top > 0) {
+			current = stack[top - 1];
+			int x = current % mazeSize, y = current / mazeSize;
+			boolean inner = x != 0 && x != mazeSize - 1;
+
+			// Gather unvisited neighbors two cells away
+			int up = -1, down = -1, right = -1, left = -1, count = 0;
+			if (y - 2 > 0 && inner && !visited.get(current - 2 * mazeSize)) {
+				up = current - 2 * mazeSize;
+				count++;
+			}
+			if (y + 2 < mazeSize - 1 && inner
+					&& !visited.get(current + 2 * mazeSize)) {
+				down = current + 2 * mazeSize;
+				count++;
+			}
+			if (x + 2 < mazeSize - 1 && !visited.get(current + 2)) {
+				right = current + 2;
+				count++;
+			}
+			if (x - 2 > 0 && !visited.get(current - 2)) {
+				left = current - 2;
+				count++;
+			}
+
+			if (count == 0) {
+				// Backtrack
+				top--;
+				continue;
+			}
+
+			// Pick the chosen neighbor in the same order they were gathered
+			int choice = random.nextInt(count);
+			int next = up;
+			if (up < 0 || choice-- != 0) {
+				next = down;
+				if (down < 0 || choice-- != 0) {
+					next = right;
+					if (right < 0 || choice-- != 0)
+						next = left;
+				}
+			}
+
+			// Knock down the wall between both cells and move on
+			cells[(current + next) / 2] = free;
+			cells[next] = free;
+			visited.set(next);
+
+			if (top == stack.length)
+				stack = Arrays.copyOf(stack, stack.length * 2);
+			stack[top++] = next;
+		}
+		return grid;
+	}
+
 	public int selectDirection(Piece Piece) {
 		if (Piece.getPosY() > currentPiece.getPosY()
 				&& Piece.getPosX() == currentPiece.getPosX()) {
@@ -0,0 +1,21 @@
+package algorithms;
+
+import java.util.Random;
+
+import logic.Grid;
+
+/**
+ * Recursive backtracker engine, the depth-first-search of
+ * <code>Algorithm</code>. Long winding corridors, O(cells) memory.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class BacktrackerGenerator implements MazeGenerator {
+
+	@Override
+	public Grid generate(int mazeSize, Random random) {
+		return new Algorithm(mazeSize, random).createGrid();
+	}
+}
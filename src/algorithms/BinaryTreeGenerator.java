@@ -0,0 +1,62 @@
+package algorithms;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import logic.Grid;
+import logic.PieceType;
+
+/**
+ * Binary tree engine. Every cell opens the wall above or at its left, chosen
+ * at random, so each cell is decided on its own. The fastest engine and
+ * needs no memory beyond the two lines being emitted, but the first line and
+ * column are long corridors.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class BinaryTreeGenerator extends GridGenerator implements
+		StreamingGenerator {
+
+	@Override
+	public Grid generate(int mazeSize, Random random) {
+		return GridSink.collect(this, mazeSize, random);
+	}
+
+	@Override
+	public void generate(int mazeSize, Random random, RowSink sink)
+			throws IOException {
+		int n = cellsPerLine(mazeSize);
+		int exitLine = chooseExitLine(mazeSize, random);
+		int exitColumn = exitColumn(mazeSize, exitLine);
+		byte free = Grid.code(PieceType.FREE);
+		byte wall = Grid.code(PieceType.WALL);
+
+		// Walls above the cells and the cells themselves
+		byte[] above = new byte[mazeSize];
+		byte[] line = new byte[mazeSize];
+
+		sink.startMaze(mazeSize, mazeSize);
+		for (int y = 0; y < n; y++) {
+			Arrays.fill(above, wall);
+			Arrays.fill(line, wall);
+			for (int x = 0; x < n; x++) {
+				line[2 * x + 1] = free;
+				if (y > 0 && (x == 0 || random.nextBoolean()))
+					above[2 * x + 1] = free;
+				else if (x > 0)
+					line[2 * x] = free;
+			}
+			if (2 * y + 1 == exitLine)
+				line[exitColumn] = Grid.code(PieceType.EXIT);
+
+			sink.writeRow(2 * y, above);
+			sink.writeRow(2 * y + 1, line);
+		}
+		Arrays.fill(above, wall);
+		sink.writeRow(mazeSize - 1, above);
+		sink.endMaze();
+	}
+}
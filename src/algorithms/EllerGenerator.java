@@ -0,0 +1,116 @@
+package algorithms;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import logic.Grid;
+import logic.PieceType;
+
+/**
+ * Eller engine. The maze is built one line of cells at a time, only keeping
+ * the set each cell of the current line belongs to, so its working memory is
+ * O(width) no matter how tall the board is. Lines are handed to a
+ * <code>RowSink</code> as soon as they are done.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class EllerGenerator extends GridGenerator implements
+		StreamingGenerator {
+
+	@Override
+	public Grid generate(int mazeSize, Random random) {
+		return GridSink.collect(this, mazeSize, random);
+	}
+
+	@Override
+	public void generate(int mazeSize, Random random, RowSink sink)
+			throws IOException {
+		int n = cellsPerLine(mazeSize);
+		int exitLine = chooseExitLine(mazeSize, random);
+		int exitColumn = exitColumn(mazeSize, exitLine);
+		byte free = Grid.code(PieceType.FREE);
+		byte wall = Grid.code(PieceType.WALL);
+		byte[] line = new byte[mazeSize];
+
+		// Set of each cell of the current line, -1 for a new set
+		int[] set = new int[n];
+		int[] parent = new int[n];
+		int[] remap = new int[n];
+		int[] last = new int[n];
+		boolean[] down = new boolean[n];
+		Arrays.fill(set, -1);
+
+		sink.startMaze(mazeSize, mazeSize);
+		Arrays.fill(line, wall);
+		sink.writeRow(0, line);
+
+		for (int y = 0; y < n; y++) {
+			boolean lastLine = y == n - 1;
+
+			// Number the sets of this line from 0
+			Arrays.fill(remap, -1);
+			int sets = 0;
+			for (int x = 0; x < n; x++) {
+				if (set[x] < 0)
+					set[x] = sets++;
+				else {
+					if (remap[set[x]] < 0)
+						remap[set[x]] = sets++;
+					set[x] = remap[set[x]];
+				}
+			}
+			for (int s = 0; s < sets; s++)
+				parent[s] = s;
+
+			Arrays.fill(line, wall);
+			for (int x = 0; x < n; x++)
+				line[2 * x + 1] = free;
+
+			// Randomly join neighbors from different sets, all on the last line
+			for (int x = 0; x < n - 1; x++) {
+				int a = find(parent, set[x]), b = find(parent, set[x + 1]);
+				if (a != b && (lastLine || random.nextBoolean())) {
+					parent[a] = b;
+					line[2 * x + 2] = free;
+				}
+			}
+			for (int x = 0; x < n; x++)
+				set[x] = find(parent, set[x]);
+
+			if (2 * y + 1 == exitLine)
+				line[exitColumn] = Grid.code(PieceType.EXIT);
+			sink.writeRow(2 * y + 1, line);
+
+			// Every set goes down at least once, at its last cell if needed
+			Arrays.fill(line, wall);
+			if (!lastLine) {
+				for (int x = 0; x < n; x++) {
+					last[set[x]] = x;
+					down[set[x]] = false;
+				}
+				for (int x = 0; x < n; x++) {
+					int s = set[x];
+					if (random.nextBoolean() || (last[s] == x && !down[s])) {
+						down[s] = true;
+						line[2 * x + 1] = free;
+					} else
+						set[x] = -1;
+				}
+			}
+			sink.writeRow(2 * y + 2, line);
+		}
+		sink.endMaze();
+	}
+
+	// Finds the set of a cell halving the path on the way
+	private static int find(int[] parent, int s) {
+		while (parent[s] != s) {
+			parent[s] = parent[parent[s]];
+			s = parent[s];
+		}
+		return s;
+	}
+}
@@ -0,0 +1,50 @@
+package algorithms;
+
+/**
+ * Contains every available maze generation engine.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public enum GeneratorType {
+
+	RECURSIVE_BACKTRACKER("Recursive backtracker"), KRUSKAL("Kruskal"), PRIM(
+			"Prim"), WILSON("Wilson"), ELLER("Eller"), BINARY_TREE(
+			"Binary tree"), PARALLEL("Parallel tiles");
+
+	private String name;
+
+	private GeneratorType(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Creates a new engine of this type.
+	 * 
+	 * @return maze generator
+	 */
+	public MazeGenerator create() {
+		switch (this) {
+		case KRUSKAL:
+			return new KruskalGenerator();
+		case PRIM:
+			return new PrimGenerator();
+		case WILSON:
+			return new WilsonGenerator();
+		case ELLER:
+			return new EllerGenerator();
+		case BINARY_TREE:
+			return new BinaryTreeGenerator();
+		case PARALLEL:
+			return new ParallelGenerator();
+		default:
+			return new BacktrackerGenerator();
+		}
+	}
+
+	// Returns the engine name as a String object
+	public String toString() {
+		return name;
+	}
+}
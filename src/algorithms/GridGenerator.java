@@ -0,0 +1,119 @@
+package algorithms;
+
+import java.util.Random;
+
+import logic.Grid;
+import logic.PieceType;
+
+/**
+ * Class <code>GridGenerator</code> holds the board layout shared by the maze
+ * generation engines. Engines work over cells, the odd line and odd column
+ * positions of the board, numbered row by row: cell <code>c</code> of a
+ * board with <code>n</code> cells per line is at column
+ * <code>2 * (c % n) + 1</code> and line <code>2 * (c / n) + 1</code>.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public abstract class GridGenerator implements MazeGenerator {
+
+	/**
+	 * Gets the number of cells per line of a board.
+	 * 
+	 * @param mazeSize
+	 *            odd maze size integer
+	 * @return cells per line
+	 */
+	public static int cellsPerLine(int mazeSize) {
+		if (mazeSize < 3 || mazeSize % 2 == 0)
+			throw new IllegalArgumentException("Maze size must be odd (>= 3): "
+					+ mazeSize);
+		return (mazeSize - 1) / 2;
+	}
+
+	/**
+	 * Builds a board where every cell is surrounded by walls.
+	 * 
+	 * @param mazeSize
+	 *            odd maze size integer
+	 * @return initial board
+	 */
+	protected static Grid createInitialGrid(int mazeSize) {
+		cellsPerLine(mazeSize);
+		Grid grid = new Grid(mazeSize, mazeSize);
+		byte[] cells = grid.getCells();
+		byte free = Grid.code(PieceType.FREE);
+		byte wall = Grid.code(PieceType.WALL);
+
+		for (int i = 0; i < mazeSize; i++)
+			for (int j = 0; j < mazeSize; j++)
+				cells[i * mazeSize + j] = (j % 2 != 0 && i % 2 != 0 ? free
+						: wall);
+		return grid;
+	}
+
+	/**
+	 * Chooses the exit line following the rules of
+	 * {@link Algorithm#setExit(java.util.ArrayList)}: a random odd line.
+	 * 
+	 * @param mazeSize
+	 *            odd maze size integer
+	 * @param random
+	 *            source of random choices
+	 * @return exit line
+	 */
+	protected static int chooseExitLine(int mazeSize, Random random) {
+		return 2 * random.nextInt(mazeSize / 2) + 1;
+	}
+
+	/**
+	 * Gets the exit column for the given exit line: the last column if the
+	 * line is beyond the middle of the board, the first one otherwise.
+	 * 
+	 * @param mazeSize
+	 *            odd maze size integer
+	 * @param exitLine
+	 *            exit line
+	 * @return exit column
+	 */
+	public static int exitColumn(int mazeSize, int exitLine) {
+		return exitLine > mazeSize / 2 ? mazeSize - 1 : 0;
+	}
+
+	/**
+	 * Marks a random border piece as the exit.
+	 * 
+	 * @param grid
+	 *            board to change
+	 * @param random
+	 *            source of random choices
+	 * @return cell next to the exit
+	 */
+	protected static int setExit(Grid grid, Random random) {
+		int mazeSize = grid.getWidth();
+		int exitLine = chooseExitLine(mazeSize, random);
+		int exitColumn = exitColumn(mazeSize, exitLine);
+		grid.set(exitColumn, exitLine, Grid.code(PieceType.EXIT));
+
+		int n = cellsPerLine(mazeSize);
+		return (exitLine / 2) * n + (exitColumn == 0 ? 0 : n - 1);
+	}
+
+	/**
+	 * Knocks down the wall between two neighbor cells.
+	 * 
+	 * @param grid
+	 *            board to change
+	 * @param n
+	 *            cells per line
+	 * @param a
+	 *            first cell
+	 * @param b
+	 *            second cell
+	 */
+	protected static void carve(Grid grid, int n, int a, int b) {
+		grid.set(a % n + b % n + 1, a / n + b / n + 1,
+				Grid.code(PieceType.FREE));
+	}
+}
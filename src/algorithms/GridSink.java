@@ -0,0 +1,62 @@
+package algorithms;
+
+import java.io.IOException;
+import java.util.Random;
+
+import logic.Grid;
+
+/**
+ * Sink that copies every line it receives into a <code>Grid</code>.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class GridSink implements RowSink {
+
+	private Grid grid;
+
+	/**
+	 * Runs a streaming engine and gathers its lines in a <code>Grid</code>.
+	 * 
+	 * @param generator
+	 *            streaming engine
+	 * @param mazeSize
+	 *            odd maze size integer
+	 * @param random
+	 *            source of random choices
+	 * @return a random board
+	 */
+	public static Grid collect(StreamingGenerator generator, int mazeSize,
+			Random random) {
+		GridSink sink = new GridSink();
+		try {
+			generator.generate(mazeSize, random, sink);
+		} catch (IOException e) {
+			// Only thrown by sinks doing IO
+			throw new IllegalStateException(e);
+		}
+		return sink.getGrid();
+	}
+
+	public void startMaze(int width, int height) {
+		grid = new Grid(width, height);
+	}
+
+	public void writeRow(int y, byte[] row) {
+		System.arraycopy(row, 0, grid.getCells(), grid.index(0, y),
+				grid.getWidth());
+	}
+
+	public void endMaze() {
+	}
+
+	/**
+	 * Gets the gathered board.
+	 * 
+	 * @return board, null if no maze was started
+	 */
+	public Grid getGrid() {
+		return grid;
+	}
+}
@@ -0,0 +1,65 @@
+package algorithms;
+
+import java.util.Random;
+
+import logic.Grid;
+
+/**
+ * Randomized Kruskal engine. Every wall between two cells is visited in
+ * random order and knocked down when it separates two disjoint sets, tracked
+ * with a union-find. Short dead ends, O(cells) memory.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class KruskalGenerator extends GridGenerator {
+
+	@Override
+	public Grid generate(int mazeSize, Random random) {
+		Grid grid = createInitialGrid(mazeSize);
+		setExit(grid, random);
+		int n = cellsPerLine(mazeSize);
+		int cells = n * n;
+
+		// Walls are numbered 2 * cell for the right one and 2 * cell + 1 for
+		// the one below
+		int[] walls = new int[2 * cells];
+		int count = 0;
+		for (int c = 0; c < cells; c++) {
+			if (c % n != n - 1)
+				walls[count++] = 2 * c;
+			if (c / n != n - 1)
+				walls[count++] = 2 * c + 1;
+		}
+
+		int[] parent = new int[cells];
+		for (int c = 0; c < cells; c++)
+			parent[c] = c;
+
+		// Shuffle the walls while going through them
+		for (int i = count - 1; i >= 0; i--) {
+			int j = random.nextInt(i + 1);
+			int wall = walls[j];
+			walls[j] = walls[i];
+
+			int a = wall / 2;
+			int b = (wall % 2 == 0) ? a + 1 : a + n;
+			int rootA = find(parent, a), rootB = find(parent, b);
+			if (rootA != rootB) {
+				parent[rootA] = rootB;
+				carve(grid, n, a, b);
+			}
+		}
+		return grid;
+	}
+
+	// Finds the set of a cell halving the path on the way
+	private static int find(int[] parent, int c) {
+		while (parent[c] != c) {
+			parent[c] = parent[parent[c]];
+			c = parent[c];
+		}
+		return c;
+	}
+}
@@ -0,0 +1,30 @@
+package algorithms;
+
+import java.util.Random;
+
+import logic.Grid;
+
+/**
+ * Interface <code>MazeGenerator</code> is implemented by every maze
+ * generation engine. All engines build the same kind of board: walls on even
+ * lines and columns, empty cells on odd ones, and a single exit on the first
+ * or last column of an odd line.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public interface MazeGenerator {
+
+	/**
+	 * Generates a new random maze.
+	 * 
+	 * @param mazeSize
+	 *            odd maze size integer
+	 * @param random
+	 *            source of every random choice, so a seeded one always
+	 *            builds the same maze
+	 * @return a random board
+	 */
+	Grid generate(int mazeSize, Random random);
+}
@@ -0,0 +1,194 @@
+package algorithms;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import logic.Grid;
+
+/**
+ * Parallel engine for huge boards. The cells are split into square tiles and
+ * each tile is carved by a depth-first-search on a <code>ForkJoinPool</code>
+ * worker. A random spanning tree over the tiles then chooses which
+ * neighbor tiles are joined, and one random wall along each of their
+ * borders is knocked down. A spanning tree of perfect tiles is itself a
+ * perfect maze, but tile borders show as long walls with a single door.
+ * <p>
+ * Each tile takes its random choices from its own seed, drawn in order from
+ * the given source, so a seeded board doesn't depend on the thread
+ * scheduling.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class ParallelGenerator extends GridGenerator {
+
+	private final int tileCells;
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates an engine carving tiles of 64 by 64 cells on the common pool.
+	 */
+	public ParallelGenerator() {
+		this(64, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param tileCells
+	 *            cells per line of a tile
+	 * @param pool
+	 *            pool carving the tiles
+	 */
+	public ParallelGenerator(int tileCells, ForkJoinPool pool) {
+		if (tileCells < 1)
+			throw new IllegalArgumentException("Invalid tile size: "
+					+ tileCells);
+		this.tileCells = tileCells;
+		this.pool = pool;
+	}
+
+	@Override
+	public Grid generate(int mazeSize, Random random) {
+		Grid grid = createInitialGrid(mazeSize);
+		setExit(grid, random);
+		int n = cellsPerLine(mazeSize);
+		int tiles = (n + tileCells - 1) / tileCells;
+
+		long[] seeds = new long[tiles * tiles];
+		for (int t = 0; t < seeds.length; t++)
+			seeds[t] = random.nextLong();
+		pool.invoke(new CarveTiles(grid, n, seeds, 0, seeds.length));
+
+		joinTiles(grid, n, tiles, random);
+		return grid;
+	}
+
+	/*
+	 * Walks a random spanning tree over the tiles, with the same search as
+	 * the tiles themselves, joining every tile to the one it was reached
+	 * from.
+	 */
+	private void joinTiles(Grid grid, int n, int tiles, Random random) {
+		boolean[] visited = new boolean[tiles * tiles];
+		int[] stack = new int[tiles * tiles];
+		int[] next = new int[4];
+		int top = 0;
+
+		visited[0] = true;
+		stack[top++] = 0;
+		while (top > 0) {
+			int t = stack[top - 1];
+			int x = t % tiles, y = t / tiles, count = 0;
+			if (y > 0 && !visited[t - tiles])
+				next[count++] = t - tiles;
+			if (y < tiles - 1 && !visited[t + tiles])
+				next[count++] = t + tiles;
+			if (x < tiles - 1 && !visited[t + 1])
+				next[count++] = t + 1;
+			if (x > 0 && !visited[t - 1])
+				next[count++] = t - 1;
+
+			if (count == 0) {
+				top--;
+				continue;
+			}
+
+			int u = next[random.nextInt(count)];
+			openBorder(grid, n, Math.min(t, u), Math.max(t, u), tiles, random);
+			visited[u] = true;
+			stack[top++] = u;
+		}
+	}
+
+	/*
+	 * Knocks down a random wall on the border between tile a and the tile b
+	 * to its right or below it.
+	 */
+	private void openBorder(Grid grid, int n, int a, int b, int tiles,
+			Random random) {
+		int x0 = (a % tiles) * tileCells, y0 = (a / tiles) * tileCells;
+		if (b == a + 1) {
+			int y = y0 + random.nextInt(Math.min(tileCells, n - y0));
+			int cell = y * n + x0 + tileCells - 1;
+			carve(grid, n, cell, cell + 1);
+		} else {
+			int x = x0 + random.nextInt(Math.min(tileCells, n - x0));
+			int cell = (y0 + tileCells - 1) * n + x;
+			carve(grid, n, cell, cell + n);
+		}
+	}
+
+	/*
+	 * Carves a range of tiles, splitting it in halves until a single tile is
+	 * left. Tiles only write the walls inside their own bounds, so they never
+	 * touch the same board piece.
+	 */
+	private class CarveTiles extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private final Grid grid;
+		private final long[] seeds;
+		private final int n, from, to;
+
+		CarveTiles(Grid grid, int n, long[] seeds, int from, int to) {
+			this.grid = grid;
+			this.n = n;
+			this.seeds = seeds;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				carveTile(from);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new CarveTiles(grid, n, seeds, from, middle),
+					new CarveTiles(grid, n, seeds, middle, to));
+		}
+
+		// Depth-first-search confined to the cells of one tile
+		private void carveTile(int t) {
+			int tiles = (n + tileCells - 1) / tileCells;
+			int x0 = (t % tiles) * tileCells, y0 = (t / tiles) * tileCells;
+			int w = Math.min(tileCells, n - x0), h = Math.min(tileCells, n
+					- y0);
+			Random random = new Random(seeds[t]);
+
+			boolean[] visited = new boolean[w * h];
+			int[] stack = new int[w * h];
+			int[] next = new int[4];
+			int top = 0;
+
+			int start = random.nextInt(w * h);
+			visited[start] = true;
+			stack[top++] = start;
+			while (top > 0) {
+				int c = stack[top - 1];
+				int x = c % w, y = c / w, count = 0;
+				if (y > 0 && !visited[c - w])
+					next[count++] = c - w;
+				if (y < h - 1 && !visited[c + w])
+					next[count++] = c + w;
+				if (x < w - 1 && !visited[c + 1])
+					next[count++] = c + 1;
+				if (x > 0 && !visited[c - 1])
+					next[count++] = c - 1;
+
+				if (count == 0) {
+					top--;
+					continue;
+				}
+
+				int u = next[random.nextInt(count)];
+				carve(grid, n, (y0 + y) * n + x0 + x, (y0 + u / w) * n + x0 + u
+						% w);
+				visited[u] = true;
+				stack[top++] = u;
+			}
+		}
+	}
+}
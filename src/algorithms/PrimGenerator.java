@@ -0,0 +1,79 @@
+package algorithms;
+
+import java.util.Random;
+
+import logic.Grid;
+
+/**
+ * Randomized Prim engine. The maze grows from the cell next to the exit by
+ * joining a random frontier cell to one of its neighbors already in the
+ * maze. Many short branches, O(cells) memory.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class PrimGenerator extends GridGenerator {
+
+	private static final byte OUT = 0, FRONTIER = 1, IN = 2;
+
+	@Override
+	public Grid generate(int mazeSize, Random random) {
+		Grid grid = createInitialGrid(mazeSize);
+		int n = cellsPerLine(mazeSize);
+		byte[] state = new byte[n * n];
+		int[] frontier = new int[n * n];
+		int count = 0;
+
+		int start = setExit(grid, random);
+		state[start] = IN;
+		count = addFrontier(state, frontier, count, n, start);
+
+		int[] inside = new int[4];
+		while (count > 0) {
+			// Remove a random frontier cell
+			int i = random.nextInt(count);
+			int c = frontier[i];
+			frontier[i] = frontier[--count];
+
+			// Join it to a random neighbor already in the maze
+			int x = c % n, y = c / n, found = 0;
+			if (y > 0 && state[c - n] == IN)
+				inside[found++] = c - n;
+			if (y < n - 1 && state[c + n] == IN)
+				inside[found++] = c + n;
+			if (x < n - 1 && state[c + 1] == IN)
+				inside[found++] = c + 1;
+			if (x > 0 && state[c - 1] == IN)
+				inside[found++] = c - 1;
+			carve(grid, n, c, inside[random.nextInt(found)]);
+
+			state[c] = IN;
+			count = addFrontier(state, frontier, count, n, c);
+		}
+		return grid;
+	}
+
+	// Adds the neighbors of a cell still out of the maze to the frontier
+	private static int addFrontier(byte[] state, int[] frontier, int count,
+			int n, int c) {
+		int x = c % n, y = c / n;
+		if (y > 0 && state[c - n] == OUT) {
+			state[c - n] = FRONTIER;
+			frontier[count++] = c - n;
+		}
+		if (y < n - 1 && state[c + n] == OUT) {
+			state[c + n] = FRONTIER;
+			frontier[count++] = c + n;
+		}
+		if (x < n - 1 && state[c + 1] == OUT) {
+			state[c + 1] = FRONTIER;
+			frontier[count++] = c + 1;
+		}
+		if (x > 0 && state[c - 1] == OUT) {
+			state[c - 1] = FRONTIER;
+			frontier[count++] = c - 1;
+		}
+		return count;
+	}
+}
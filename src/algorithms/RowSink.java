@@ -0,0 +1,49 @@
+package algorithms;
+
+import java.io.IOException;
+
+/**
+ * Interface <code>RowSink</code> receives a maze one line at a time, as
+ * emitted by a <code>StreamingGenerator</code>. A sink may write the lines to
+ * a file, a socket or the screen, so the board never has to be kept whole in
+ * memory.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public interface RowSink {
+
+	/**
+	 * Called once before the first line.
+	 * 
+	 * @param width
+	 *            number of columns
+	 * @param height
+	 *            number of lines
+	 * @throws IOException
+	 *             if the sink can't be written
+	 */
+	void startMaze(int width, int height) throws IOException;
+
+	/**
+	 * Called once for every line, from top to bottom. The array is reused
+	 * for the next line, so it must be copied if it is kept.
+	 * 
+	 * @param y
+	 *            line index
+	 * @param row
+	 *            symbol codes of the line, see <code>logic.Grid</code>
+	 * @throws IOException
+	 *             if the sink can't be written
+	 */
+	void writeRow(int y, byte[] row) throws IOException;
+
+	/**
+	 * Called once after the last line.
+	 * 
+	 * @throws IOException
+	 *             if the sink can't be written
+	 */
+	void endMaze() throws IOException;
+}
@@ -0,0 +1,31 @@
+package algorithms;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Interface <code>StreamingGenerator</code> is implemented by the engines
+ * that can emit the maze line by line, only keeping O(width) state.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public interface StreamingGenerator extends MazeGenerator {
+
+	/**
+	 * Generates a new random maze, handing each line to the sink as soon as
+	 * it is done.
+	 * 
+	 * @param mazeSize
+	 *            odd maze size integer
+	 * @param random
+	 *            source of every random choice
+	 * @param sink
+	 *            receiver of the maze lines
+	 * @throws IOException
+	 *             if the sink can't be written
+	 */
+	void generate(int mazeSize, Random random, RowSink sink)
+			throws IOException;
+}
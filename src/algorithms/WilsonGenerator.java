@@ -0,0 +1,71 @@
+package algorithms;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import logic.Grid;
+
+/**
+ * Wilson engine. Loop-erased random walks from every cell still out of the
+ * maze until they hit it, which gives a uniformly random spanning tree.
+ * Unbiased but slow to start on big boards, O(cells) memory.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class WilsonGenerator extends GridGenerator {
+
+	@Override
+	public Grid generate(int mazeSize, Random random) {
+		Grid grid = createInitialGrid(mazeSize);
+		int n = cellsPerLine(mazeSize);
+		int cells = n * n;
+		BitSet inMaze = new BitSet(cells);
+		// Last direction taken from each cell, overwritten on loops
+		byte[] direction = new byte[cells];
+
+		inMaze.set(setExit(grid, random));
+
+		for (int first = inMaze.nextClearBit(0); first < cells; first = inMaze
+				.nextClearBit(first + 1)) {
+			// Random walk until the maze is reached
+			int c = first;
+			while (!inMaze.get(c)) {
+				byte d;
+				int next;
+				do {
+					d = (byte) random.nextInt(4);
+					next = neighbor(n, c, d);
+				} while (next < 0);
+				direction[c] = d;
+				c = next;
+			}
+
+			// Carve the walk, loops were erased by overwriting directions
+			c = first;
+			while (!inMaze.get(c)) {
+				int next = neighbor(n, c, direction[c]);
+				carve(grid, n, c, next);
+				inMaze.set(c);
+				c = next;
+			}
+		}
+		return grid;
+	}
+
+	// Gets the neighbor cell in the given direction (same order as Movement),
+	// -1 if outside the board
+	private static int neighbor(int n, int c, int direction) {
+		switch (direction) {
+		case 0:
+			return c / n > 0 ? c - n : -1;
+		case 1:
+			return c / n < n - 1 ? c + n : -1;
+		case 2:
+			return c % n < n - 1 ? c + 1 : -1;
+		default:
+			return c % n > 0 ? c - 1 : -1;
+		}
+	}
+}
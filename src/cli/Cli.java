@@ -1,9 +1,13 @@
 package cli;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.Random;
 import java.util.Scanner;
 
-import logic.Piece;
+import algorithms.GeneratorType;
+import algorithms.RowSink;
+import algorithms.StreamingGenerator;
+import logic.Grid;
 
 /**
  * Class <code>Cli</code> is the class used to make input/output to the console.
@@ -61,11 +65,11 @@ public class Cli {
 
 		while (!validInput) {
 			System.out
-					.print("\n\tEnter dragon mode\n\n * 0 - Idle\n * 1 - Random move\n * 2 - Random move + sleeping\n\n > ");
+					.print("\n\tEnter dragon mode\n\n * 0 - Idle\n * 1 - Random move\n * 2 - Random move + sleeping\n * 3 - Chasing the hero\n\n > ");
 			while (!scanInt.hasNextInt()) {
 				System.out.print("\nInvalid input!\n");
 				System.out
-						.print("\n\tEnter dragon mode\n\n * 0 - Idle\n * 1 - Random move\n * 2 - Random move + sleeping\n\n > ");
+						.print("\n\tEnter dragon mode\n\n * 0 - Idle\n * 1 - Random move\n * 2 - Random move + sleeping\n * 3 - Chasing the hero\n\n > ");
 				scanInt.next();
 			}
 			mode = scanInt.nextInt();
@@ -83,6 +87,10 @@ public class Cli {
 				mode = 2;
 				validInput = true;
 				break;
+			case 3:
+				mode = 3;
+				validInput = true;
+				break;
 			default:
 				showMessages("! Invalid number");
 				break;
@@ -93,22 +101,90 @@ public class Cli {
 	}
 
 	/**
-	 * Displays each <code>Piece</code> of the maze.
+	 * Asks the user for a maze generation engine.
+	 * 
+	 * @return chosen maze generation engine type
+	 */
+	public GeneratorType generatorType() {
+		GeneratorType[] types = GeneratorType.values();
+		StringBuilder menu = new StringBuilder("\n\tEnter maze generator\n\n");
+		for (int i = 0; i < types.length; i++)
+			menu.append(" * " + i + " - " + types[i] + "\n");
+		menu.append("\n > ");
+
+		int type = -1;
+		while (type < 0 || type >= types.length) {
+			System.out.print(menu);
+			while (!scanInt.hasNextInt()) {
+				System.out.print("\nInvalid input!\n");
+				System.out.print(menu);
+				scanInt.next();
+			}
+			type = scanInt.nextInt();
+			if (type < 0 || type >= types.length)
+				showMessages("! Invalid number");
+		}
+		System.out.println();
+		return types[type];
+	}
+
+	/**
+	 * Displays each symbol of the maze.
 	 * 
 	 * @param maze
-	 *            of the superclass <code>Maze</code> to display in console
+	 *            <code>Grid</code> of the superclass <code>Maze</code> to
+	 *            display in console
 	 * 
 	 */
-	public void displayMaze(ArrayList<ArrayList<Piece>> maze) {
+	public void displayMaze(Grid maze) {
+		byte[] row = new byte[maze.getWidth()];
 		System.out.println();
-		for (int i = 0; i < maze.size(); i++) {
-			ArrayList<Piece> mazeLine = maze.get(i);
-			for (int j = 0; j < maze.get(i).size(); j++)
-				System.out.print(mazeLine.get(j).getSymbol());
-			System.out.println();
+		for (int i = 0; i < maze.getHeight(); i++) {
+			for (int j = 0; j < row.length; j++)
+				row[j] = maze.get(j, i);
+			displayLine(row, 0, row.length);
+		}
+	}
+
+	/**
+	 * Displays a maze line by line while a streaming engine generates it, so
+	 * the whole maze is never kept in memory.
+	 * 
+	 * @param generator
+	 *            streaming maze generation engine
+	 * @param mazeSize
+	 *            odd maze size
+	 * @param random
+	 *            source of random choices
+	 */
+	public void displayMaze(StreamingGenerator generator, int mazeSize,
+			Random random) {
+		try {
+			generator.generate(mazeSize, random, new RowSink() {
+				public void startMaze(int width, int height) {
+					System.out.println();
+				}
+
+				public void writeRow(int y, byte[] row) {
+					displayLine(row, 0, row.length);
+				}
+
+				public void endMaze() {
+				}
+			});
+		} catch (IOException e) {
+			e.printStackTrace();
 		}
 	}
 
+	// Prints one maze line from an array of symbol codes
+	private void displayLine(byte[] codes, int from, int width) {
+		StringBuilder line = new StringBuilder(width * 3);
+		for (int j = from; j < from + width; j++)
+			line.append(Grid.decode(codes[j]));
+		System.out.println(line);
+	}
+
 	/**
 	 * Gets an input from the player used in computing the <code>Hero</code>
 	 * move.
@@ -1,41 +1,62 @@
 package cli;
 
+import java.util.Random;
+
+import algorithms.EllerGenerator;
 import logic.Logic;
+import logic.TurnResult;
 
 public class Main {
+	/**
+	 * Starts the console game. An optional seed argument makes every game
+	 * repeat the same maze and dragon moves. With <code>-print size
+	 * [seed]</code> a maze of any size is generated line by line and printed
+	 * instead, without keeping it in memory.
+	 * 
+	 * @param args
+	 *            optional random seed, or <code>-print</code> followed by the
+	 *            odd maze size and an optional random seed
+	 */
 	public static void main(String[] args) {
 		int size;
+		long seed;
 		String playerInput;
-		String[] message;
+		TurnResult turn = new TurnResult();
 		Logic game;
 		Cli cli = new Cli();
+		if (args.length > 1 && args[0].equals("-print")) {
+			cli.displayMaze(new EllerGenerator(), Integer.parseInt(args[1]),
+					args.length > 2 ? new Random(Long.parseLong(args[2]))
+							: new Random());
+			return;
+		}
 		while ((size = cli.setMazeSize()) != 0) {
+			seed = args.length > 0 ? Long.parseLong(args[0]) : new Random()
+					.nextLong();
 			if (size == 10)
-				game = new Logic();
+				game = new Logic(seed);
 			else
-				game = new Logic(size, 5, cli.dragonStrategy());
+				game = new Logic(size, 5, cli.dragonStrategy(), cli
+						.generatorType().create(), seed);
+			cli.showMessages("Seed " + game.getSeed());
 
 			while (true) {
 				// Display Maze
-				cli.displayMaze(game.getMaze());
+				cli.displayMaze(game.getGrid());
 				// Ask the player for a move
 				playerInput = cli.getKey();
-				message = game.playGame(playerInput);
+				game.playTurn(playerInput, turn);
 
-				if (message[0] != null) {
-					if (message[0].equals("Abort")) {
-						cli.showMessages("Game aborted!");
+				if (turn.isAborted()) {
+					cli.showMessages("Game aborted!");
+					break;
+				} else if (turn.getState() != null) {
+					cli.displayMaze(game.getGrid());
+					cli.showMessages(turn.getState().toString());
+					if (turn.isOver())
 						break;
-					} else {
-						cli.displayMaze(game.getMaze());
-						if (message[0].equals("Hero won :)")
-								|| message[0].equals("Hero died!")) {
-							cli.showMessages(message[0]);
-							break;
-						} else
-							cli.showMessages(message[0]);
-					}
 				}
+				String[] message = turn.toMessages();
 				for (int i = 1; i < message.length; i++) {
 					if (message[i] != null)
 						cli.showMessages(message[i]);
@@ -1,13 +1,26 @@
 package gui;
 
-import java.io.FileInputStream;
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Random;
 
+import algorithms.RowSink;
+import algorithms.StreamingGenerator;
+import logic.Grid;
+import logic.Journal;
+import logic.Logic;
 import logic.Piece;
+import logic.Recording;
+import logic.Snapshot;
 
 public class GameIO implements Serializable {
 
@@ -16,32 +29,162 @@ public class GameIO implements Serializable {
 	public GameIO() {
 	}
 
+	/**
+	 * Writes a maze in the binary format of {@link MazeFile}.
+	 * 
+	 * @param filename
+	 *            file to write
+	 * @param m
+	 *            maze pieces
+	 */
 	public void saveMaze(String filename, ArrayList<ArrayList<Piece>> m) {
-		FileOutputStream outStream = null;
-		ObjectOutputStream objStream = null;
+		try {
+			MazeFile.write(Grid.fromPieces(m), Paths.get(filename));
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Saves a game as it is now, see {@link Snapshot}.
+	 * 
+	 * @param filename
+	 *            file to write
+	 * @param logic
+	 *            game to save
+	 */
+	public void saveGame(String filename, Logic logic) {
+		try {
+			ByteBuffer buffer = logic.snapshot().encode();
+			FileChannel channel = FileChannel.open(Paths.get(filename),
+					StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+			try {
+				while (buffer.hasRemaining())
+					channel.write(buffer);
+			} finally {
+				channel.close();
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
 
+	/**
+	 * Resumes a game saved by {@link #saveGame(String, Logic)}.
+	 * 
+	 * @param filename
+	 *            file to read
+	 * @return game as it was saved, null if the file can't be read
+	 */
+	public Logic loadGame(String filename) {
 		try {
-			outStream = new FileOutputStream(filename);
-			objStream = new ObjectOutputStream(outStream);
+			FileChannel channel = FileChannel.open(Paths.get(filename),
+					StandardOpenOption.READ);
+			try {
+				ByteBuffer buffer = channel.map(
+						FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				return new Logic(Snapshot.decode(buffer));
+			} finally {
+				channel.close();
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
 
-			objStream.writeObject(m);
-			objStream.close();
+	/**
+	 * Starts a journal of the moves of a game, see {@link Journal}.
+	 * 
+	 * @param filename
+	 *            file to write
+	 * @param logic
+	 *            game as it is before the first move
+	 * @return journal to record the moves, null if the file can't be written
+	 */
+	public Journal openJournal(String filename, Logic logic) {
+		try {
+			return new Journal(Paths.get(filename), logic);
 		} catch (Exception e) {
 			e.printStackTrace();
+			return null;
 		}
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * Resumes a game from a journal, playing every move recorded again.
+	 * 
+	 * @param filename
+	 *            journal file to read
+	 * @return game as it was after the last move written, null if the file
+	 *         can't be read
+	 */
+	public Logic loadJournal(String filename) {
+		try {
+			return Recording.read(Paths.get(filename)).replay();
+		} catch (Exception e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Writes a maze to a file while a streaming engine generates it, so the
+	 * whole maze is never kept in memory. The file is in the format of
+	 * {@link MazeFile} with a byte per cell, read by
+	 * {@link #readFile(String)} or mapped by {@link MazeFile#map(Path)}.
+	 * 
+	 * @param filename
+	 *            file to write
+	 * @param generator
+	 *            streaming maze generation engine
+	 * @param mazeSize
+	 *            odd maze size
+	 * @param random
+	 *            source of random choices
+	 */
+	public void saveMaze(String filename, StreamingGenerator generator,
+			int mazeSize, Random random) {
+		try {
+			final OutputStream out = new BufferedOutputStream(
+					new FileOutputStream(filename));
+			try {
+				generator.generate(mazeSize, random, new RowSink() {
+					public void startMaze(int width, int height)
+							throws IOException {
+						out.write(MazeFile.rawHeader(width, height).array());
+					}
+
+					public void writeRow(int y, byte[] row) throws IOException {
+						out.write(row);
+					}
+
+					public void endMaze() throws IOException {
+						out.flush();
+					}
+				});
+			} finally {
+				out.close();
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Reads a maze file written by {@link #saveMaze(String, ArrayList)},
+	 * {@link #saveMaze(String, StreamingGenerator, int, Random)} or
+	 * serialized by older versions.
+	 * 
+	 * @param filename
+	 *            file to read
+	 * @return maze pieces, empty if the file can't be read
+	 */
 	public ArrayList<ArrayList<Piece>> readFile(String filename) {
 		ArrayList<ArrayList<Piece>> maze = new ArrayList<ArrayList<Piece>>();
-		FileInputStream inStream = null;
-		ObjectInputStream objInStream = null;
 		try {
-			inStream = new FileInputStream(filename);
-			objInStream = new ObjectInputStream(inStream);
-
-			maze = (ArrayList<ArrayList<Piece>>) objInStream.readObject();
-			objInStream.close();
+			maze = MazeFile.read(Paths.get(filename)).toPieces();
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -7,25 +7,43 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.logging.Logger;
 
-import javax.swing.ImageIcon;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.Timer;
 
+import algorithms.GeneratorType;
 import logic.*;
+import simulation.SearchPolicy;
 
 /**
  * Class <code>GameUI</code> represents the main class of the game It's where
  * all the elements of the game are drawn and where the player can watch the
  * visual effects of the game
  * 
- * @author Andr Pinheiro
- * @author Jos Peixoto
+ * @author Andr� Pinheiro
+ * @author Jos� Peixoto
  * @author Paulo Faria
  */
-public class GameUI extends JPanel implements ActionListener, KeyListener {
+public class GameUI extends JPanel implements ActionListener, KeyListener,
+		GameListener {
 
 	private static final long serialVersionUID = 1L;
+	private static final Logger LOG = Logger.getLogger(GameUI.class
+			.getName());
+
+	/**
+	 * Journal the moves of every game are recorded to, so a game lost in a
+	 * crash can be resumed from the menu.
+	 */
+	public static final String AUTOSAVE = "autosave.journal";
+
+	/**
+	 * Time the autoplayer searches every move for, in milliseconds.
+	 */
+	public static final int AUTOPLAY_MILLIS = 100;
+
 	private Logic logic;
 	private Menu menu;
 	private Dimension dimension;
@@ -37,6 +55,18 @@ public class GameUI extends JPanel implements ActionListener, KeyListener {
 	private boolean playerCanMove;
 	private HashMap<String, Integer> gameKeys;
 	private int wallConfig = 0;
+	private final TurnResult turn = new TurnResult();
+	private final EventBuffer events = new EventBuffer(1024);
+	private boolean eagleKilled;
+	private final SpriteCache sprites = new SpriteCache(0, 0);
+	private Viewport viewport;
+	private final Object frameLock = new Object();
+	private RenderLoop renderLoop;
+	private Journal journal;
+	private boolean autosave = true;
+	private SearchPolicy autoplayer;
+	private Timer autoplay;
+	private int turns;
 
 	/**
 	 * The main constructor of the this class. It loads all the data that is
@@ -51,28 +81,29 @@ public class GameUI extends JPanel implements ActionListener, KeyListener {
 	 *            dragon number integer
 	 * @param dragonStrategy
 	 *            dragon game strategy mode integer
+	 * @param generatorType
+	 *            maze generation engine used for random mazes
 	 * @param dimension
 	 *            dimensions of the window
 	 */
 	public GameUI(int boardSize, Menu menu, int dragonCounter,
-			int dragonStrategy, Dimension dimension) {
+			int dragonStrategy, GeneratorType generatorType,
+			Dimension dimension) {
 		this.menu = menu;
 		this.boardSize = boardSize;
 		this.dimension = dimension;
 		gameKeys = menu.getGameKeyboard().getSavedKeys();
 		loadData();
-
-		widthPixelsPerTile = dimension.width / boardSize;
-		heightPixelsPerTile = dimension.height / boardSize;
 		addKeyListener(this);
 
 		if (boardSize == 10)
 			logic = new Logic(); // Load the predefined puzzle
 		else
-			logic = new Logic(boardSize, dragonCounter, dragonStrategy); // Load
-																			// a
-																			// random
-																			// maze
+			logic = new Logic(boardSize, dragonCounter, dragonStrategy,
+					generatorType.create()); // Load a random maze
+		logic.addListener(events);
+		logic.getGrid().trackChanges();
+		createViewport();
 	}
 
 	/**
@@ -95,81 +126,185 @@ public class GameUI extends JPanel implements ActionListener, KeyListener {
 	 */
 	public GameUI(Menu menu, int dragonStrategy, Dimension dimension,
 			ArrayList<ArrayList<Piece>> maze, Play play) {
-		this.boardSize = maze.size();
+		this(menu, dragonStrategy, dimension, Grid.fromPieces(maze), play);
+	}
+
+	/**
+	 * Constructor for a custom game read from a maze file.
+	 * 
+	 * @param menu
+	 *            Menu panel class object
+	 * @param dragonStrategy
+	 *            dragon game strategy mode integer
+	 * @param dimension
+	 *            dimensions of the window
+	 * @param grid
+	 *            maze grid
+	 * @param play
+	 *            Play panel class object
+	 */
+	public GameUI(Menu menu, int dragonStrategy, Dimension dimension,
+			Grid grid, Play play) {
+		this(menu, new Logic(grid, dragonStrategy), dimension);
+	}
+
+	/**
+	 * Constructor resuming a game, such as one saved with F5.
+	 * 
+	 * @param menu
+	 *            Menu panel class object
+	 * @param logic
+	 *            game to play
+	 * @param dimension
+	 *            dimensions of the window
+	 */
+	public GameUI(Menu menu, Logic logic, Dimension dimension) {
+		this.logic = logic;
+		this.boardSize = logic.getGrid().getWidth();
 		this.dimension = dimension;
 		this.menu = menu;
 		this.gameKeys = menu.getGameKeyboard().getSavedKeys();
 		loadData();
-
-		widthPixelsPerTile = dimension.width / boardSize;
-		heightPixelsPerTile = dimension.height / boardSize;
 		addKeyListener(this);
-		logic = new Logic(maze, dragonStrategy);
+		logic.addListener(events);
+		logic.getGrid().trackChanges();
+		createViewport();
+	}
+
+	/**
+	 * Constructor used to draw an existing game without a window, for
+	 * example into an offscreen image. The panel doesn't listen to the
+	 * keyboard as there's no menu to read the game keys from
+	 *
+	 * @param logic
+	 *            game to draw
+	 * @param dimension
+	 *            dimensions of the drawing area
+	 */
+	public GameUI(Logic logic, Dimension dimension) {
+		this.logic = logic;
+		this.boardSize = logic.getGrid().getWidth();
+		this.dimension = dimension;
+		loadData();
+		logic.getGrid().trackChanges();
+		createViewport();
+	}
+
+	// Tiles keep a minimum size, so boards bigger than the window scroll
+	// with the hero instead of shrinking to nothing
+	private void createViewport() {
+		viewport = new Viewport(boardSize, boardSize, dimension);
+		widthPixelsPerTile = viewport.getTileWidth();
+		heightPixelsPerTile = viewport.getTileHeight();
+		viewport.follow(logic.getHero().getPosX(), logic.getHero().getPosY());
+	}
+
+	/**
+	 * Gets the part of the board shown.
+	 *
+	 * @return camera following the hero
+	 */
+	public Viewport getViewport() {
+		return viewport;
+	}
+
+	/**
+	 * Draws the game actively from now on, on a canvas covering the panel,
+	 * instead of through Swing repaints. Must be called once the panel is
+	 * shown. Turns are still played on the Swing thread as keys are
+	 * pressed, only drawing moves to the render thread, and Swing repaints
+	 * leave the board to it. F3 shows the frame times, which are logged to
+	 * the <code>gui.GameUI</code> logger when the panel closes
+	 *
+	 * @param ticksPerSecond
+	 *            frames drawn per second, passive rendering is kept if 0
+	 */
+	public void startActiveRendering(int ticksPerSecond) {
+		if (ticksPerSecond <= 0 || renderLoop != null)
+			return;
+		Canvas canvas = new Canvas();
+		canvas.setIgnoreRepaint(true);
+		canvas.addKeyListener(this);
+		setLayout(new BorderLayout());
+		add(canvas, BorderLayout.CENTER);
+		validate();
+
+		renderLoop = new RenderLoop(this, canvas, ticksPerSecond);
+		renderLoop.start();
+		canvas.requestFocusInWindow();
+	}
+
+	public void removeNotify() {
+		if (renderLoop != null) {
+			renderLoop.stop();
+			LOG.info("Render loop stopped: " + renderLoop);
+			renderLoop = null;
+		}
+		closeJournal();
+		stopAutoplay();
+		super.removeNotify();
 	}
 
 	// Load all the images so they'll be available during all the program
 	// execution
 	public void loadData() {
 		playerCanMove = true;
-		wall = new ImageIcon("src//png//wall_red.png").getImage();
-		wall_red = new ImageIcon("src//png//wall_red.png").getImage();
-		wall_green = new ImageIcon("src//png//wall_green.png").getImage();
-		wall_brown = new ImageIcon("src//png//wall_brown.png").getImage();
-		wall_black = new ImageIcon("src//png//wall_black.png").getImage();
-		path = new ImageIcon("src//png/path.png").getImage();
-		sword = new ImageIcon("src//png/sword.png").getImage();
-		exit = new ImageIcon("src//png/exit.png").getImage();
-		exit_symmetrical = new ImageIcon("src//png/exit_symmetrical.png")
-				.getImage();
-		dragon = new ImageIcon("src//png/dragon.png").getImage();
-		dragon_asleep = new ImageIcon("src//png/dragon_asleep.png").getImage();
-		dragon_guarding = new ImageIcon("src//png/dragon_guarding.png")
-				.getImage();
-		dragon_guarding_asleep = new ImageIcon(
-				"src//png/dragon_guarding_asleep.png").getImage();
-		hero_armed_eagle = new ImageIcon("src//png/hero_armed_eagle.png")
-				.getImage();
-		hero_unarmed_eagle = new ImageIcon("src//png/hero_unarmed_eagle.png")
-				.getImage();
-		hero_unarmed = new ImageIcon("src//png/hero_unarmed.png").getImage();
-		hero_armed = new ImageIcon("src//png/hero_armed.png").getImage();
-		eagle = new ImageIcon("src//png/eagle.png").getImage();
-		eagle_returning_sword = new ImageIcon(
-				"src//png/eagle_returning_sword.png").getImage();
+		wall = SpriteCache.load("src//png//wall_red.png");
+		wall_red = SpriteCache.load("src//png//wall_red.png");
+		wall_green = SpriteCache.load("src//png//wall_green.png");
+		wall_brown = SpriteCache.load("src//png//wall_brown.png");
+		wall_black = SpriteCache.load("src//png//wall_black.png");
+		path = SpriteCache.load("src//png/path.png");
+		sword = SpriteCache.load("src//png/sword.png");
+		exit = SpriteCache.load("src//png/exit.png");
+		exit_symmetrical = SpriteCache.load("src//png/exit_symmetrical.png");
+		dragon = SpriteCache.load("src//png/dragon.png");
+		dragon_asleep = SpriteCache.load("src//png/dragon_asleep.png");
+		dragon_guarding = SpriteCache.load("src//png/dragon_guarding.png");
+		dragon_guarding_asleep = SpriteCache
+				.load("src//png/dragon_guarding_asleep.png");
+		hero_armed_eagle = SpriteCache.load("src//png/hero_armed_eagle.png");
+		hero_unarmed_eagle = SpriteCache
+				.load("src//png/hero_unarmed_eagle.png");
+		hero_unarmed = SpriteCache.load("src//png/hero_unarmed.png");
+		hero_armed = SpriteCache.load("src//png/hero_armed.png");
+		eagle = SpriteCache.load("src//png/eagle.png");
+		eagle_returning_sword = SpriteCache
+				.load("src//png/eagle_returning_sword.png");
 	}
 
 	// This function is called when the player presses a keyboard key
 	public void keyPressed(KeyEvent e) {
-		String state[] = new String[4];
-
 		// Check if the player can move
 		if (playerCanMove) {
 			if (e.getKeyCode() == gameKeys.get("up")
 					|| e.getKeyCode() == gameKeys.get("up_arrow")) {
-				state = logic.playGame("w");
-				repaint();
+				play("w");
 			} else if (e.getKeyCode() == gameKeys.get("down")
 					|| e.getKeyCode() == gameKeys.get("down_arrow")) {
-				state = logic.playGame("s");
-				repaint();
+				play("s");
 			} else if (e.getKeyCode() == gameKeys.get("right")
 					|| e.getKeyCode() == gameKeys.get("right_arrow")) {
-				state = logic.playGame("d");
-				repaint();
+				play("d");
 			} else if (e.getKeyCode() == gameKeys.get("left")
 					|| e.getKeyCode() == gameKeys.get("left_arrow")) {
-				state = logic.playGame("a");
-				repaint();
+				play("a");
 			} else if (e.getKeyCode() == gameKeys.get("eagle")
 					|| e.getKeyCode() == gameKeys.get("eagle_spacebar")) {
-				state = logic.playGame("e");
-				repaint();
+				play("e");
 			} else if (e.getKeyCode() == KeyEvent.VK_PLUS) {
 				changeWallColor(true);
 				repaint();
 			} else if (e.getKeyCode() == KeyEvent.VK_MINUS) {
 				changeWallColor(false);
 				repaint();
+			} else if (e.getKeyCode() == KeyEvent.VK_F3
+					&& renderLoop != null) {
+				renderLoop.toggleOverlay();
+			} else if (e.getKeyCode() == KeyEvent.VK_F5) {
+				saveGame();
+			} else if (e.getKeyCode() == KeyEvent.VK_F6) {
+				toggleAutoplay();
 			}
 		}
 
@@ -185,13 +320,8 @@ public class GameUI extends JPanel implements ActionListener, KeyListener {
 				menu.closePanel(this, menu, "Maze Game");
 		}
 
-		if (state[0] != null)
-			analyzeGeneralState(state[0]);
-
-		if (state[3] != null)
-			analyzeEagleState(state[3]);
-		else if (state[2] != null)
-			analyzeEagleState(state[2]);
+		// Handle the events of the turn once it's over
+		handleEvents();
 	}
 
 	public void keyReleased(KeyEvent e) {
@@ -204,18 +334,140 @@ public class GameUI extends JPanel implements ActionListener, KeyListener {
 		repaint();
 	}
 
+	// Saves the game as it is now, to be resumed from the menu
+	private void saveGame() {
+		String filename = JOptionPane.showInputDialog("Enter filename");
+		if (filename != null && !filename.isEmpty())
+			new GameIO().saveGame(filename + ".game", logic);
+	}
+
+	// Plays a turn out of the way of the render thread
+	private void play(String move) {
+		synchronized (frameLock) {
+			record(move);
+			logic.playTurn(move, turn);
+			turns++;
+			repaintChanges();
+		}
+	}
+
+	// Lets the search play the hero until F6 is pressed again. Following
+	// the game forks it, which changes how the grid keeps its cells, so it
+	// happens out of the way of the render thread. The search then only
+	// reads the game, on the event thread playing the turns, and the timer
+	// only starts again once the move and its dialogs are over
+	private void toggleAutoplay() {
+		if (autoplay != null) {
+			stopAutoplay();
+			return;
+		}
+		autoplayer = new SearchPolicy(AUTOPLAY_MILLIS);
+		autoplay = new Timer(AUTOPLAY_MILLIS, new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				if (playerCanMove) {
+					synchronized (frameLock) {
+						autoplayer.follow(logic);
+					}
+					play(autoplayer.nextMove(logic, turns));
+				}
+				handleEvents();
+				if (autoplay != null && playerCanMove && !turn.isOver())
+					autoplay.restart();
+			}
+		});
+		autoplay.setRepeats(false);
+		autoplay.start();
+	}
+
+	private void stopAutoplay() {
+		if (autoplay == null)
+			return;
+		autoplay.stop();
+		autoplayer.shutdown();
+		autoplay = null;
+		autoplayer = null;
+	}
+
+	// Appends the move to the autosave journal, started before the first
+	// move. Autosaving stops if the journal can't be written
+	private void record(String move) {
+		if (!autosave)
+			return;
+		if (journal == null)
+			journal = new GameIO().openJournal(AUTOSAVE, logic);
+		try {
+			if (journal != null)
+				journal.record(move);
+		} catch (Exception e) {
+			e.printStackTrace();
+			closeJournal();
+		}
+		autosave = journal != null;
+	}
+
+	private void closeJournal() {
+		if (journal == null)
+			return;
+		try {
+			journal.close();
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		journal = null;
+		autosave = false;
+	}
+
 	public void paint(Graphics g) {
 		super.paint(g);
-		int linePixel = 0;
+		// The render thread draws the board when rendering actively
+		if (renderLoop != null)
+			return;
+		Rectangle clip = g.getClipBounds();
+		if (clip == null)
+			clip = new Rectangle(dimension);
+		drawBoard(g, clip);
+	}
 
-		g.drawImage(wall, 0, 0, dimension.width, dimension.height, 0, 0,
-				dimension.width, dimension.height, null);
+	/**
+	 * Draws a whole frame, called by the render thread when rendering
+	 * actively.
+	 *
+	 * @param g
+	 *            graphics of the back buffer
+	 */
+	void drawFrame(Graphics g) {
+		synchronized (frameLock) {
+			drawBoard(g, new Rectangle(dimension));
+		}
+	}
 
-		// Draw the maze
-		for (int x = 0; x < boardSize; x++, linePixel++) { // Lines
-			for (int y = 0; y < boardSize; y++) { // Columns
-				if (getPiece(y, x).getSymbol()
-						.equals(PieceType.FREE.asString()))
+	private void drawBoard(Graphics g, Rectangle clip) {
+
+		g.drawImage(wall, clip.x, clip.y, clip.x + clip.width, clip.y
+				+ clip.height, clip.x, clip.y, clip.x + clip.width, clip.y
+				+ clip.height, null);
+
+		// Draw the visible maze tiles inside the area being repainted. Lines
+		// and columns are counted from the viewport corner, the board tile is
+		// offset by the camera
+		sprites.setTileSize(widthPixelsPerTile, heightPixelsPerTile);
+		Grid grid = logic.getGrid();
+		int left = viewport.getLeft(), top = viewport.getTop();
+		int firstLine = Math.max(0, clip.y / heightPixelsPerTile);
+		int lastLine = Math.min(viewport.getRows() - 1,
+				(clip.y + clip.height - 1) / heightPixelsPerTile);
+		int firstColumn = Math.max(0, clip.x / widthPixelsPerTile);
+		int lastColumn = Math.min(viewport.getColumns() - 1,
+				(clip.x + clip.width - 1) / widthPixelsPerTile);
+		for (int x = firstLine; x <= lastLine; x++) { // Lines
+			int linePixel = x;
+			for (int y = firstColumn; y <= lastColumn; y++) { // Columns
+				PieceType type = Grid.type(grid.get(left + y, top + x));
+				if (type == null)
+					continue;
+
+				switch (type) {
+				case FREE:
 					g.drawImage(path, widthPixelsPerTile * y,
 							heightPixelsPerTile * linePixel, widthPixelsPerTile
 									* y + widthPixelsPerTile,
@@ -225,85 +477,97 @@ public class GameUI extends JPanel implements ActionListener, KeyListener {
 							widthPixelsPerTile * y + widthPixelsPerTile,
 							heightPixelsPerTile * linePixel
 									+ heightPixelsPerTile, null);
+					break;
 				// Hero
-				else if (getPiece(y, x).getSymbol().equals(
-						PieceType.HERO_UNARMED_EAGLE.asString())) {
+				case HERO_UNARMED_EAGLE:
 					drawWithTransparency(g, hero_unarmed_eagle, y, linePixel);
-				} // Hero unarmed
-				else if (getPiece(y, x).getSymbol().equals(
-						PieceType.HERO_UNARMED.asString())) {
+					break;
+				// Hero unarmed
+				case HERO_UNARMED:
 					drawWithTransparency(g, hero_unarmed, y, linePixel);
-				} // Hero armed
-				else if (getPiece(y, x).getSymbol().equals(
-						PieceType.HERO_ARMED.asString())) {
+					break;
+				// Hero armed
+				case HERO_ARMED:
 					drawWithTransparency(g, hero_armed, y, linePixel);
-				} // Hero armed with eagle
-				else if (getPiece(y, x).getSymbol().equals(
-						PieceType.HERO_ARMED_EAGLE.asString())) {
+					break;
+				// Hero armed with eagle
+				case HERO_ARMED_EAGLE:
 					drawWithTransparency(g, hero_armed_eagle, y, linePixel);
-				} // Dragon
-				else if (getPiece(y, x).getSymbol().equals(
-						PieceType.DRAGON.asString())) {
+					break;
+				// Dragon
+				case DRAGON:
 					drawWithTransparency(g, dragon, y, linePixel);
-				} // Dragon is sleeping
-				else if (getPiece(y, x).getSymbol().equals(
-						PieceType.DRAGON_ASLEEP.asString())) {
+					break;
+				// Dragon is sleeping
+				case DRAGON_ASLEEP:
 					drawWithTransparency(g, dragon_asleep, y, linePixel);
-				} // Dragon is guarding
-				else if (getPiece(y, x).getSymbol().equals(
-						PieceType.DRAGON_GUARDING.asString())) {
+					break;
+				// Dragon is guarding
+				case DRAGON_GUARDING:
 					drawWithTransparency(g, dragon_guarding, y, linePixel);
-				} // The dragon is guarding and sleeping
-				else if (getPiece(y, x).getSymbol().equals(
-						PieceType.DRAGON_GUARDING_ASLEEP.asString())) {
+					break;
+				// The dragon is guarding and sleeping
+				case DRAGON_GUARDING_ASLEEP:
 					drawWithTransparency(g, dragon_guarding_asleep, y,
 							linePixel);
-				} // Sword
-				else if (getPiece(y, x).getSymbol().equals(
-						PieceType.SWORD.asString())) {
+					break;
+				// Sword
+				case SWORD:
 					drawWithTransparency(g, sword, y, linePixel);
-				} // Exit
-				else if (getPiece(y, x).getSymbol().equals(
-						PieceType.EXIT.asString())
-						&& y == 0) {
-					drawWithTransparency(g, exit, y, linePixel);
-				} else if (getPiece(y, x).getSymbol().equals(
-						PieceType.EXIT.asString())
-						&& y != 0) {
-					drawWithTransparency(g, exit_symmetrical, y, linePixel);
-				} // Eagle
-				else if (getPiece(y, x).getSymbol().equals(
-						PieceType.PURSUING_EAGLE.asString())
-						|| getPiece(y, x).getSymbol().equals(
-								PieceType.PURSUING_DRAGON_EAGLE.asString())
-						|| getPiece(y, x).getSymbol().equals(
-								PieceType.PURSUING_DRAGON_ASLEEP_EAGLE
-										.asString())) {
+					break;
+				// Exit
+				case EXIT:
+					drawWithTransparency(g, left + y == 0 ? exit
+							: exit_symmetrical, y, linePixel);
+					break;
+				// Eagle
+				case PURSUING_EAGLE:
+				case PURSUING_DRAGON_EAGLE:
+				case PURSUING_DRAGON_ASLEEP_EAGLE:
 					drawWithTransparency(g, eagle, y, linePixel);
-				} else if (getPiece(y, x).getSymbol().equals(
-						PieceType.PURSUING_WALL_EAGLE.asString())) {
+					break;
+				case PURSUING_WALL_EAGLE:
 					drawSimple(g, eagle, y, linePixel);
-				} else if (getPiece(y, x).getSymbol().equals(
-						PieceType.RETURNING_WALL_EAGLE.asString())) {
+					break;
+				case RETURNING_WALL_EAGLE:
 					drawSimple(g, eagle_returning_sword, y, linePixel);
-				} else if (getPiece(y, x).getSymbol().equals(
-						PieceType.GROUND_EAGLE.asString())
-						|| getPiece(y, x).getSymbol().equals(
-								PieceType.RETURNING_DRAGON_ASLEEP_EAGLE
-										.asString())
-						|| getPiece(y, x).getSymbol().equals(
-								PieceType.RETURNING_DRAGON_EAGLE.asString())) {
+					break;
+				case GROUND_EAGLE:
+				case RETURNING_DRAGON_ASLEEP_EAGLE:
+				case RETURNING_DRAGON_EAGLE:
 					drawWithTransparency(g, eagle_returning_sword, y, linePixel);
+					break;
+				default:
+					break;
 				}
 			}
 		}
 	}
 
+	// Repaints only the visible tiles written since the last call, or the
+	// whole view if the camera scrolled after the hero. The render thread
+	// draws every frame whole when rendering actively
+	private void repaintChanges() {
+		Grid grid = logic.getGrid();
+		DirtyCells changes = grid.trackChanges();
+		if (viewport.follow(logic.getHero().getPosX(), logic.getHero()
+				.getPosY()) && renderLoop == null)
+			repaint();
+		else if (renderLoop == null)
+			for (int i = 0; i < changes.size(); i++) {
+				int x = changes.get(i) % grid.getWidth();
+				int y = changes.get(i) / grid.getWidth();
+				if (viewport.contains(x, y))
+					repaint(widthPixelsPerTile * (x - viewport.getLeft()),
+							heightPixelsPerTile * (y - viewport.getTop()),
+							widthPixelsPerTile, heightPixelsPerTile);
+			}
+		changes.clear();
+	}
+
 	public void drawSimple(Graphics g, Image image, int y, int linePixel) {
-		g.drawImage(image, widthPixelsPerTile * y, heightPixelsPerTile
-				* linePixel, widthPixelsPerTile * y + widthPixelsPerTile,
-				heightPixelsPerTile * linePixel + heightPixelsPerTile, 0, 0,
-				720, 720, null);
+		g.drawImage(sprites.get(image, 0), widthPixelsPerTile * y,
+				heightPixelsPerTile * linePixel, null);
 	}
 
 	public void drawWithTransparency(Graphics g, Image image, int y,
@@ -314,10 +578,8 @@ public class GameUI extends JPanel implements ActionListener, KeyListener {
 				widthPixelsPerTile * y, heightPixelsPerTile * linePixel,
 				widthPixelsPerTile * y + widthPixelsPerTile,
 				heightPixelsPerTile * linePixel + heightPixelsPerTile, null);
-		g.drawImage(image, widthPixelsPerTile * y, heightPixelsPerTile
-				* linePixel, widthPixelsPerTile * y + widthPixelsPerTile,
-				heightPixelsPerTile * linePixel + heightPixelsPerTile, 0, 7,
-				720, 720, null);
+		g.drawImage(sprites.get(image, 7), widthPixelsPerTile * y,
+				heightPixelsPerTile * linePixel, null);
 	}
 
 	// Returns a Piece object of the maze
@@ -355,7 +617,31 @@ public class GameUI extends JPanel implements ActionListener, KeyListener {
 		}
 	}
 
+	// Shows the dialogs of the turn, the game state before the eagle's
+	private void handleEvents() {
+		eagleKilled = false;
+		events.drain(this);
+		if (eagleKilled)
+			analyzeEagleState("Dragon killed the eagle!\n * Dragon is now guarding the sword");
+	}
+
 	// Shows a dialog based on the game state
+	public void gameEvent(GameEvent event, int x, int y) {
+		switch (event) {
+		case HERO_DIED:
+			analyzeGeneralState(State.HERO_DEAD.toString());
+			break;
+		case HERO_WON:
+			analyzeGeneralState(State.HERO_WON.toString());
+			break;
+		case EAGLE_KILLED:
+			eagleKilled = true;
+			break;
+		default:
+			break;
+		}
+	}
+
 	public void analyzeGeneralState(String state) {
 		if (state.equals(State.HERO_DEAD.toString())) {
 			JOptionPane.showMessageDialog(null, "Hero died!");
@@ -8,8 +8,7 @@ import java.awt.event.KeyListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.io.FileOutputStream;
-import java.io.ObjectOutputStream;
+import java.nio.file.Paths;
 
 import javax.swing.ImageIcon;
 import javax.swing.JMenuItem;
@@ -19,6 +18,7 @@ import javax.swing.JPopupMenu;
 
 import java.util.ArrayList;
 
+import logic.Grid;
 import logic.Piece;
 import logic.PieceType;
 
@@ -29,6 +29,7 @@ public class MazeBuilder extends JPanel implements KeyListener {
 	private ArrayList<ArrayList<Piece>> maze;
 	private ArrayList<PieceType> types;
 	private int widthPixelsPerTile, heightPixelsPerTile, mazeSize;
+	private SpriteCache sprites;
 
 	MazeBuilder(final Menu menu, int boardSize, Dimension dimension) {
 		this.menu = menu;
@@ -37,6 +38,7 @@ public class MazeBuilder extends JPanel implements KeyListener {
 		types = new ArrayList<PieceType>();
 		widthPixelsPerTile = dimension.width / boardSize;
 		heightPixelsPerTile = dimension.height / boardSize;
+		sprites = new SpriteCache(widthPixelsPerTile, heightPixelsPerTile);
 
 		addKeyListener(this);
 		setSize(dimension);
@@ -67,26 +69,29 @@ public class MazeBuilder extends JPanel implements KeyListener {
 
 		for (int i = 0; i < mazeSize; i++) {
 			ArrayList<Piece> row = new ArrayList<Piece>();
-			for (int j = 0; j < mazeSize; j++)
-				row.add(new Piece(j, i, PieceType.FREE.asString(),
-						new ImageIcon("src//png//path.png"),
-						widthPixelsPerTile, heightPixelsPerTile));
+			for (int j = 0; j < mazeSize; j++) {
+				Piece piece = new Piece(j, i, PieceType.FREE.asString(),
+						SpriteCache.icon("src//png//path.png"),
+						widthPixelsPerTile, heightPixelsPerTile);
+				piece.setFloor(SpriteCache.load("src//png//path.png"));
+				row.add(piece);
+			}
 			maze.add(row);
 		}
 
 		for (int i = 0; i < mazeSize; i++) {
 			maze.get(0).get(i).setSymbol(PieceType.WALL.asString());
 			maze.get(0).get(i)
-					.setImage(new ImageIcon("src//png//wall_red.png"));
+					.setImage(SpriteCache.icon("src//png//wall_red.png"));
 			maze.get(mazeSize - 1).get(i).setSymbol(PieceType.WALL.asString());
 			maze.get(mazeSize - 1).get(i)
-					.setImage(new ImageIcon("src//png//wall_red.png"));
+					.setImage(SpriteCache.icon("src//png//wall_red.png"));
 			maze.get(i).get(0).setSymbol(PieceType.WALL.asString());
 			maze.get(i).get(0)
-					.setImage(new ImageIcon("src//png//wall_red.png"));
+					.setImage(SpriteCache.icon("src//png//wall_red.png"));
 			maze.get(i).get(mazeSize - 1).setSymbol(PieceType.WALL.asString());
 			maze.get(i).get(mazeSize - 1)
-					.setImage(new ImageIcon("src//png//wall_red.png"));
+					.setImage(SpriteCache.icon("src//png//wall_red.png"));
 		}
 	}
 
@@ -127,7 +132,7 @@ public class MazeBuilder extends JPanel implements KeyListener {
 
 	public void showPopup(Piece p) {
 		JMenuItem item;
-		MouseListener listener = new PopupListener(p, mazeSize);
+		MouseListener listener = new PopupListener(p, mazeSize, sprites);
 		final JPopupMenu popup = new JPopupMenu();
 		for (int i = 0; i < types.size(); i++) {
 			if (types.get(i).asString() != p.getSymbol()) {
@@ -219,25 +224,10 @@ public class MazeBuilder extends JPanel implements KeyListener {
 	}
 
 	public void saveMaze(String filename, ArrayList<ArrayList<Piece>> maze) {
-		// We should not write the images to the file
-		ArrayList<ArrayList<Piece>> tmp = new ArrayList<ArrayList<Piece>>();
-		for (int i = 0; i < maze.size(); i++) {
-			ArrayList<Piece> row = new ArrayList<Piece>();
-			for (int j = 0; j < maze.get(i).size(); j++) {
-				row.add(new Piece(j, i, maze.get(i).get(j).getSymbol()));
-			}
-			tmp.add(row);
-		}
-
-		FileOutputStream outStream = null;
-		ObjectOutputStream objStream = null;
-
+		// Only the symbols are written, see MazeFile
 		try {
-			outStream = new FileOutputStream(filename + ".maze");
-			objStream = new ObjectOutputStream(outStream);
-
-			objStream.writeObject(tmp);
-			objStream.close();
+			MazeFile.write(Grid.fromPieces(maze),
+					Paths.get(filename + ".maze"));
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -247,10 +237,12 @@ public class MazeBuilder extends JPanel implements KeyListener {
 class PopupListener extends MouseAdapter {
 	Piece p;
 	int mazeSize;
+	SpriteCache sprites;
 
-	public PopupListener(Piece p, int mazeSize) {
+	public PopupListener(Piece p, int mazeSize, SpriteCache sprites) {
 		this.p = p;
 		this.mazeSize = mazeSize;
+		this.sprites = sprites;
 	}
 
 	public void setData(ImageIcon img, String symbol) {
@@ -258,19 +250,24 @@ class PopupListener extends MouseAdapter {
 		p.setImage(img);
 	}
 
+	// Pieces drawn over the path are scaled to the tile size only once
+	private ImageIcon sprite(String path) {
+		return new ImageIcon(sprites.get(SpriteCache.load(path), 0));
+	}
+
 	public void mousePressed(MouseEvent e) {
 		Component x = e.getComponent();
 		if (x instanceof JMenuItem) {
 			String tmp = ((JMenuItem) x).getText();
 			if (tmp.equals(PieceType.WALL.asString())) {
-				setData(new ImageIcon("src//png//wall_red.png"),
+				setData(SpriteCache.icon("src//png//wall_red.png"),
 						PieceType.WALL.asString());
 			} else if (tmp.equals(PieceType.FREE.asString())) {
 				if (p.getPosX() == 0 || p.getPosX() == mazeSize - 1) {
 					JOptionPane.showMessageDialog(null,
 							"Can't set this piece as path");
 				} else {
-					setData(new ImageIcon("src//png//path.png"),
+					setData(SpriteCache.icon("src//png//path.png"),
 							PieceType.FREE.asString());
 				}
 			} else if (tmp.equals(PieceType.EXIT.asString())) {
@@ -280,10 +277,10 @@ class PopupListener extends MouseAdapter {
 							"Can't set this piece to be an exit");
 				} else {
 					if (p.getPosX() == 0) {
-						setData(new ImageIcon("src//png//exit.png"),
+						setData(sprite("src//png//exit.png"),
 								PieceType.EXIT.asString());
 					} else {
-						setData(new ImageIcon("src//png//exit_symmetrical.png"),
+						setData(sprite("src//png//exit_symmetrical.png"),
 								PieceType.EXIT.asString());
 					}
 				}
@@ -292,7 +289,7 @@ class PopupListener extends MouseAdapter {
 					JOptionPane.showMessageDialog(null,
 							"Can't set hero in this piece");
 				} else {
-					setData(new ImageIcon("src//png//hero_unarmed_eagle.png"),
+					setData(sprite("src//png//hero_unarmed_eagle.png"),
 							PieceType.HERO_UNARMED_EAGLE.asString());
 				}
 			} else if (tmp.equals(PieceType.SWORD.asString())) {
@@ -300,7 +297,7 @@ class PopupListener extends MouseAdapter {
 					JOptionPane.showMessageDialog(null,
 							"Can't set this piece as sword");
 				} else {
-					setData(new ImageIcon("src//png//sword.png"),
+					setData(sprite("src//png//sword.png"),
 							PieceType.SWORD.asString());
 				}
 			} else if (tmp.equals(PieceType.DRAGON.asString())) {
@@ -308,7 +305,7 @@ class PopupListener extends MouseAdapter {
 					JOptionPane.showMessageDialog(null,
 							"Can't set a dragon in this piece");
 				} else {
-					setData(new ImageIcon("src//png//dragon.png"),
+					setData(sprite("src//png//dragon.png"),
 							PieceType.DRAGON.asString());
 				}
 			}
@@ -0,0 +1,427 @@
+package gui;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+import logic.Cell;
+import logic.Grid;
+import logic.Piece;
+
+/**
+ * Class <code>MazeFile</code> reads and writes mazes in a compact binary
+ * format through NIO channels, instead of serializing the Swing pieces of
+ * the maze. Files written by the old serialization are still read.
+ * <p>
+ * A file starts with a header holding the format magic, its version, the
+ * maze size and the length of both sections. The terrain section follows:
+ * walls and exits run length encoded along the lines, one byte per run of up
+ * to 15 equal cells, with the length of longer runs continued in the next
+ * bytes. Mazes of narrow corridors have short runs, so their terrain is
+ * packed 2 bits per cell instead when that's smaller. The entity section
+ * lists every other cell, the hero, eagle, sword and dragons, as the
+ * distance from the previous one and its state.
+ * <p>
+ * Huge mazes can instead be written with every cell state in a byte, so the
+ * file is mapped to memory and played without reading it to the heap, see
+ * {@link #map(Path)}.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class MazeFile {
+
+	/**
+	 * First bytes of a maze file, "MAZE" in ASCII.
+	 */
+	public static final int MAGIC = 0x4D415A45;
+
+	/**
+	 * Version of the format written.
+	 */
+	public static final short VERSION = 1;
+
+	/**
+	 * Size of the header in bytes.
+	 */
+	public static final int HEADER_SIZE = 24;
+
+	/**
+	 * Header flag set when the terrain is packed instead of run length
+	 * encoded.
+	 */
+	public static final short PACKED_TERRAIN = 0x01;
+
+	/**
+	 * Header flag set when the terrain section holds every cell state in a
+	 * byte, with no entity section.
+	 */
+	public static final short RAW_CELLS = 0x02;
+
+	/**
+	 * Number of cells from which {@link #write(Grid, Path)} writes a byte
+	 * per cell, so huge mazes saved by the game are mapped when opened.
+	 */
+	public static final int MAPPED_CELLS = 1 << 16;
+
+	// Cell states kept by the terrain section
+	private static final int TERRAIN = Cell.WALL | Cell.EXIT;
+
+	// First bytes of a Java serialization stream
+	private static final short LEGACY_MAGIC = (short) 0xACED;
+
+	private MazeFile() {
+	}
+
+	/**
+	 * Writes a maze to a file, replacing it if it exists. Mazes of
+	 * {@link #MAPPED_CELLS} or more are written to be mapped.
+	 *
+	 * @param grid
+	 *            maze grid
+	 * @param file
+	 *            file to write
+	 * @throws IOException
+	 *             if the file can't be written
+	 */
+	public static void write(Grid grid, Path file) throws IOException {
+		write(grid, file, grid.getCellCount() >= MAPPED_CELLS);
+	}
+
+	/**
+	 * Writes a maze to a file, replacing it if it exists.
+	 *
+	 * @param grid
+	 *            maze grid
+	 * @param file
+	 *            file to write
+	 * @param mappable
+	 *            true to write a byte per cell, for {@link #map(Path)}
+	 * @throws IOException
+	 *             if the file can't be written
+	 */
+	public static void write(Grid grid, Path file, boolean mappable)
+			throws IOException {
+		// The cells are written as they are instead of copied to a buffer
+		ByteBuffer[] buffers;
+		if (mappable) {
+			ByteBuffer header = rawHeader(grid.getWidth(), grid.getHeight());
+			buffers = new ByteBuffer[] { header, ByteBuffer.wrap(cells(grid)) };
+		} else
+			buffers = new ByteBuffer[] { encode(grid) };
+
+		FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			while (buffers[buffers.length - 1].hasRemaining())
+				channel.write(buffers);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Creates the header of a file holding every cell state in a byte, for
+	 * writers that stream the cells of each line after it. The file can be
+	 * opened by {@link #map(Path)}.
+	 *
+	 * @param width
+	 *            maze width
+	 * @param height
+	 *            maze height
+	 * @return header ready to be written
+	 */
+	public static ByteBuffer rawHeader(int width, int height) {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		putHeader(header, width, height, RAW_CELLS, width * height, 0);
+		return header;
+	}
+
+	/**
+	 * Reads a maze file, either in this format or written by the old
+	 * serialization of the maze pieces.
+	 *
+	 * @param file
+	 *            file to read
+	 * @return maze grid
+	 * @throws IOException
+	 *             if the file can't be read or isn't a maze
+	 */
+	public static Grid read(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		ByteBuffer buffer;
+		try {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE)
+				throw new IOException("Maze file too big: " + file);
+			buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining())
+				if (channel.read(buffer) < 0)
+					throw new IOException("Maze file truncated: " + file);
+		} finally {
+			channel.close();
+		}
+		buffer.flip();
+
+		if (buffer.remaining() >= 2 && buffer.getShort(0) == LEGACY_MAGIC)
+			return readLegacy(buffer);
+		return decode(buffer);
+	}
+
+	/**
+	 * Opens a maze file with its cells mapped to memory, so even a huge maze
+	 * opens at once and its cells aren't copied to the heap. Cells written
+	 * by the game are copied on write, the file is never changed. Files
+	 * that weren't written mappable are read like {@link #read(Path)}.
+	 *
+	 * @param file
+	 *            file to open
+	 * @return maze grid
+	 * @throws IOException
+	 *             if the file can't be read or isn't a maze
+	 */
+	public static Grid map(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while (header.hasRemaining() && channel.read(header) >= 0)
+				;
+			header.flip();
+			if (header.remaining() < HEADER_SIZE
+					|| header.getInt(0) != MAGIC
+					|| (header.getShort(6) & RAW_CELLS) == 0)
+				return read(file);
+
+			int width = header.getInt(8), height = header.getInt(12);
+			checkHeader(header);
+			if (channel.size() < HEADER_SIZE + (long) width * height)
+				throw new IOException("Maze file truncated: " + file);
+
+			// The mapping stays valid once the channel is closed
+			MappedByteBuffer cells = channel.map(
+					FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) width
+							* height);
+			return new Grid(width, height, cells);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Encodes a maze in this format.
+	 *
+	 * @param grid
+	 *            maze grid
+	 * @return buffer ready to be written
+	 */
+	public static ByteBuffer encode(Grid grid) {
+		byte[] cells = cells(grid);
+		int entities = 0;
+		for (int i = 0; i < cells.length; i++)
+			if ((cells[i] & ~TERRAIN) != 0)
+				entities++;
+
+		// A run never takes more bytes than the cells it covers, an entity
+		// takes at most a 5 byte distance and its state
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + cells.length
+				+ entities * 6);
+		buffer.position(HEADER_SIZE);
+		for (int i = 0; i < cells.length;) {
+			int terrain = cells[i] & TERRAIN, run = 1;
+			while (i + run < cells.length
+					&& (cells[i + run] & TERRAIN) == terrain)
+				run++;
+			putRun(buffer, terrain, run);
+			i += run;
+		}
+		int terrainSize = buffer.position() - HEADER_SIZE;
+		short flags = 0;
+		if (terrainSize > (cells.length + 3) / 4) {
+			buffer.position(HEADER_SIZE);
+			putPacked(buffer, cells);
+			terrainSize = buffer.position() - HEADER_SIZE;
+			flags = PACKED_TERRAIN;
+		}
+
+		for (int i = 0, last = 0; i < cells.length; i++)
+			if ((cells[i] & ~TERRAIN) != 0) {
+				putVarInt(buffer, i - last);
+				buffer.put(cells[i]);
+				last = i;
+			}
+
+		buffer.flip();
+		putHeader(buffer, grid.getWidth(), grid.getHeight(), flags,
+				terrainSize, entities);
+		return buffer;
+	}
+
+	// The cells of a grid reading from a buffer are copied, so the grid
+	// keeps reading from it
+	private static byte[] cells(Grid grid) {
+		if (!grid.isBuffered())
+			return grid.getCells();
+		byte[] cells = new byte[grid.getCellCount()];
+		grid.copyTo(cells);
+		return cells;
+	}
+
+	// Writes the header at the start of the buffer, keeping its position
+	private static void putHeader(ByteBuffer buffer, int width, int height,
+			short flags, int terrainSize, int entities) {
+		buffer.putInt(0, MAGIC);
+		buffer.putShort(4, VERSION);
+		buffer.putShort(6, flags);
+		buffer.putInt(8, width);
+		buffer.putInt(12, height);
+		buffer.putInt(16, terrainSize);
+		buffer.putInt(20, entities);
+	}
+
+	// Checks the header at the buffer position, moving past it
+	private static void checkHeader(ByteBuffer buffer) throws IOException {
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC)
+			throw new IOException("Not a maze file");
+		short version = buffer.getShort();
+		if (version != VERSION)
+			throw new IOException("Unknown maze file version " + version);
+		short flags = buffer.getShort();
+		int width = buffer.getInt(), height = buffer.getInt();
+		int terrainSize = buffer.getInt(), entities = buffer.getInt();
+		if (width < 0 || height < 0 || terrainSize < 0 || entities < 0
+				|| (long) width * height > Integer.MAX_VALUE
+				|| ((flags & RAW_CELLS) != 0 && (terrainSize != width
+						* height || entities != 0)))
+			throw new IOException("Corrupt maze file header");
+	}
+
+	/**
+	 * Decodes a maze written in this format, from the buffer position.
+	 *
+	 * @param buffer
+	 *            encoded maze
+	 * @return maze grid
+	 * @throws IOException
+	 *             if the buffer doesn't hold a maze of a known version
+	 */
+	public static Grid decode(ByteBuffer buffer) throws IOException {
+		int start = buffer.position();
+		checkHeader(buffer);
+		short flags = buffer.getShort(start + 6);
+		int width = buffer.getInt(start + 8);
+		int height = buffer.getInt(start + 12);
+		int terrainSize = buffer.getInt(start + 16);
+		int entities = buffer.getInt(start + 20);
+
+		try {
+			Grid grid = new Grid(width, height);
+			byte[] cells = grid.getCells();
+			int end = buffer.position() + terrainSize, i = 0;
+			if ((flags & RAW_CELLS) != 0) {
+				buffer.get(cells);
+				i = cells.length;
+			} else if ((flags & PACKED_TERRAIN) != 0) {
+				if (terrainSize != (cells.length + 3) / 4)
+					throw new IOException("Corrupt maze file terrain");
+				getPacked(buffer, cells);
+				i = cells.length;
+			}
+			while (buffer.position() < end) {
+				int run = buffer.get();
+				byte terrain = (byte) (run & TERRAIN);
+				int length = (run >>> 4) & 0x0F;
+				if (length == 0x0F)
+					length += getVarInt(buffer);
+				length++;
+				if (i + length > cells.length)
+					throw new IOException("Corrupt maze file terrain");
+				for (int j = 0; j < length; j++)
+					cells[i++] = terrain;
+			}
+			if (i != cells.length)
+				throw new IOException("Corrupt maze file terrain");
+
+			for (int n = 0, cell = 0; n < entities; n++) {
+				cell += getVarInt(buffer);
+				cells[cell] = buffer.get();
+			}
+			return grid;
+		} catch (RuntimeException e) {
+			throw new IOException("Corrupt maze file", e);
+		}
+	}
+
+	// Low bits hold the terrain, high bits the run length less one, 15
+	// meaning the rest of the length follows
+	private static void putRun(ByteBuffer buffer, int terrain, int run) {
+		if (run <= 0x0F) {
+			buffer.put((byte) ((run - 1) << 4 | terrain));
+			return;
+		}
+		buffer.put((byte) (0xF0 | terrain));
+		putVarInt(buffer, run - 1 - 0x0F);
+	}
+
+	// 4 cells per byte, the first one in the low bits
+	private static void putPacked(ByteBuffer buffer, byte[] cells) {
+		for (int i = 0; i < cells.length; i += 4) {
+			int packed = 0;
+			for (int j = 0; j < 4 && i + j < cells.length; j++)
+				packed |= (cells[i + j] & TERRAIN) << (2 * j);
+			buffer.put((byte) packed);
+		}
+	}
+
+	private static void getPacked(ByteBuffer buffer, byte[] cells) {
+		for (int i = 0; i < cells.length; i += 4) {
+			int packed = buffer.get();
+			for (int j = 0; j < 4 && i + j < cells.length; j++)
+				cells[i + j] = (byte) ((packed >>> (2 * j)) & TERRAIN);
+		}
+	}
+
+	// 7 bits per byte, the high bit set while more bytes follow
+	private static void putVarInt(ByteBuffer buffer, int value) {
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) (value & 0x7F | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	private static int getVarInt(ByteBuffer buffer) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0)
+				return value;
+		}
+		throw new IOException("Corrupt maze file length");
+	}
+
+	// Mazes saved before this format were serialized piece lists
+	@SuppressWarnings("unchecked")
+	private static Grid readLegacy(ByteBuffer buffer) throws IOException {
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(
+				buffer.array(), buffer.position(), buffer.remaining()));
+		try {
+			Object maze = in.readObject();
+			if (!(maze instanceof ArrayList))
+				throw new IOException("Not a maze file");
+			return Grid.fromPieces((ArrayList<ArrayList<Piece>>) maze);
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Not a maze file", e);
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -14,11 +14,9 @@ import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.ObjectInputStream;
-import java.util.ArrayList;
 
-import logic.Piece;
+import logic.Grid;
+import logic.Logic;
 
 public class Menu extends JPanel implements KeyListener {
 
@@ -85,6 +83,10 @@ public class Menu extends JPanel implements KeyListener {
 				final JFileChooser fileChooser = new JFileChooser();
 				fileChooser.addChoosableFileFilter(new FileNameExtensionFilter(
 						"Maze files...", "maze"));
+				fileChooser.addChoosableFileFilter(new FileNameExtensionFilter(
+						"Saved games...", "game"));
+				fileChooser.addChoosableFileFilter(new FileNameExtensionFilter(
+						"Autosaved games...", "journal"));
 				int i = fileChooser.showDialog(Menu.this,
 						"Select saved maze file");
 
@@ -97,44 +99,49 @@ public class Menu extends JPanel implements KeyListener {
 	}
 
 	public void startLoadedPuzzle(File savedMaze) {
-		if (savedMaze.exists()) {
-			ArrayList<ArrayList<Piece>> maze = new ArrayList<ArrayList<Piece>>();
-			maze = getPuzzleFile(savedMaze);
+		String name = savedMaze.getName();
+		if (savedMaze.exists()
+				&& (name.endsWith(".game") || name.endsWith(".journal"))) {
+			// A journal is replayed up to the last move written
+			Logic logic = name.endsWith(".game") ? new GameIO()
+					.loadGame(savedMaze.getPath()) : new GameIO()
+					.loadJournal(savedMaze.getPath());
+			if (logic == null) {
+				JOptionPane.showMessageDialog(null,
+						"Error reading from saved game file");
+				return;
+			}
+			GameUI game = new GameUI(this, logic, dimension);
+			frame.remove(this);
+			this.showPanel(game, "Saved game");
+			game.requestFocusInWindow();
+			game.startActiveRendering(playPanel.getTicksPerSecond());
+		} else if (savedMaze.exists()) {
+			Grid maze = getPuzzleFile(savedMaze);
+			if (maze == null)
+				return;
 			GameUI game = new GameUI(this, 1, dimension, maze, playPanel);
 			frame.remove(this);
 			this.showPanel(game, "Loaded maze game");
 			game.requestFocusInWindow();
+			game.startActiveRendering(playPanel.getTicksPerSecond());
 		} else {
 			JOptionPane.showMessageDialog(null,
 					"The file" + savedMaze.getName() + " doesn't exist!");
 		}
 	}
 
-	@SuppressWarnings("unchecked")
-	public ArrayList<ArrayList<Piece>> getPuzzleFile(File file) {
-		ArrayList<ArrayList<Piece>> maze = new ArrayList<ArrayList<Piece>>();
-		FileInputStream inStream = null;
-		ObjectInputStream objInStream = null;
-
+	// Reads both binary maze files and the ones serialized by older versions,
+	// mapping huge mazes to memory
+	public Grid getPuzzleFile(File file) {
 		try {
-			inStream = new FileInputStream(file);
-			objInStream = new ObjectInputStream(inStream);
-			Object o = objInStream.readObject();
-
-			if (o instanceof ArrayList)
-				maze = (ArrayList<ArrayList<Piece>>) o;
-			else {
-				objInStream.close();
-				return null;
-			}
-			objInStream.close();
-
+			return MazeFile.map(file.toPath());
 		} catch (Exception e) {
 			JOptionPane.showMessageDialog(null,
 					"Error reading from saved maze file");
 			e.printStackTrace();
+			return null;
 		}
-		return maze;
 	}
 
 	public void keyPressed(KeyEvent e) {
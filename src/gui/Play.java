@@ -10,6 +10,8 @@ import java.awt.event.ActionListener;
 import javax.swing.JButton;
 import javax.swing.JPanel;
 
+import algorithms.GeneratorType;
+
 /**
  * This <code>Play</code> represents the panel where the player is able to
  * select which game mode he/she wants to play
@@ -26,6 +28,8 @@ public class Play extends JPanel {
 	private Dimension dimension;
 	private MazeBuilder mazeBuilder;
 	private int dragonCounter, dragonStrategy, mazeSize;
+	private GeneratorType generatorType;
+	private int ticksPerSecond;
 
 	public Play(final Menu menu) {
 		this.menu = menu;
@@ -33,6 +37,7 @@ public class Play extends JPanel {
 		this.dragonCounter = 1;
 		this.dragonStrategy = 1;
 		this.mazeSize = 13;
+		this.generatorType = GeneratorType.RECURSIVE_BACKTRACKER;
 		standardMaze = new JButton("Standard maze");
 		randomMaze = new JButton("Random maze");
 		customMaze = new JButton("Customize maze");
@@ -96,8 +101,9 @@ public class Play extends JPanel {
 
 	public void startMaze(int boardSize, int dragonCounter, int dragonStrategy) {
 		maze = new GameUI(boardSize, menu, dragonCounter, dragonStrategy,
-				dimension);
+				generatorType, dimension);
 		menu.closePanel(this, maze, "Maze Game");
+		maze.startActiveRendering(ticksPerSecond);
 	}
 
 	public void startMazeBuilder(int boardSize, int dragonCounter,
@@ -119,6 +125,14 @@ public class Play extends JPanel {
 		return mazeSize;
 	}
 
+	public GeneratorType getGeneratorType() {
+		return generatorType;
+	}
+
+	public int getTicksPerSecond() {
+		return ticksPerSecond;
+	}
+
 	public void setDragonCounter(int dragonCounter) {
 		this.dragonCounter = dragonCounter;
 	}
@@ -130,4 +144,12 @@ public class Play extends JPanel {
 	public void setMazeSize(int mazeSize) {
 		this.mazeSize = mazeSize;
 	}
+
+	public void setGeneratorType(GeneratorType generatorType) {
+		this.generatorType = generatorType;
+	}
+
+	public void setTicksPerSecond(int ticksPerSecond) {
+		this.ticksPerSecond = ticksPerSecond;
+	}
 }
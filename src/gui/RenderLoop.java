@@ -0,0 +1,176 @@
+package gui;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Class <code>RenderLoop</code> draws a game actively, on its own thread,
+ * instead of waiting for Swing to repaint. Frames go to a double buffered
+ * <code>Canvas</code> at a fixed number of ticks per second, whatever the
+ * keys pressed, and the time taken by each tick and between frames is
+ * recorded so frame latency can be measured under load.
+ * <p>
+ * A tick that runs late skips the ticks it missed instead of drawing them
+ * in a burst. The histograms are only meant to be read by other threads
+ * after the loop stopped.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class RenderLoop implements Runnable {
+
+	private final GameUI game;
+	private final Canvas canvas;
+	private final long period;
+	private final TimeHistogram tickTimes = new TimeHistogram();
+	private final TimeHistogram frameTimes = new TimeHistogram();
+	private long missedTicks;
+	private volatile boolean running, overlay;
+	private Thread thread;
+
+	/**
+	 * @param game
+	 *            game drawn
+	 * @param canvas
+	 *            displayable canvas the frames are shown on
+	 * @param ticksPerSecond
+	 *            frames drawn per second
+	 */
+	public RenderLoop(GameUI game, Canvas canvas, int ticksPerSecond) {
+		this.game = game;
+		this.canvas = canvas;
+		this.period = 1000000000L / ticksPerSecond;
+	}
+
+	/**
+	 * Starts drawing frames on a new thread.
+	 */
+	public void start() {
+		canvas.createBufferStrategy(2);
+		running = true;
+		thread = new Thread(this, "Maze render loop");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops drawing and waits a moment for the last frame to be shown. The
+	 * wait is bounded as it may happen while AWT removes the canvas.
+	 */
+	public void stop() {
+		running = false;
+		if (thread == null)
+			return;
+		LockSupport.unpark(thread);
+		try {
+			thread.join(1000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		thread = null;
+	}
+
+	public void run() {
+		BufferStrategy strategy = canvas.getBufferStrategy();
+		long next = System.nanoTime(), lastShown = 0;
+		while (running) {
+			long start = System.nanoTime();
+			try {
+				drawFrame(strategy);
+			} catch (IllegalStateException e) {
+				// The canvas was taken down while stopping
+				if (running)
+					throw e;
+				break;
+			}
+			long shown = System.nanoTime();
+			tickTimes.record(shown - start);
+			if (lastShown != 0)
+				frameTimes.record(shown - lastShown);
+			lastShown = shown;
+
+			// Wait for the next tick, or skip it if it's already due
+			next += period;
+			long wait = next - System.nanoTime();
+			if (wait > 0)
+				LockSupport.parkNanos(wait);
+			else {
+				missedTicks += 1 - wait / period;
+				next = System.nanoTime();
+			}
+		}
+	}
+
+	// Draws until the frame survives losing the video memory buffers
+	private void drawFrame(BufferStrategy strategy) {
+		do {
+			do {
+				Graphics g = strategy.getDrawGraphics();
+				try {
+					game.drawFrame(g);
+					if (overlay)
+						drawOverlay(g);
+				} finally {
+					g.dispose();
+				}
+			} while (strategy.contentsRestored());
+			strategy.show();
+		} while (strategy.contentsLost());
+		Toolkit.getDefaultToolkit().sync();
+	}
+
+	private void drawOverlay(Graphics g) {
+		g.setColor(new Color(0, 0, 0, 160));
+		g.fillRect(0, 0, 360, 40);
+		g.setColor(Color.WHITE);
+		g.drawString("tick  " + tickTimes, 6, 16);
+		g.drawString("frame " + frameTimes, 6, 32);
+	}
+
+	/**
+	 * Shows or hides the tick and frame times on top of the game.
+	 */
+	public void toggleOverlay() {
+		overlay = !overlay;
+	}
+
+	/**
+	 * Gets the time taken to draw and show each frame.
+	 *
+	 * @return tick times
+	 */
+	public TimeHistogram getTickTimes() {
+		return tickTimes;
+	}
+
+	/**
+	 * Gets the time between frames shown.
+	 *
+	 * @return frame times
+	 */
+	public TimeHistogram getFrameTimes() {
+		return frameTimes;
+	}
+
+	/**
+	 * Gets the number of ticks skipped because drawing ran late.
+	 *
+	 * @return missed ticks
+	 */
+	public long getMissedTicks() {
+		return missedTicks;
+	}
+
+	/**
+	 * Sums up the frame times for logs.
+	 */
+	public String toString() {
+		return "tick " + tickTimes + ", frame " + frameTimes + ", "
+				+ missedTicks + " missed ticks";
+	}
+}
@@ -11,6 +11,8 @@ import javax.swing.JButton;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 
+import algorithms.GeneratorType;
+
 public class Settings extends JPanel {
 
 	private static final long serialVersionUID = 1L;
@@ -19,6 +21,8 @@ public class Settings extends JPanel {
 	private JButton size;
 	private JButton counter;
 	private JButton strategy;
+	private JButton generator;
+	private JButton rendering;
 	private JButton keyboard;
 	private JButton close;
 	private Dimension dimension;
@@ -30,6 +34,8 @@ public class Settings extends JPanel {
 		size = new JButton("Maze size");
 		counter = new JButton("Number of Dragons");
 		strategy = new JButton("Dragon Strategy");
+		generator = new JButton("Maze Generator");
+		rendering = new JButton("Rendering");
 		keyboard = new JButton("Keyboard Configuration");
 		close = new JButton("Close Settings");
 		setSettingsPanel();
@@ -50,7 +56,7 @@ public class Settings extends JPanel {
 									beginSize);
 
 					if (inputSize != null)
-						newSize = Integer.parseInt((String) inputSize);
+						newSize = Integer.parseInt(inputSize);
 					else
 						newSize = play.getMazeSize();
 				} while (newSize % 2 == 0 || newSize < 7 || newSize > 27);
@@ -82,7 +88,7 @@ public class Settings extends JPanel {
 									beginSize);
 
 					if (inputSize != null)
-						newCounter = Integer.parseInt((String) inputSize);
+						newCounter = Integer.parseInt(inputSize);
 					else
 						newCounter = play.getDragonCounter();
 
@@ -94,7 +100,7 @@ public class Settings extends JPanel {
 		strategy.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent ev) {
 				Object[] DragonStrategies = { "Idle", "Random Movement",
-						"Random Movement and Sleeping" };
+						"Random Movement and Sleeping", "Chasing the Hero" };
 				String initialSelection = "Idle";
 				int beginSize = play.getDragonStrategy();
 
@@ -104,6 +110,8 @@ public class Settings extends JPanel {
 					initialSelection = "Random Movement";
 				else if (beginSize == 2)
 					initialSelection = "Random Movement and Sleeping";
+				else if (beginSize == 3)
+					initialSelection = "Chasing the Hero";
 
 				String selection = (String) JOptionPane.showInputDialog(null,
 						"What strategy can the Dragon(s) use?",
@@ -117,10 +125,48 @@ public class Settings extends JPanel {
 						play.setDragonStrategy(1);
 					else if (selection.equals("Random Movement and Sleeping"))
 						play.setDragonStrategy(2);
+					else if (selection.equals("Chasing the Hero"))
+						play.setDragonStrategy(3);
 				}
 			}
 		});
 
+		generator.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent ev) {
+				GeneratorType selection = (GeneratorType) JOptionPane
+						.showInputDialog(null,
+								"Which engine generates random mazes?",
+								"Set Maze Generator",
+								JOptionPane.QUESTION_MESSAGE, null,
+								GeneratorType.values(),
+								play.getGeneratorType());
+
+				if (selection != null)
+					play.setGeneratorType(selection);
+			}
+		});
+
+		rendering.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent ev) {
+				Object[] modes = { "Swing repaints", "Active, 30 FPS",
+						"Active, 60 FPS", "Active, 120 FPS" };
+				int[] ticks = { 0, 30, 60, 120 };
+				Object initialSelection = modes[0];
+				for (int i = 0; i < ticks.length; i++)
+					if (ticks[i] == play.getTicksPerSecond())
+						initialSelection = modes[i];
+
+				Object selection = JOptionPane.showInputDialog(null,
+						"How is the maze drawn?", "Set Rendering",
+						JOptionPane.QUESTION_MESSAGE, null, modes,
+						initialSelection);
+
+				for (int i = 0; i < modes.length; i++)
+					if (modes[i].equals(selection))
+						play.setTicksPerSecond(ticks[i]);
+			}
+		});
+
 		keyboard.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent ev) {
 				startKeyboardConfiguration();
@@ -148,6 +194,8 @@ public class Settings extends JPanel {
 		add(size, style);
 		add(counter, style);
 		add(strategy, style);
+		add(generator, style);
+		add(rendering, style);
 		add(keyboard, style);
 		add(close, style);
 		setVisible(true);
@@ -0,0 +1,168 @@
+package gui;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.swing.ImageIcon;
+
+/**
+ * Class <code>SpriteCache</code> keeps the game images scaled to the board
+ * tile size, so drawing a tile is a plain copy instead of scaling a 720 by
+ * 720 sprite on every paint. The PNG files themselves are only loaded once
+ * for the whole program.
+ * <p>
+ * Scaled sprites are images compatible with the screen, which Java2D keeps
+ * in video memory when it can. They're dropped whenever the tile size
+ * changes. A cache is meant to be used from the Swing thread only.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class SpriteCache {
+
+	/**
+	 * Size of the sprites drawn from the PNG files.
+	 */
+	public static final int SPRITE_SIZE = 720;
+
+	private static final ConcurrentHashMap<String, ImageIcon> ICONS =
+			new ConcurrentHashMap<String, ImageIcon>();
+
+	// Scaled sprites of each image, one per source crop
+	private final IdentityHashMap<Image, Sprite> sprites =
+			new IdentityHashMap<Image, Sprite>();
+	private int tileWidth, tileHeight;
+
+	/**
+	 * @param tileWidth
+	 *            width of a board tile in pixels
+	 * @param tileHeight
+	 *            height of a board tile in pixels
+	 */
+	public SpriteCache(int tileWidth, int tileHeight) {
+		setTileSize(tileWidth, tileHeight);
+	}
+
+	/**
+	 * Gets an image file, loading it on the first call only.
+	 *
+	 * @param path
+	 *            image file path
+	 * @return loaded image
+	 */
+	public static Image load(String path) {
+		return icon(path).getImage();
+	}
+
+	/**
+	 * Gets an image file as an icon, loading it on the first call only.
+	 *
+	 * @param path
+	 *            image file path
+	 * @return shared icon, not to be changed
+	 */
+	public static ImageIcon icon(String path) {
+		ImageIcon icon = ICONS.get(path);
+		if (icon == null) {
+			ICONS.putIfAbsent(path, new ImageIcon(path));
+			icon = ICONS.get(path);
+		}
+		return icon;
+	}
+
+	/**
+	 * Changes the tile size, dropping every scaled sprite if it changed.
+	 *
+	 * @param tileWidth
+	 *            width of a board tile in pixels
+	 * @param tileHeight
+	 *            height of a board tile in pixels
+	 */
+	public void setTileSize(int tileWidth, int tileHeight) {
+		if (tileWidth == this.tileWidth && tileHeight == this.tileHeight)
+			return;
+		this.tileWidth = tileWidth;
+		this.tileHeight = tileHeight;
+		sprites.clear();
+	}
+
+	/**
+	 * Gets the width sprites are scaled to.
+	 *
+	 * @return tile width in pixels
+	 */
+	public int getTileWidth() {
+		return tileWidth;
+	}
+
+	/**
+	 * Gets the height sprites are scaled to.
+	 *
+	 * @return tile height in pixels
+	 */
+	public int getTileHeight() {
+		return tileHeight;
+	}
+
+	/**
+	 * Gets a sprite scaled to the tile size, scaling it on the first call
+	 * only.
+	 *
+	 * @param source
+	 *            sprite image
+	 * @param sourceY
+	 *            first line of the sprite drawn, lines above it are cut
+	 * @return scaled sprite
+	 */
+	public Image get(Image source, int sourceY) {
+		Sprite first = sprites.get(source);
+		for (Sprite sprite = first; sprite != null; sprite = sprite.next)
+			if (sprite.sourceY == sourceY)
+				return sprite.image;
+
+		Sprite sprite = new Sprite(sourceY, scale(source, sourceY), first);
+		sprites.put(source, sprite);
+		return sprite.image;
+	}
+
+	private BufferedImage scale(Image source, int sourceY) {
+		int width = Math.max(1, tileWidth), height = Math.max(1, tileHeight);
+		BufferedImage image;
+		if (GraphicsEnvironment.isHeadless())
+			image = new BufferedImage(width, height,
+					BufferedImage.TYPE_INT_ARGB_PRE);
+		else
+			image = GraphicsEnvironment.getLocalGraphicsEnvironment()
+					.getDefaultScreenDevice().getDefaultConfiguration()
+					.createCompatibleImage(width, height,
+							Transparency.TRANSLUCENT);
+
+		// Scaled once, so it can afford a smooth filter
+		Graphics2D g = image.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+				RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.drawImage(source, 0, 0, width, height, 0, sourceY, SPRITE_SIZE,
+				SPRITE_SIZE, null);
+		g.dispose();
+		return image;
+	}
+
+	private static class Sprite {
+		final int sourceY;
+		final Image image;
+		final Sprite next;
+
+		Sprite(int sourceY, Image image, Sprite next) {
+			this.sourceY = sourceY;
+			this.image = image;
+			this.next = next;
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package gui;
+
+import java.util.Arrays;
+
+/**
+ * Class <code>TimeHistogram</code> counts durations in buckets, so
+ * percentiles of thousands of frames are read without keeping every sample.
+ * Buckets are microseconds, exact below 8 and then split in 8 per power of
+ * two, so a percentile is off by 12.5% at most.
+ * <p>
+ * Recording doesn't allocate or lock, a histogram is meant to be written by
+ * one thread only.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class TimeHistogram {
+
+	private static final int SUB_BUCKETS = 8;
+
+	private final long[] counts = new long[256];
+	private long count, total, max;
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param nanos
+	 *            duration in nanoseconds
+	 */
+	public void record(long nanos) {
+		nanos = Math.max(0, nanos);
+		long micros = nanos / 1000;
+		counts[bucket(Math.min(micros, Integer.MAX_VALUE))]++;
+		count++;
+		total += nanos;
+		max = Math.max(max, nanos);
+	}
+
+	private static int bucket(long micros) {
+		if (micros < SUB_BUCKETS)
+			return (int) micros;
+		int exponent = 63 - Long.numberOfLeadingZeros(micros);
+		int sub = (int) (micros >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+		return (exponent - 2) * SUB_BUCKETS + sub;
+	}
+
+	// Highest duration in microseconds that falls in a bucket
+	private static long upperBound(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int exponent = bucket / SUB_BUCKETS + 2;
+		long width = 1L << (exponent - 3);
+		return (SUB_BUCKETS + bucket % SUB_BUCKETS) * width + width - 1;
+	}
+
+	/**
+	 * Gets the number of durations recorded.
+	 *
+	 * @return durations
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the mean duration.
+	 *
+	 * @return mean in nanoseconds, 0 if nothing was recorded
+	 */
+	public long getMean() {
+		return count == 0 ? 0 : total / count;
+	}
+
+	/**
+	 * Gets the longest duration.
+	 *
+	 * @return maximum in nanoseconds
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * Gets the duration that the given share of the durations doesn't go
+	 * over.
+	 *
+	 * @param percent
+	 *            share of the durations, from 0 to 100
+	 * @return percentile in nanoseconds, 0 if nothing was recorded
+	 */
+	public long percentile(double percent) {
+		if (count == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(count * percent / 100));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen == count)
+				return max;
+			if (seen >= rank)
+				return Math.min(max, upperBound(i) * 1000 + 999);
+		}
+		return max;
+	}
+
+	/**
+	 * Forgets every duration recorded.
+	 */
+	public void clear() {
+		Arrays.fill(counts, 0);
+		count = total = max = 0;
+	}
+
+	/**
+	 * Sums up the histogram in milliseconds, for logs and the frame overlay.
+	 */
+	public String toString() {
+		return String.format("n=%d mean=%.2f p50=%.2f p99=%.2f max=%.2f ms",
+				count, getMean() / 1e6, percentile(50) / 1e6,
+				percentile(99) / 1e6, max / 1e6);
+	}
+}
@@ -0,0 +1,148 @@
+package gui;
+
+import java.awt.Dimension;
+
+/**
+ * Class <code>Viewport</code> is the camera over the board. Tiles keep a
+ * minimum size, so boards bigger than the window only show the part around
+ * the hero, and painting costs the visible tiles whatever the board size.
+ * <p>
+ * The camera only scrolls when the hero gets near the edge of the view, and
+ * then centers on him, so most moves don't repaint the whole window.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class Viewport {
+
+	/**
+	 * Smallest tile side in pixels.
+	 */
+	public static final int MIN_TILE = 16;
+
+	private final int boardWidth, boardHeight;
+	private final int tileWidth, tileHeight;
+	private final int columns, rows;
+	private int left, top;
+
+	/**
+	 * Creates a view of the top left corner of the board.
+	 *
+	 * @param boardWidth
+	 *            number of board columns
+	 * @param boardHeight
+	 *            number of board lines
+	 * @param dimension
+	 *            dimensions of the drawing area
+	 */
+	public Viewport(int boardWidth, int boardHeight, Dimension dimension) {
+		this.boardWidth = boardWidth;
+		this.boardHeight = boardHeight;
+		tileWidth = Math.max(MIN_TILE, dimension.width / boardWidth);
+		tileHeight = Math.max(MIN_TILE, dimension.height / boardHeight);
+
+		// Partly visible tiles on the right and bottom edges count
+		columns = Math.min(boardWidth, (dimension.width + tileWidth - 1)
+				/ tileWidth);
+		rows = Math.min(boardHeight, (dimension.height + tileHeight - 1)
+				/ tileHeight);
+	}
+
+	/**
+	 * Scrolls the view if the given tile is near its edges or outside it,
+	 * centering the view on it.
+	 *
+	 * @param x
+	 *            tile column
+	 * @param y
+	 *            tile line
+	 * @return true if the view scrolled
+	 */
+	public boolean follow(int x, int y) {
+		int newLeft = scroll(left, x, columns, boardWidth);
+		int newTop = scroll(top, y, rows, boardHeight);
+		if (newLeft == left && newTop == top)
+			return false;
+		left = newLeft;
+		top = newTop;
+		return true;
+	}
+
+	// Keeps a quarter of the view between the tile and the edges
+	private static int scroll(int first, int tile, int visible, int board) {
+		int margin = visible / 4;
+		if (tile >= first + margin && tile < first + visible - margin)
+			return first;
+		int centered = tile - visible / 2;
+		return Math.max(0, Math.min(board - visible, centered));
+	}
+
+	/**
+	 * Checks if a tile is inside the view.
+	 *
+	 * @param x
+	 *            tile column
+	 * @param y
+	 *            tile line
+	 * @return true if visible
+	 */
+	public boolean contains(int x, int y) {
+		return x >= left && y >= top && x < left + columns
+				&& y < top + rows;
+	}
+
+	/**
+	 * Gets the first visible board column.
+	 *
+	 * @return column of the left edge
+	 */
+	public int getLeft() {
+		return left;
+	}
+
+	/**
+	 * Gets the first visible board line.
+	 *
+	 * @return line of the top edge
+	 */
+	public int getTop() {
+		return top;
+	}
+
+	/**
+	 * Gets the number of visible columns.
+	 *
+	 * @return visible columns
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Gets the number of visible lines.
+	 *
+	 * @return visible lines
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Gets the tile width.
+	 *
+	 * @return tile width in pixels
+	 */
+	public int getTileWidth() {
+		return tileWidth;
+	}
+
+	/**
+	 * Gets the tile height.
+	 *
+	 * @return tile height in pixels
+	 */
+	public int getTileHeight() {
+		return tileHeight;
+	}
+}
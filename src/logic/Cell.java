@@ -0,0 +1,125 @@
+package logic;
+
+/**
+ * Class <code>Cell</code> defines the cell states stored by a
+ * <code>Grid</code>. A state is a bitmask of what lies in the cell, so the
+ * game can test and change a cell with integer operations. Every maze
+ * symbol has its state: the middle character gives the piece, a trailing
+ * <code>G</code> the eagle and a leading <code>E</code> the sword carried by
+ * the eagle.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public final class Cell {
+
+	public static final byte FREE = 0;
+	public static final byte WALL = 0x01;
+	public static final byte EXIT = 0x02;
+	public static final byte SWORD = 0x04;
+	public static final byte HERO = 0x08;
+	public static final byte DRAGON = 0x10;
+
+	/**
+	 * Holding the sword: an armed hero or a guarding dragon.
+	 */
+	public static final byte ARMED = 0x20;
+	public static final byte ASLEEP = 0x40;
+	public static final byte EAGLE = (byte) 0x80;
+
+	// Middle symbol characters and their states
+	private static final String PIECES = " XSHAEDFdf";
+	private static final byte[] PIECE_STATES = { FREE, WALL, EXIT, HERO,
+			HERO | ARMED, SWORD, DRAGON, DRAGON | ARMED, DRAGON | ASLEEP,
+			DRAGON | ARMED | ASLEEP };
+
+	private Cell() {
+	}
+
+	/**
+	 * Checks if a cell holds all the given flags.
+	 *
+	 * @param cell
+	 *            cell state
+	 * @param flags
+	 *            flags to check
+	 * @return true if every flag is set
+	 */
+	public static boolean has(byte cell, byte flags) {
+		return (cell & flags) == flags;
+	}
+
+	/**
+	 * Gets the state of a cell holding the hero.
+	 *
+	 * @param armed
+	 *            hero holds the sword
+	 * @param eagle
+	 *            eagle is on the hero's arm
+	 * @return cell state
+	 */
+	public static byte hero(boolean armed, boolean eagle) {
+		return (byte) (HERO | (armed ? ARMED : 0) | (eagle ? EAGLE : 0));
+	}
+
+	/**
+	 * Gets the state of a cell holding a dragon.
+	 *
+	 * @param guarding
+	 *            dragon guards the sword
+	 * @param asleep
+	 *            dragon is sleeping
+	 * @return cell state
+	 */
+	public static byte dragon(boolean guarding, boolean asleep) {
+		return (byte) (DRAGON | (guarding ? ARMED : 0) | (asleep ? ASLEEP : 0));
+	}
+
+	/**
+	 * Gets the state of a maze symbol.
+	 *
+	 * @param symbol
+	 *            3 character maze symbol
+	 * @return cell state
+	 * @throws IllegalArgumentException
+	 *             if it isn't a maze symbol
+	 */
+	public static byte parse(String symbol) {
+		int piece = symbol.length() == 3 ? PIECES.indexOf(symbol.charAt(1))
+				: -1;
+		if (piece < 0 || " E".indexOf(symbol.charAt(0)) < 0
+				|| " G".indexOf(symbol.charAt(2)) < 0)
+			throw new IllegalArgumentException("Unknown maze symbol: \""
+					+ symbol + "\"");
+
+		int cell = PIECE_STATES[piece];
+		if (symbol.charAt(0) == 'E')
+			cell |= SWORD;
+		if (symbol.charAt(2) == 'G')
+			cell |= EAGLE;
+		return (byte) cell;
+	}
+
+	/**
+	 * Gets the maze symbol of a cell state.
+	 *
+	 * @param cell
+	 *            cell state
+	 * @return 3 character maze symbol, or null if the state doesn't match
+	 *         any symbol
+	 */
+	public static String toSymbol(byte cell) {
+		boolean eagle = has(cell, EAGLE);
+
+		// A sword under the eagle is the one it carries
+		boolean carried = eagle && has(cell, SWORD);
+		byte piece = (byte) (cell & ~EAGLE & ~(carried ? SWORD : 0));
+
+		for (int i = 0; i < PIECE_STATES.length; i++)
+			if (PIECE_STATES[i] == piece)
+				return new String(new char[] { carried ? 'E' : ' ',
+						PIECES.charAt(i), eagle ? 'G' : ' ' });
+		return null;
+	}
+}
@@ -0,0 +1,83 @@
+package logic;
+
+/**
+ * Class <code>DirtyCells</code> collects the cells of a <code>Grid</code>
+ * written since it was last cleared, see {@link Grid#trackChanges()}. Each
+ * cell is listed once however many times it's written, so a reader visits
+ * only the changed cells instead of the whole grid.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class DirtyCells {
+
+	private final long[] marked;
+	private int[] cells = new int[16];
+	private int size;
+
+	/**
+	 * @param cellCount
+	 *            number of cells of the grid
+	 */
+	public DirtyCells(int cellCount) {
+		marked = new long[(cellCount + 63) >>> 6];
+	}
+
+	/**
+	 * Marks a cell as changed.
+	 *
+	 * @param cell
+	 *            cell index
+	 */
+	public void mark(int cell) {
+		long bit = 1L << cell;
+		if ((marked[cell >>> 6] & bit) != 0)
+			return;
+		marked[cell >>> 6] |= bit;
+		if (size == cells.length) {
+			int[] grown = new int[size * 2];
+			System.arraycopy(cells, 0, grown, 0, size);
+			cells = grown;
+		}
+		cells[size++] = cell;
+	}
+
+	/**
+	 * Gets the number of changed cells.
+	 *
+	 * @return changed cells
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if no cell changed.
+	 *
+	 * @return true if there are no changes
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets a changed cell, in the order they were first written.
+	 *
+	 * @param i
+	 *            position in the list, from 0 to {@link #size()} - 1
+	 * @return cell index
+	 */
+	public int get(int i) {
+		return cells[i];
+	}
+
+	/**
+	 * Forgets every change, costing only the cells that changed.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++)
+			marked[cells[i] >>> 6] = 0;
+		size = 0;
+	}
+}
@@ -0,0 +1,419 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * Class <code>DistanceField</code> holds the walking distance from every cell
+ * of a <code>Grid</code> to a target cell, filled by a breadth-first-search
+ * where only walls block the way. Reading a distance or the next step towards
+ * the target is O(1).
+ * <p>
+ * Walls never change during a game, so when the target moves the field is
+ * repaired rather than filled again. Distances are kept relative to an
+ * offset: a target moving <code>k</code> steps away adds <code>k</code> to
+ * every distance at once, which is an upper bound for each of them, and a
+ * search from the new target only visits the cells that got closer. A
+ * target stepping to a neighbor brings every cell one step closer or takes
+ * it one step further, so only the smaller of both sides is written.
+ * <p>
+ * The work arrays of the searches take more memory than the distances, so
+ * the fields of a maze share them in a {@link Scratch}, only one field
+ * being searched at a time.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class DistanceField {
+
+	/**
+	 * Distance of the cells that can't reach the target.
+	 */
+	public static final int UNREACHABLE = -1;
+
+	// Stored value of walls and cells that can't reach the target
+	private static final int NONE = Integer.MIN_VALUE;
+
+	// Repairs stop adding to the offset before it overflows
+	private static final int MAX_OFFSET = 1 << 30;
+
+	private final Grid grid;
+	private final int[] distances;
+	private final Scratch scratch;
+	private int target = -1;
+
+	// Added to every stored distance, moved by each repair
+	private int offset;
+
+	/**
+	 * Work arrays of the searches of the fields of a grid. Fields sharing
+	 * them must not be searched at the same time, so they're moved by one
+	 * thread only.
+	 */
+	public static class Scratch {
+
+		private final int[] queue;
+		// Queue of the further side and marks of the searches of a step,
+		// built by the first step
+		private int[] further;
+		private int[] marks;
+		private int epoch;
+
+		/**
+		 * @param cellCount
+		 *            number of cells of the grid
+		 */
+		public Scratch(int cellCount) {
+			queue = new int[cellCount];
+		}
+
+		/**
+		 * Gets the number of cells the arrays are made for.
+		 *
+		 * @return cell count
+		 */
+		public int getCellCount() {
+			return queue.length;
+		}
+	}
+
+	/**
+	 * Creates an empty field with its own work arrays, filled by the first
+	 * {@link #setTarget(int, int)}.
+	 *
+	 * @param grid
+	 *            maze cells
+	 */
+	public DistanceField(Grid grid) {
+		this(grid, new Scratch(grid.getCellCount()));
+	}
+
+	/**
+	 * Creates an empty field sharing work arrays with other fields.
+	 *
+	 * @param grid
+	 *            maze cells
+	 * @param scratch
+	 *            work arrays for the cells of the grid
+	 */
+	public DistanceField(Grid grid, Scratch scratch) {
+		this.grid = grid;
+		this.scratch = check(scratch, grid);
+		distances = new int[grid.getCellCount()];
+		Arrays.fill(distances, NONE);
+	}
+
+	/**
+	 * Copies a field for another grid with the same walls, such as a fork of
+	 * its grid, so the copy is moved by a repair instead of a new search.
+	 *
+	 * @param field
+	 *            field to copy
+	 * @param grid
+	 *            maze cells, with the walls of the field's grid
+	 * @param scratch
+	 *            work arrays for the cells of the grid
+	 */
+	public DistanceField(DistanceField field, Grid grid, Scratch scratch) {
+		this.grid = grid;
+		this.scratch = check(scratch, grid);
+		distances = field.distances.clone();
+		target = field.target;
+		offset = field.offset;
+	}
+
+	private static Scratch check(Scratch scratch, Grid grid) {
+		if (scratch.getCellCount() != grid.getCellCount())
+			throw new IllegalArgumentException("Scratch for "
+					+ scratch.getCellCount() + " cells, not "
+					+ grid.getCellCount());
+		return scratch;
+	}
+
+	/**
+	 * Moves the target, repairing the field only if it changed. A target
+	 * that couldn't be reached from the last one, or leaving a wall, fills
+	 * the field again.
+	 *
+	 * @param x
+	 *            target X position
+	 * @param y
+	 *            target Y position
+	 * @return true if the field changed
+	 */
+	public boolean setTarget(int x, int y) {
+		int cell = grid.index(x, y);
+		if (cell == target)
+			return false;
+		// Ways through a target on a wall don't hold once it moves
+		int last = target, moved = last < 0
+				|| Grid.isWall(grid.get(last)) ? UNREACHABLE : distance(cell);
+		target = cell;
+		if (moved == UNREACHABLE || Math.abs(offset) > MAX_OFFSET - moved)
+			fill();
+		else if (moved == 1)
+			shift(last);
+		else
+			repair(moved);
+		return true;
+	}
+
+	/**
+	 * Gets the grid this field was built for.
+	 *
+	 * @return maze cells
+	 */
+	public Grid getGrid() {
+		return grid;
+	}
+
+	/**
+	 * Gets the target cell index.
+	 *
+	 * @return target cell, -1 if not set
+	 */
+	public int getTarget() {
+		return target;
+	}
+
+	/**
+	 * Gets the walking distance from the given position to the target.
+	 *
+	 * @param x
+	 *            X position
+	 * @param y
+	 *            Y position
+	 * @return number of steps, or {@link #UNREACHABLE}
+	 */
+	public int distance(int x, int y) {
+		return distance(grid.index(x, y));
+	}
+
+	private int distance(int cell) {
+		int stored = distances[cell];
+		return stored == NONE ? UNREACHABLE : stored + offset;
+	}
+
+	/**
+	 * Gets the move that takes the given position one step closer to the
+	 * target.
+	 *
+	 * @param x
+	 *            X position
+	 * @param y
+	 *            Y position
+	 * @return <code>Movement</code> direction, or -1 if already at the target
+	 *         or unable to reach it
+	 */
+	public int stepCloser(int x, int y) {
+		int d = distance(x, y);
+		if (d <= 0)
+			return -1;
+		return step(x, y, d - 1);
+	}
+
+	/**
+	 * Gets the move that takes the given position one step further from the
+	 * target.
+	 *
+	 * @param x
+	 *            X position
+	 * @param y
+	 *            Y position
+	 * @return <code>Movement</code> direction, or -1 if it's at a dead end
+	 *         or unable to reach the target
+	 */
+	public int stepAway(int x, int y) {
+		int d = distance(x, y);
+		if (d == UNREACHABLE)
+			return -1;
+		return step(x, y, d + 1);
+	}
+
+	// Finds the neighbor at the given distance
+	private int step(int x, int y, int d) {
+		if (y > 0 && distance(x, y - 1) == d)
+			return Movement.MOVE_UP.getDirection();
+		if (y + 1 < grid.getHeight() && distance(x, y + 1) == d)
+			return Movement.MOVE_DOWN.getDirection();
+		if (x + 1 < grid.getWidth() && distance(x + 1, y) == d)
+			return Movement.MOVE_RIGHT.getDirection();
+		if (x > 0 && distance(x - 1, y) == d)
+			return Movement.MOVE_LEFT.getDirection();
+		return -1;
+	}
+
+	// Breadth-first-search from the target
+	private void fill() {
+		int width = grid.getWidth(), count = distances.length;
+		int[] queue = scratch.queue;
+		Arrays.fill(distances, NONE);
+		offset = 0;
+
+		distances[target] = 0;
+		int head = 0, tail = 0;
+		queue[tail++] = target;
+		while (head < tail) {
+			int c = queue[head++], d = distances[c] + 1, x = c % width;
+			if (c >= width && open(c - width)) {
+				distances[c - width] = d;
+				queue[tail++] = c - width;
+			}
+			if (c + width < count && open(c + width)) {
+				distances[c + width] = d;
+				queue[tail++] = c + width;
+			}
+			if (x + 1 < width && open(c + 1)) {
+				distances[c + 1] = d;
+				queue[tail++] = c + 1;
+			}
+			if (x > 0 && open(c - 1)) {
+				distances[c - 1] = d;
+				queue[tail++] = c - 1;
+			}
+		}
+	}
+
+	// Unvisited cell the search can enter
+	private boolean open(int cell) {
+		return distances[cell] == NONE && !Grid.isWall(grid.get(cell));
+	}
+
+	/*
+	 * Moves the target the given number of steps away from the last one.
+	 * Going through the last target is a way to every cell, so the old
+	 * distances plus the steps bound the new ones, and the search from the
+	 * new target stops at the cells it can't bring closer. Cells are taken
+	 * in order of distance, so each one is lowered once at most. Walls and
+	 * cells out of reach are never lowered, so the grid isn't read.
+	 */
+	private void repair(int steps) {
+		int width = grid.getWidth(), count = distances.length;
+		int[] queue = scratch.queue;
+		offset += steps;
+
+		distances[target] = -offset;
+		int head = 0, tail = 0;
+		queue[tail++] = target;
+		while (head < tail) {
+			int c = queue[head++], d = distances[c] + 1, x = c % width;
+			if (c >= width && distances[c - width] > d) {
+				distances[c - width] = d;
+				queue[tail++] = c - width;
+			}
+			if (c + width < count && distances[c + width] > d) {
+				distances[c + width] = d;
+				queue[tail++] = c + width;
+			}
+			if (x + 1 < width && distances[c + 1] > d) {
+				distances[c + 1] = d;
+				queue[tail++] = c + 1;
+			}
+			if (x > 0 && distances[c - 1] > d) {
+				distances[c - 1] = d;
+				queue[tail++] = c - 1;
+			}
+		}
+	}
+
+	/*
+	 * Moves the target to a neighbor of the last one. A cell gets closer if
+	 * a shortest way from it to the last target went through the new one,
+	 * and then so do the cells after it on the old field. Otherwise, every
+	 * cell before it being further, it gets further. Both sides are searched
+	 * a cell at a time each, in order of distance, until one is complete,
+	 * and the distances of that side are written.
+	 */
+	private void shift(int last) {
+		int width = grid.getWidth(), count = distances.length;
+		Scratch s = scratch;
+		if (s.marks == null) {
+			s.further = new int[count];
+			s.marks = new int[count];
+		}
+		if (s.epoch > Integer.MAX_VALUE - 3) {
+			Arrays.fill(s.marks, 0);
+			s.epoch = 0;
+		}
+		int[] queue = s.queue, further = s.further, marks = s.marks;
+		int closer = ++s.epoch, away = ++s.epoch, kept = ++s.epoch;
+
+		marks[target] = closer;
+		queue[0] = target;
+		marks[last] = away;
+		further[0] = last;
+		int head = 0, tail = 1, farHead = 0, farTail = 1;
+		while (head < tail && farHead < farTail) {
+			int c = queue[head++], d = distances[c] + 1, x = c % width;
+			if (c >= width && distances[c - width] == d
+					&& marks[c - width] != closer) {
+				marks[c - width] = closer;
+				queue[tail++] = c - width;
+			}
+			if (c + width < count && distances[c + width] == d
+					&& marks[c + width] != closer) {
+				marks[c + width] = closer;
+				queue[tail++] = c + width;
+			}
+			if (x + 1 < width && distances[c + 1] == d
+					&& marks[c + 1] != closer) {
+				marks[c + 1] = closer;
+				queue[tail++] = c + 1;
+			}
+			if (x > 0 && distances[c - 1] == d && marks[c - 1] != closer) {
+				marks[c - 1] = closer;
+				queue[tail++] = c - 1;
+			}
+
+			// The cells before a further one are all marked by then
+			c = further[farHead++];
+			d = distances[c] + 1;
+			x = c % width;
+			if (c >= width && distances[c - width] == d
+					&& away(c - width, away, kept))
+				further[farTail++] = c - width;
+			if (c + width < count && distances[c + width] == d
+					&& away(c + width, away, kept))
+				further[farTail++] = c + width;
+			if (x + 1 < width && distances[c + 1] == d
+					&& away(c + 1, away, kept))
+				further[farTail++] = c + 1;
+			if (x > 0 && distances[c - 1] == d && away(c - 1, away, kept))
+				further[farTail++] = c - 1;
+		}
+
+		if (head == tail) {
+			offset++;
+			for (int i = 0; i < tail; i++)
+				distances[queue[i]] -= 2;
+		} else {
+			offset--;
+			for (int i = 0; i < farTail; i++)
+				distances[further[i]] += 2;
+		}
+	}
+
+	// Marks a cell as further if every cell before it is, kept otherwise
+	private boolean away(int cell, int away, int kept) {
+		// Marked by either search of this step, closer being away - 1
+		int[] marks = scratch.marks;
+		if (marks[cell] >= away - 1)
+			return false;
+		int width = grid.getWidth(), d = distances[cell] - 1;
+		int x = cell % width;
+		if ((cell >= width && distances[cell - width] == d
+				&& marks[cell - width] != away)
+				|| (cell + width < distances.length
+						&& distances[cell + width] == d
+						&& marks[cell + width] != away)
+				|| (x + 1 < width && distances[cell + 1] == d
+						&& marks[cell + 1] != away)
+				|| (x > 0 && distances[cell - 1] == d
+						&& marks[cell - 1] != away)) {
+			marks[cell] = kept;
+			return false;
+		}
+		marks[cell] = away;
+		return true;
+	}
+}
@@ -12,6 +12,11 @@ public class Dragon extends Character {
 	private boolean guarding;
 	private boolean asleep;
 
+	// Index kept up to date with the dragon's moves, and its slot in the
+	// indexed dragons ArrayList
+	DragonIndex index;
+	int slot;
+
 	
 	/**
 	 * Constructor that initializes its superclass <code>Character</code> and
@@ -45,6 +50,34 @@ public class Dragon extends Character {
 		} else
 			return "   ";
 	}
+
+
+	/**
+	 * Sets a new position for the dragon, moving it in its
+	 * <code>DragonIndex</code>.
+	 * 
+	 * @param x
+	 *            new X position integer
+	 * @param y
+	 *            new Y position integer
+	 */
+	@Override
+	public void setPosition(int x, int y) {
+		int fromX = getPosX(), fromY = getPosY();
+		super.setPosition(x, y);
+		if (index != null)
+			index.moved(this, fromX, fromY);
+	}
+
+
+	/**
+	 * Gets the <code>Cell</code> state of the dragon's maze position.
+	 * 
+	 * @return cell state, free once the dragon is dead
+	 */
+	public byte getCell() {
+		return getDead() ? Cell.FREE : Cell.dragon(guarding, asleep);
+	}
 	
 
 	/**
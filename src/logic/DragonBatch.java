@@ -0,0 +1,225 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class <code>DragonBatch</code> holds the dragons of a turn in structure of
+ * arrays form, their positions, flags and moves side by side in primitive
+ * arrays, so thousands of dragons are moved in a few tight passes instead of
+ * one object at a time.
+ * <p>
+ * The random choices are drawn first, in the order of the dragons
+ * <code>ArrayList</code>, so a seeded game takes the same choices as when
+ * each dragon was moved on its own. The moves are then planned against the
+ * cells no dragon changes during its turn, and the ones into walls, the exit
+ * or the hero are dropped. Planning only reads the grid and the hero
+ * distances, so large batches are split across a <code>ForkJoinPool</code>.
+ * The moves left are resolved by {@link Logic} one dragon after the other,
+ * against the cells as the dragons before it left them: the first dragon
+ * claiming a cell takes it, and a cell left by a dragon may be entered by
+ * the ones after it.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+class DragonBatch {
+
+	/**
+	 * Target of a dragon that doesn't move.
+	 */
+	static final int STAY = -1;
+
+	// Dragons planned by one task at most, larger batches are split
+	static final int CHUNK = 2048;
+
+	private static final byte DEAD = 1;
+	private static final byte ASLEEP = 2;
+	private static final byte CHASING = 4;
+
+	// Steps of each Movement direction
+	private static final int[] STEP_X = { 0, 0, 1, -1 };
+	private static final int[] STEP_Y = { -1, 1, 0, 0 };
+
+	private int size;
+	private int chasers;
+	private int[] x = new int[0];
+	private int[] y = new int[0];
+	private byte[] flags = new byte[0];
+	private int[] moves = new int[0];
+	private int[] targets = new int[0];
+
+	/**
+	 * Checks if a dragon may enter a cell: only free cells, the sword and
+	 * the eagle landed on it can be entered.
+	 *
+	 * @param cell
+	 *            symbol code of the cell
+	 * @return true if the dragon can move there
+	 */
+	static boolean canEnter(byte cell) {
+		return cell == Cell.FREE || cell == Cell.SWORD
+				|| cell == Grid.code(PieceType.GROUND_EAGLE);
+	}
+
+	/**
+	 * Copies the dragons and draws their random choices in order: whether
+	 * each one falls asleep and, unless it chases the hero, where it goes.
+	 * Sleeping dragons are shown asleep on the grid.
+	 *
+	 * @param dragons
+	 *            dragons of the game
+	 * @param grid
+	 *            maze cells
+	 * @param random
+	 *            random choices of the game
+	 * @param strategy
+	 *            dragon game strategy mode integer
+	 */
+	void draw(ArrayList<Dragon> dragons, Grid grid, GameRandom random,
+			int strategy) {
+		size = dragons.size();
+		chasers = 0;
+		if (x.length < size)
+			resize(Math.max(size, 2 * x.length));
+
+		for (int i = 0; i < size; i++) {
+			Dragon dragon = dragons.get(i);
+			dragon.setAsleep(random.nextInt(4) == 0 && strategy == 2);
+			x[i] = dragon.getPosX();
+			y[i] = dragon.getPosY();
+			moves[i] = -1;
+
+			if (dragon.getDead())
+				flags[i] = DEAD;
+			else if (dragon.getAsleep()) {
+				flags[i] = ASLEEP;
+				grid.set(x[i], y[i], dragon.getCell());
+			} else if (strategy == 3) {
+				flags[i] = CHASING;
+				chasers++;
+			} else {
+				flags[i] = 0;
+				if (strategy != 0)
+					moves[i] = random.nextInt(4);
+			}
+		}
+	}
+
+	/**
+	 * Plans the moves drawn, or the chasing moves, dropping the ones into
+	 * cells no dragon could enter this turn.
+	 *
+	 * @param grid
+	 *            maze cells
+	 * @param field
+	 *            hero distances followed by chasing dragons, may be null if
+	 *            there are none
+	 * @param away
+	 *            whether chasing dragons run away from an armed hero
+	 * @param pool
+	 *            pool planning batches larger than {@link #CHUNK}, or null
+	 *            to plan on the calling thread, as with a single worker
+	 */
+	void plan(Grid grid, DistanceField field, boolean away, ForkJoinPool pool) {
+		if (pool == null || pool.getParallelism() < 2 || size <= CHUNK)
+			plan(grid, field, away, 0, size);
+		else
+			pool.invoke(new Plan(grid, field, away, 0, size));
+	}
+
+	/**
+	 * Gets the number of dragons in the batch.
+	 *
+	 * @return dragons drawn
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of dragons chasing the hero.
+	 *
+	 * @return awake chasing dragons
+	 */
+	int getChasers() {
+		return chasers;
+	}
+
+	/**
+	 * Gets the cell a dragon plans to enter.
+	 *
+	 * @param i
+	 *            slot of the dragon in the dragons <code>ArrayList</code>
+	 * @return cell index, or {@link #STAY}
+	 */
+	int getTarget(int i) {
+		return targets[i];
+	}
+
+	private void plan(Grid grid, DistanceField field, boolean away, int from,
+			int to) {
+		int width = grid.getWidth(), height = grid.getHeight();
+		for (int i = from; i < to; i++) {
+			int move = moves[i];
+			if (flags[i] == CHASING)
+				move = away ? field.stepAway(x[i], y[i]) : field.stepCloser(
+						x[i], y[i]);
+			targets[i] = STAY;
+			if (move < 0)
+				continue;
+
+			int nextX = x[i] + STEP_X[move], nextY = y[i] + STEP_Y[move];
+			if (nextX <= 0 || nextY <= 0 || nextX >= width
+					|| nextY >= height)
+				continue;
+
+			// Cells with a dragon may be left by the time this one moves
+			byte cell = grid.get(nextX, nextY);
+			if (canEnter(cell) || Cell.has(cell, Cell.DRAGON))
+				targets[i] = nextY * width + nextX;
+		}
+	}
+
+	private void resize(int capacity) {
+		x = new int[capacity];
+		y = new int[capacity];
+		flags = new byte[capacity];
+		moves = new int[capacity];
+		targets = new int[capacity];
+	}
+
+	/*
+	 * Plans a range of dragons, splitting it in halves until it fits a
+	 * chunk. Each task writes the targets of its own range only.
+	 */
+	private class Plan extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private final Grid grid;
+		private final DistanceField field;
+		private final boolean away;
+		private final int from, to;
+
+		Plan(Grid grid, DistanceField field, boolean away, int from, int to) {
+			this.grid = grid;
+			this.field = field;
+			this.away = away;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= CHUNK) {
+				plan(grid, field, away, from, to);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new Plan(grid, field, away, from, middle), new Plan(
+					grid, field, away, middle, to));
+		}
+	}
+}
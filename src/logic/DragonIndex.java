@@ -0,0 +1,264 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Class <code>DragonIndex</code> maps the cells of a <code>Grid</code> to the
+ * dragon standing on them, so the dragons next to a position are found in
+ * O(1) instead of scanning the whole dragons <code>ArrayList</code>. Indexed
+ * dragons report every {@link Dragon#setPosition(int, int)} to the index, and
+ * removing a dragon swaps the last one of the list into its slot, so it's
+ * O(1) as well.
+ * <p>
+ * Dragons never enter each other's cells, so each cell holds one dragon at
+ * most. Only the cells with a dragon are kept, in an open addressing hash
+ * table, so building the index takes time and memory for the dragons rather
+ * than for the whole board.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class DragonIndex {
+
+	private final Grid grid;
+	private final ArrayList<Dragon> dragons;
+
+	// Cell index plus one of every slot, 0 if empty, and its dragon
+	private int[] keys;
+	private Dragon[] values;
+	private int size;
+
+	// Moves aren't followed while suspended, the index is built again after
+	private boolean suspended;
+	private boolean changed;
+
+	/**
+	 * Indexes the given dragons, replacing any index they were in before.
+	 *
+	 * @param grid
+	 *            maze cells
+	 * @param dragons
+	 *            dragons on the grid, kept up to date by
+	 *            {@link #remove(Dragon)}
+	 */
+	public DragonIndex(Grid grid, ArrayList<Dragon> dragons) {
+		this.grid = grid;
+		this.dragons = dragons;
+		int capacity = 8;
+		while (capacity < 4 * dragons.size())
+			capacity <<= 1;
+		keys = new int[capacity];
+		values = new Dragon[capacity];
+		for (int i = 0; i < dragons.size(); i++) {
+			Dragon dragon = dragons.get(i);
+			dragon.index = this;
+			dragon.slot = i;
+			put(dragon.getPosX(), dragon.getPosY(), dragon);
+		}
+	}
+
+	/**
+	 * Gets the grid this index was built for.
+	 *
+	 * @return maze cells
+	 */
+	public Grid getGrid() {
+		return grid;
+	}
+
+	/**
+	 * Gets the indexed dragons.
+	 *
+	 * @return dragons <code>ArrayList</code>
+	 */
+	public ArrayList<Dragon> getDragons() {
+		return dragons;
+	}
+
+	/**
+	 * Gets the dragon at the given position.
+	 *
+	 * @param x
+	 *            X position
+	 * @param y
+	 *            Y position
+	 * @return dragon, or null if there's none or the position is outside the
+	 *         grid
+	 */
+	public Dragon get(int x, int y) {
+		return grid.contains(x, y) ? values[find(grid.index(x, y) + 1)]
+				: null;
+	}
+
+	/**
+	 * Gets a dragon one step away from the given position, checking up, down,
+	 * right and left in that order.
+	 *
+	 * @param x
+	 *            X position
+	 * @param y
+	 *            Y position
+	 * @param awake
+	 *            only look for dragons that aren't sleeping
+	 * @return near dragon, or null if there's none
+	 */
+	public Dragon near(int x, int y, boolean awake) {
+		Dragon dragon;
+		if ((dragon = check(x, y - 1, awake)) != null
+				|| (dragon = check(x, y + 1, awake)) != null
+				|| (dragon = check(x + 1, y, awake)) != null)
+			return dragon;
+		return check(x - 1, y, awake);
+	}
+
+	/**
+	 * Removes a dragon from the index and from the dragons
+	 * <code>ArrayList</code>. The last dragon of the list takes its place.
+	 *
+	 * @param dragon
+	 *            dragon to remove
+	 */
+	public void remove(Dragon dragon) {
+		if (get(dragon.getPosX(), dragon.getPosY()) == dragon)
+			put(dragon.getPosX(), dragon.getPosY(), null);
+		dragon.index = null;
+
+		// The list may have been changed behind the index
+		int slot = dragon.slot, last = dragons.size() - 1;
+		if (slot > last || dragons.get(slot) != dragon) {
+			dragons.remove(dragon);
+			return;
+		}
+		Dragon moved = dragons.get(last);
+		dragons.set(slot, moved);
+		moved.slot = slot;
+		dragons.remove(last);
+	}
+
+	/**
+	 * Moves a dragon in the index, called by
+	 * {@link Dragon#setPosition(int, int)}.
+	 *
+	 * @param dragon
+	 *            dragon that moved
+	 * @param fromX
+	 *            previous X position
+	 * @param fromY
+	 *            previous Y position
+	 */
+	void moved(Dragon dragon, int fromX, int fromY) {
+		if (suspended) {
+			changed = true;
+			return;
+		}
+		if (grid.contains(fromX, fromY)) {
+			int slot = find(grid.index(fromX, fromY) + 1);
+			if (values[slot] == dragon)
+				delete(slot);
+		}
+		put(dragon.getPosX(), dragon.getPosY(), dragon);
+	}
+
+	/**
+	 * Stops following the dragons' moves until {@link #resume()}, for
+	 * batches where many dragons move at once. The index mustn't be used
+	 * while suspended.
+	 */
+	void suspend() {
+		suspended = true;
+		changed = false;
+	}
+
+	/**
+	 * Follows the dragons' moves again, building the index anew if any of
+	 * them moved while suspended. Filling the table once costs a probe per
+	 * dragon, where following each move costs several.
+	 */
+	void resume() {
+		suspended = false;
+		if (!changed)
+			return;
+		Arrays.fill(keys, 0);
+		Arrays.fill(values, null);
+		size = 0;
+		for (int i = 0; i < dragons.size(); i++) {
+			Dragon dragon = dragons.get(i);
+			put(dragon.getPosX(), dragon.getPosY(), dragon);
+		}
+	}
+
+	private Dragon check(int x, int y, boolean awake) {
+		Dragon dragon = get(x, y);
+		return dragon == null || (awake && dragon.getAsleep()) ? null
+				: dragon;
+	}
+
+	private void put(int x, int y, Dragon dragon) {
+		if (!grid.contains(x, y))
+			return;
+		int key = grid.index(x, y) + 1;
+		int slot = find(key);
+		if (dragon == null) {
+			if (keys[slot] != 0)
+				delete(slot);
+			return;
+		}
+		values[slot] = dragon;
+		if (keys[slot] == 0) {
+			keys[slot] = key;
+			if (++size * 4 > keys.length)
+				grow();
+		}
+	}
+
+	// Gets the slot holding the key, or the empty slot ending its probe
+	private int find(int key) {
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while (keys[slot] != 0 && keys[slot] != key)
+			slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	// Empties a slot, moving back the keys probed past it so every key is
+	// still found before an empty slot
+	private void delete(int slot) {
+		int mask = keys.length - 1;
+		int next = slot;
+		size--;
+		while (true) {
+			next = (next + 1) & mask;
+			if (keys[next] == 0)
+				break;
+			int home = hash(keys[next]) & mask;
+			// Keys whose probe starts after the empty slot stay put
+			if (((next - home) & mask) < ((next - slot) & mask))
+				continue;
+			keys[slot] = keys[next];
+			values[slot] = values[next];
+			slot = next;
+		}
+		keys[slot] = 0;
+		values[slot] = null;
+	}
+
+	private void grow() {
+		int[] oldKeys = keys;
+		Dragon[] oldValues = values;
+		keys = new int[oldKeys.length * 2];
+		values = new Dragon[oldKeys.length * 2];
+		for (int i = 0; i < oldKeys.length; i++)
+			if (oldKeys[i] != 0) {
+				int slot = find(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+	}
+}
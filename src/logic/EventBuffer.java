@@ -0,0 +1,105 @@
+package logic;
+
+/**
+ * Class <code>EventBuffer</code> queues game events in a fixed ring, so they
+ * can be handled in bulk after a turn without creating objects per event.
+ * When the ring is full the oldest events are dropped and counted.
+ * <p>
+ * A buffer isn't thread safe: events must be drained by the thread playing
+ * the game or under a lock shared with it.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class EventBuffer implements GameListener {
+
+	private final GameEvent[] events;
+	private final int[] xs;
+	private final int[] ys;
+	private final int mask;
+	private long head, tail, dropped;
+
+	/**
+	 * @param capacity
+	 *            number of events kept, rounded up to a power of two
+	 */
+	public EventBuffer(int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Invalid capacity: "
+					+ capacity);
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity)
+			size <<= 1;
+		events = new GameEvent[size];
+		xs = new int[size];
+		ys = new int[size];
+		mask = size - 1;
+	}
+
+	public void gameEvent(GameEvent event, int x, int y) {
+		if (tail - head == events.length) {
+			head++;
+			dropped++;
+		}
+		int i = (int) (tail++ & mask);
+		events[i] = event;
+		xs[i] = x;
+		ys[i] = y;
+	}
+
+	/**
+	 * Hands every queued event to a listener, oldest first, and empties the
+	 * buffer.
+	 *
+	 * @param listener
+	 *            receiver of the events
+	 * @return number of events drained
+	 */
+	public int drain(GameListener listener) {
+		int count = 0;
+		while (head < tail) {
+			int i = (int) (head++ & mask);
+			GameEvent event = events[i];
+			events[i] = null;
+			listener.gameEvent(event, xs[i], ys[i]);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the number of queued events.
+	 *
+	 * @return queued events
+	 */
+	public int size() {
+		return (int) (tail - head);
+	}
+
+	/**
+	 * Gets the number of events the buffer can hold.
+	 *
+	 * @return capacity
+	 */
+	public int capacity() {
+		return events.length;
+	}
+
+	/**
+	 * Gets the number of events dropped because the buffer was full.
+	 *
+	 * @return dropped events
+	 */
+	public long getDropped() {
+		return dropped;
+	}
+
+	/**
+	 * Drops every queued event.
+	 */
+	public void clear() {
+		while (head < tail)
+			events[(int) (head++ & mask)] = null;
+	}
+}
@@ -0,0 +1,43 @@
+package logic;
+
+/**
+ * Events published by a game to its <code>GameListeners</code>, with the
+ * position where they happened.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public enum GameEvent {
+
+	/** Hero stepped into the position */
+	HERO_MOVED,
+	/** Hero tried to move into a wall or a character */
+	HERO_BLOCKED,
+	/** Hero picked the sword up at the position */
+	SWORD_PICKED,
+	/** Armed hero reached the exit with every dragon dead */
+	HERO_WON,
+	/** Unarmed hero was caught by an awake dragon */
+	HERO_DIED,
+	/** Dragon stepped into the position */
+	DRAGON_MOVED,
+	/** Dragon started guarding the sword at the position */
+	DRAGON_GUARDING,
+	/** Armed hero killed the dragon at the position */
+	DRAGON_KILLED,
+	/** Hero released the eagle from the position */
+	EAGLE_RELEASED,
+	/** Eagle landed on the sword and is taking it back */
+	EAGLE_CAUGHT_SWORD,
+	/** Eagle brought the sword back but the hero had left */
+	EAGLE_GROUNDED,
+	/** Eagle brought the sword back to the hero */
+	EAGLE_RETURNED,
+	/** Eagle landed on the dragon guarding the sword */
+	EAGLE_DIED,
+	/** Dragon stepped on the eagle waiting with the sword */
+	EAGLE_KILLED,
+	/** Player quit the game */
+	GAME_ABORTED
+}
@@ -0,0 +1,26 @@
+package logic;
+
+/**
+ * Receives the events of a game, see {@link Maze#addListener(GameListener)}.
+ * Events are delivered while the turn is being played, so listeners should
+ * be quick and leave the game alone, or queue the events in an
+ * <code>EventBuffer</code> and handle them after the turn.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public interface GameListener {
+
+	/**
+	 * Called for every event of the game.
+	 *
+	 * @param event
+	 *            what happened
+	 * @param x
+	 *            X position of the event
+	 * @param y
+	 *            Y position of the event
+	 */
+	void gameEvent(GameEvent event, int x, int y);
+}
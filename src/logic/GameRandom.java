@@ -0,0 +1,63 @@
+package logic;
+
+import java.util.Random;
+
+/**
+ * Class <code>GameRandom</code> is a <code>Random</code> whose state can be
+ * read and set again, so a game saved in a <code>Snapshot</code> takes the
+ * same random choices once restored. It uses the same generator as
+ * <code>Random</code>, so a seed gives the same numbers as before.
+ * <p>
+ * Unlike <code>Random</code> it isn't meant to be shared between threads.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class GameRandom extends Random {
+
+	private static final long serialVersionUID = 1L;
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	private static final long ADDEND = 0xBL;
+	private static final long MASK = (1L << 48) - 1;
+
+	// Set by setSeed from the super constructor, so it has no initializer
+	private long state;
+
+	/**
+	 * @param seed
+	 *            initial seed
+	 */
+	public GameRandom(long seed) {
+		super(seed);
+	}
+
+	public void setSeed(long seed) {
+		super.setSeed(seed);
+		state = (seed ^ MULTIPLIER) & MASK;
+	}
+
+	protected int next(int bits) {
+		state = (state * MULTIPLIER + ADDEND) & MASK;
+		return (int) (state >>> (48 - bits));
+	}
+
+	/**
+	 * Gets the current generator state, which isn't the seed.
+	 *
+	 * @return 48 bit state
+	 */
+	public long getState() {
+		return state;
+	}
+
+	/**
+	 * Sets a generator state read by {@link #getState()}.
+	 *
+	 * @param state
+	 *            48 bit state
+	 */
+	public void setState(long state) {
+		this.state = state & MASK;
+	}
+}
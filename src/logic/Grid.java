@@ -0,0 +1,509 @@
+package logic;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Class <code>Grid</code> stores the cells of the maze in a flat row-major
+ * <code>byte</code> array instead of nested <code>ArrayLists</code> of
+ * <code>Pieces</code>. Each cell holds a <code>Cell</code> state, a bitmask of
+ * what lies in it, which can still be read and written as a maze symbol or a
+ * <code>PieceType</code>.
+ * <p>
+ * A grid may also read its cells from a buffer, like a memory mapped maze
+ * file, without copying them to the heap. Cells written are then copied in
+ * pages of 4096, so the buffer is never changed. Only
+ * {@link #getCells()} copies the whole buffer, once, so code reading every
+ * cell goes through {@link #get(int)} or {@link #copyTo(byte[])} instead.
+ * <p>
+ * {@link #fork()} copies a grid the same way: both grids read the cells of
+ * the original and copy a page before they first write it, so forking
+ * costs nothing like copying the whole board.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class Grid {
+
+	private static final String[] SYMBOLS = new String[256];
+	private static final PieceType[] TYPES = new PieceType[256];
+	private static final byte[] TYPE_CODES;
+
+	static {
+		for (int code = 0; code < SYMBOLS.length; code++)
+			SYMBOLS[code] = Cell.toSymbol((byte) code);
+
+		// Types sharing a symbol are read as the first one
+		TYPE_CODES = new byte[PieceType.values().length];
+		for (PieceType type : PieceType.values()) {
+			byte code = Cell.parse(type.asString());
+			TYPE_CODES[type.ordinal()] = code;
+			if (TYPES[code & 0xFF] == null)
+				TYPES[code & 0xFF] = type;
+		}
+	}
+
+	private static final int PAGE_SHIFT = 12;
+	private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+	private final int width;
+	private final int height;
+	private byte[] cells;
+	private DirtyCells changes;
+	// Logs of the writes kept apart from the changes drawn, see logWrites()
+	private DirtyCells[] logs = new DirtyCells[0];
+
+	// Cells read from a buffer until the whole array is needed, with the
+	// pages written so far
+	private ByteBuffer source;
+	private byte[][] pages;
+	// Pages written in place, the others are still shared with forks
+	private boolean[] owned;
+
+	/**
+	 * Creates a grid with all cells set as <code>PieceType.FREE</code>.
+	 *
+	 * @param width
+	 *            number of columns
+	 * @param height
+	 *            number of lines
+	 */
+	public Grid(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.cells = new byte[width * height];
+	}
+
+	/**
+	 * Creates a grid reading its cells from a buffer, which is never
+	 * written. Cells written are copied to the heap instead.
+	 *
+	 * @param width
+	 *            number of columns
+	 * @param height
+	 *            number of lines
+	 * @param source
+	 *            cell codes in row-major order from its position, such as a
+	 *            read only mapped file
+	 */
+	public Grid(int width, int height, ByteBuffer source) {
+		if (source.remaining() < width * height)
+			throw new IllegalArgumentException("Buffer smaller than the grid");
+		this.width = width;
+		this.height = height;
+		this.source = source.slice();
+		int pageCount = (getCellCount() + PAGE_SIZE - 1) >>> PAGE_SHIFT;
+		this.pages = new byte[pageCount][];
+		this.owned = new boolean[pageCount];
+	}
+
+	// Fork of a grid reading from a buffer, sharing its pages
+	private Grid(Grid grid) {
+		this.width = grid.width;
+		this.height = grid.height;
+		this.source = grid.source;
+		this.pages = grid.pages.clone();
+		this.owned = new boolean[pages.length];
+	}
+
+	/**
+	 * Builds a grid from a two dimensional <code>ArrayList</code> of Pieces.
+	 *
+	 * @param maze
+	 *            lines of Pieces
+	 * @return grid holding the same symbols
+	 */
+	public static Grid fromPieces(ArrayList<ArrayList<Piece>> maze) {
+		Grid grid = new Grid(maze.size() > 0 ? maze.get(0).size() : 0,
+				maze.size());
+		for (int i = 0; i < grid.height; i++) {
+			ArrayList<Piece> line = maze.get(i);
+			for (int j = 0; j < grid.width; j++)
+				grid.setSymbol(j, i, line.get(j).getSymbol());
+		}
+		return grid;
+	}
+
+	/**
+	 * Gets the code used to store the given symbol.
+	 *
+	 * @param symbol
+	 *            3 character maze symbol
+	 * @return symbol code, a <code>Cell</code> state
+	 */
+	public static byte encode(String symbol) {
+		return Cell.parse(symbol);
+	}
+
+	/**
+	 * Gets the symbol stored with the given code.
+	 *
+	 * @param code
+	 *            symbol code
+	 * @return 3 character maze symbol
+	 */
+	public static String decode(byte code) {
+		return SYMBOLS[code & 0xFF];
+	}
+
+	/**
+	 * Gets the piece type stored with the given code.
+	 *
+	 * @param code
+	 *            symbol code
+	 * @return piece type, or null if no type has the code's symbol
+	 */
+	public static PieceType type(byte code) {
+		return TYPES[code & 0xFF];
+	}
+
+	/**
+	 * Gets the number of symbol codes, so tables indexed by
+	 * <code>code &amp; 0xFF</code> can be built.
+	 *
+	 * @return number of codes
+	 */
+	public static int codeCount() {
+		return SYMBOLS.length;
+	}
+
+	/**
+	 * Checks if the given code holds a wall, with or without the eagle over
+	 * it.
+	 *
+	 * @param code
+	 *            symbol code
+	 * @return true if it's a wall, false otherwise
+	 */
+	public static boolean isWall(byte code) {
+		return (code & Cell.WALL) != 0;
+	}
+
+	/**
+	 * Gets the code used to store the given <code>PieceType</code>.
+	 *
+	 * @param type
+	 *            piece type
+	 * @return symbol code
+	 */
+	public static byte code(PieceType type) {
+		return TYPE_CODES[type.ordinal()];
+	}
+
+	/**
+	 * Gets the number of columns.
+	 *
+	 * @return grid width
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Gets the number of lines.
+	 *
+	 * @return grid height
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Checks if the given coordinates are inside the grid.
+	 *
+	 * @param x
+	 *            X position
+	 * @param y
+	 *            Y position
+	 * @return true if inside, false otherwise
+	 */
+	public boolean contains(int x, int y) {
+		return x >= 0 && y >= 0 && x < width && y < height;
+	}
+
+	/**
+	 * Gets the row-major index of the given coordinates.
+	 *
+	 * @param x
+	 *            X position
+	 * @param y
+	 *            Y position
+	 * @return cell index
+	 */
+	public int index(int x, int y) {
+		return y * width + x;
+	}
+
+	/**
+	 * Gets the symbol code from given coordinates.
+	 *
+	 * @param x
+	 *            X position
+	 * @param y
+	 *            Y position
+	 * @return symbol code
+	 */
+	public byte get(int x, int y) {
+		if (cells != null)
+			return cells[y * width + x];
+		return read(y * width + x);
+	}
+
+	/**
+	 * Gets the symbol code of a cell from its index, see
+	 * {@link #index(int, int)}.
+	 *
+	 * @param index
+	 *            row-major cell index
+	 * @return symbol code
+	 */
+	public byte get(int index) {
+		if (cells != null)
+			return cells[index];
+		return read(index);
+	}
+
+	/**
+	 * Sets the symbol code at given coordinates.
+	 *
+	 * @param x
+	 *            X position
+	 * @param y
+	 *            Y position
+	 * @param code
+	 *            new symbol code
+	 */
+	public void set(int x, int y, byte code) {
+		if (cells != null)
+			cells[y * width + x] = code;
+		else
+			write(y * width + x, code);
+		if (changes != null)
+			changes.mark(y * width + x);
+		for (DirtyCells log : logs)
+			log.mark(y * width + x);
+	}
+
+	/**
+	 * Checks if the cell at given coordinates holds the given type.
+	 *
+	 * @param x
+	 *            X position
+	 * @param y
+	 *            Y position
+	 * @param type
+	 *            piece type
+	 * @return true if the symbols match, false otherwise
+	 */
+	public boolean is(int x, int y, PieceType type) {
+		return get(x, y) == code(type);
+	}
+
+	/**
+	 * Gets the symbol from given coordinates.
+	 *
+	 * @param x
+	 *            X position
+	 * @param y
+	 *            Y position
+	 * @return 3 character maze symbol
+	 */
+	public String getSymbol(int x, int y) {
+		return SYMBOLS[get(x, y) & 0xFF];
+	}
+
+	/**
+	 * Sets the symbol at given coordinates.
+	 *
+	 * @param x
+	 *            X position
+	 * @param y
+	 *            Y position
+	 * @param symbol
+	 *            new 3 character maze symbol
+	 */
+	public void setSymbol(int x, int y, String symbol) {
+		set(x, y, encode(symbol));
+	}
+
+	/**
+	 * Starts collecting the cells written by {@link #set(int, int, byte)}
+	 * and {@link #setSymbol(int, int, String)}. Writes straight to the
+	 * backing array aren't collected.
+	 *
+	 * @return changed cells, the same set on every call
+	 */
+	public DirtyCells trackChanges() {
+		if (changes == null)
+			changes = new DirtyCells(getCellCount());
+		return changes;
+	}
+
+	/**
+	 * Starts a log of the cells written from now on, like
+	 * {@link #trackChanges()} but apart from it and from every other log,
+	 * so each reader clears its own. Forks and searches following a game
+	 * log its writes this way without taking the changes to draw.
+	 *
+	 * @return new log of the written cells
+	 */
+	public DirtyCells logWrites() {
+		DirtyCells log = new DirtyCells(getCellCount());
+		logs = Arrays.copyOf(logs, logs.length + 1);
+		logs[logs.length - 1] = log;
+		return log;
+	}
+
+	/**
+	 * Stops logging writes to a log started by {@link #logWrites()}.
+	 *
+	 * @param log
+	 *            log to stop
+	 */
+	public void stopLogging(DirtyCells log) {
+		for (int i = 0; i < logs.length; i++)
+			if (logs[i] == log) {
+				DirtyCells[] left = new DirtyCells[logs.length - 1];
+				System.arraycopy(logs, 0, left, 0, i);
+				System.arraycopy(logs, i + 1, left, i, left.length - i);
+				logs = left;
+				return;
+			}
+	}
+
+	/**
+	 * Gets the number of cells.
+	 *
+	 * @return width times height
+	 */
+	public int getCellCount() {
+		return width * height;
+	}
+
+	/**
+	 * Gets the backing cell array, indexed by {@link #index(int, int)}. A
+	 * grid reading from a buffer, or sharing its cells with forks, copies
+	 * them to a new array first, which it uses from then on.
+	 *
+	 * @return cell codes
+	 */
+	public byte[] getCells() {
+		if (cells == null) {
+			byte[] copy = new byte[getCellCount()];
+			copyTo(copy);
+			cells = copy;
+			source = null;
+			pages = null;
+			owned = null;
+		}
+		return cells;
+	}
+
+	/**
+	 * Copies the cells to an array, indexed by {@link #index(int, int)},
+	 * leaving a grid reading from a buffer or shared with forks as it is.
+	 *
+	 * @param copy
+	 *            array of at least {@link #getCellCount()} codes
+	 */
+	public void copyTo(byte[] copy) {
+		if (cells != null) {
+			System.arraycopy(cells, 0, copy, 0, cells.length);
+			return;
+		}
+		for (int page = 0; page < pages.length; page++) {
+			int start = page << PAGE_SHIFT;
+			int length = Math.min(PAGE_SIZE, getCellCount() - start);
+			if (pages[page] != null)
+				System.arraycopy(pages[page], 0, copy, start, length);
+			else {
+				ByteBuffer from = source.duplicate();
+				from.position(start);
+				from.get(copy, start, length);
+			}
+		}
+	}
+
+	/**
+	 * Copies the grid sharing its cells. Both grids then read the same
+	 * cells, and each copies a page of 4096 cells before writing it for the
+	 * first time, so forking only costs a reference per page. A grid keeping
+	 * its cells in an array starts reading it as a buffer, and the array is
+	 * never written again. Neither grid sees what the other writes from then
+	 * on, and neither changes nor logs carry over to the fork.
+	 * <p>
+	 * Forks may be written by other threads, but forking writes to this grid
+	 * so it must not happen while another thread uses it.
+	 *
+	 * @return grid with the same cells
+	 */
+	public Grid fork() {
+		if (cells != null) {
+			int pageCount = (cells.length + PAGE_SIZE - 1) >>> PAGE_SHIFT;
+			source = ByteBuffer.wrap(cells);
+			pages = new byte[pageCount][];
+			owned = new boolean[pageCount];
+			cells = null;
+		} else
+			Arrays.fill(owned, false);
+		return new Grid(this);
+	}
+
+	/**
+	 * Checks if the cells are still read from a buffer, so that
+	 * {@link #getCells()} would copy them.
+	 *
+	 * @return true if backed by a buffer
+	 */
+	public boolean isBuffered() {
+		return cells == null;
+	}
+
+	private byte read(int i) {
+		byte[] page = pages[i >>> PAGE_SHIFT];
+		if (page != null)
+			return page[i & (PAGE_SIZE - 1)];
+		return source.get(i);
+	}
+
+	// Copies the page of the cell before its first write, from the buffer
+	// or from the page shared with a fork
+	private void write(int i, byte code) {
+		int index = i >>> PAGE_SHIFT;
+		byte[] page = pages[index];
+		if (!owned[index]) {
+			int start = i & ~(PAGE_SIZE - 1);
+			byte[] copy = new byte[Math.min(PAGE_SIZE, getCellCount() - start)];
+			if (page != null)
+				System.arraycopy(page, 0, copy, 0, copy.length);
+			else {
+				ByteBuffer from = source.duplicate();
+				from.position(start);
+				from.get(copy);
+			}
+			page = pages[index] = copy;
+			owned[index] = true;
+		}
+		page[i & (PAGE_SIZE - 1)] = code;
+	}
+
+	/**
+	 * Builds a two dimensional <code>ArrayList</code> of Pieces that read and
+	 * write through to this grid.
+	 *
+	 * @return lines of Pieces
+	 */
+	public ArrayList<ArrayList<Piece>> toPieces() {
+		ArrayList<ArrayList<Piece>> maze = new ArrayList<ArrayList<Piece>>(
+				height);
+		for (int i = 0; i < height; i++) {
+			ArrayList<Piece> line = new ArrayList<Piece>(width);
+			for (int j = 0; j < width; j++)
+				line.add(new GridPiece(this, j, i));
+			maze.add(line);
+		}
+		return maze;
+	}
+}
@@ -0,0 +1,40 @@
+package logic;
+
+/**
+ * Piece view over one cell of a <code>Grid</code>. Reading or changing its
+ * symbol reads or changes the grid cell directly. Like any piece, moving it
+ * only changes its coordinates: it keeps viewing its own cell and the grid
+ * isn't written.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+class GridPiece extends Piece {
+
+	private static final long serialVersionUID = 1L;
+	private final transient Grid grid;
+	private final int x, y;
+
+	GridPiece(Grid grid, int posX, int posY) {
+		super(posX, posY, null);
+		this.grid = grid;
+		this.x = posX;
+		this.y = posY;
+	}
+
+	@Override
+	public String getSymbol() {
+		return grid.getSymbol(x, y);
+	}
+
+	@Override
+	public void setSymbol(String symbol) {
+		grid.setSymbol(x, y, symbol);
+	}
+
+	// Serialize as a plain Piece so saved mazes don't depend on the grid
+	private Object writeReplace() {
+		return new Piece(getPosX(), getPosY(), getSymbol());
+	}
+}
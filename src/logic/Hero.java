@@ -29,4 +29,8 @@ public class Hero extends Character {
 	public String showHero() {
 		return " " + (armed ? "A" : "H") + (eagle ? "G" : " ");
 	}
+
+	public byte getCell() {
+		return Cell.hero(armed, eagle);
+	}
 }
@@ -0,0 +1,140 @@
+package logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class <code>Journal</code> records a game as it's played, appending each
+ * player input to a file instead of saving the whole game again. The file
+ * starts with a <code>Snapshot</code> of the game when the journal was
+ * opened, the random seed and generator state included, followed by one byte
+ * per input. Inputs are written in batches, so a crash loses the last batch
+ * at most.
+ * <p>
+ * A journal is read back as a {@link Recording}, which plays the inputs again
+ * to rebuild the game at any turn.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class Journal {
+
+	/**
+	 * First bytes of a journal file, "MZJR" in ASCII.
+	 */
+	public static final int MAGIC = 0x4D5A4A52;
+
+	/**
+	 * Version of the format written.
+	 */
+	public static final short VERSION = 1;
+
+	/**
+	 * Size of the header before the snapshot, in bytes.
+	 */
+	public static final int HEADER_SIZE = 12;
+
+	/**
+	 * Inputs kept before being written to the file.
+	 */
+	public static final int BATCH_SIZE = 64;
+
+	private final FileChannel channel;
+	private final ByteBuffer batch = ByteBuffer.allocate(BATCH_SIZE);
+	private int inputs;
+
+	/**
+	 * Starts a journal of a game, replacing the file if it exists.
+	 *
+	 * @param file
+	 *            file to write
+	 * @param logic
+	 *            game as it is before the first input recorded
+	 * @throws IOException
+	 *             if the file can't be written
+	 */
+	public Journal(Path file, Logic logic) throws IOException {
+		Snapshot start = logic.snapshot();
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE
+				+ start.encodedSize());
+		header.putInt(MAGIC);
+		header.putShort(VERSION);
+		header.putShort((short) 0);
+		header.putInt(start.encodedSize());
+		start.encode(header);
+		header.flip();
+
+		channel = FileChannel.open(file, StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			write(header);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Records an input played, writing the batch once it's full.
+	 *
+	 * @param input
+	 *            input given to {@link Logic#playTurn(String, TurnResult)},
+	 *            a single character such as "w" or "e"
+	 * @throws IOException
+	 *             if the batch can't be written
+	 */
+	public void record(String input) throws IOException {
+		if (input.length() != 1 || input.charAt(0) > 0x7F)
+			throw new IllegalArgumentException("Not a move: " + input);
+		batch.put((byte) input.charAt(0));
+		inputs++;
+		if (!batch.hasRemaining())
+			flush();
+	}
+
+	/**
+	 * Writes the inputs recorded since the last batch.
+	 *
+	 * @throws IOException
+	 *             if the batch can't be written
+	 */
+	public void flush() throws IOException {
+		batch.flip();
+		write(batch);
+		batch.clear();
+	}
+
+	/**
+	 * Writes the last inputs and closes the file.
+	 *
+	 * @throws IOException
+	 *             if the file can't be written
+	 */
+	public void close() throws IOException {
+		try {
+			flush();
+			channel.force(false);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Gets the number of inputs recorded.
+	 *
+	 * @return inputs
+	 */
+	public int getInputs() {
+		return inputs;
+	}
+
+	private void write(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+	}
+}
@@ -1,8 +1,10 @@
 package logic;
 
+import algorithms.MazeGenerator;
+
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Logic is the class involved in managing and validation of the movement by
@@ -16,6 +18,10 @@ import java.util.Random;
 public class Logic extends Maze {
 
 	private int dragonStrategy;
+	private ForkJoinPool dragonPool = ForkJoinPool.commonPool();
+
+	// Working arrays of the dragons' turn, built when first played
+	private DragonBatch dragonBatch;
 
 	/**
 	 * This constructor is called when the user wants to play a predefined game.
@@ -26,6 +32,18 @@ public class Logic extends Maze {
 		this.dragonStrategy = 1;
 	}
 
+	/**
+	 * This constructor is called to play a predefined game where the dragons
+	 * always take the same random choices.
+	 * 
+	 * @param seed
+	 *            seed of the random choices
+	 */
+	public Logic(long seed) {
+		super(seed);
+		this.dragonStrategy = 1;
+	}
+
 	/**
 	 * This is called then the player wants to play a random generated game.
 	 * He/She can set the size of the maze, as well as the number of
@@ -43,6 +61,46 @@ public class Logic extends Maze {
 		this.dragonStrategy = dragonStrategy;
 	}
 
+	/**
+	 * This is called when the player wants to play a random generated game
+	 * built by a chosen maze generation engine.
+	 * 
+	 * @param mazeSize
+	 *            The size of the Maze
+	 * @param dragonCounter
+	 *            The number of dragons in the maze
+	 * @param dragonStrategy
+	 *            The strategy of the dragon during the game
+	 * @param generator
+	 *            The engine used to generate the Maze
+	 */
+	public Logic(int mazeSize, int dragonCounter, int dragonStrategy,
+			MazeGenerator generator) {
+		super(mazeSize, dragonCounter, generator);
+		this.dragonStrategy = dragonStrategy;
+	}
+
+	/**
+	 * This is called to play a reproducible random generated game: the same
+	 * seed, settings and moves always lead to the same maze and game.
+	 * 
+	 * @param mazeSize
+	 *            The size of the Maze
+	 * @param dragonCounter
+	 *            The number of dragons in the maze
+	 * @param dragonStrategy
+	 *            The strategy of the dragon during the game
+	 * @param generator
+	 *            The engine used to generate the Maze
+	 * @param seed
+	 *            The seed of every random choice
+	 */
+	public Logic(int mazeSize, int dragonCounter, int dragonStrategy,
+			MazeGenerator generator, long seed) {
+		super(mazeSize, dragonCounter, generator, seed);
+		this.dragonStrategy = dragonStrategy;
+	}
+
 	/**
 	 * This constructor is called when the player wants to play a custom game.
 	 * 
@@ -56,6 +114,123 @@ public class Logic extends Maze {
 		this.dragonStrategy = dragonStrategy;
 	}
 
+	/**
+	 * Constructor for the custom game with a maze read from a file.
+	 * 
+	 * @param grid
+	 *            maze grid
+	 * @param dragonStrategy
+	 *            dragon game strategy mode integer
+	 */
+	public Logic(Grid grid, int dragonStrategy) {
+		super(grid);
+		this.dragonStrategy = dragonStrategy;
+	}
+
+	/**
+	 * Constructor resuming a saved game, or starting a simulation from a
+	 * checkpoint, without generating the maze again.
+	 * 
+	 * @param snapshot
+	 *            state of the game to resume
+	 */
+	public Logic(Snapshot snapshot) {
+		super(snapshot);
+		this.dragonStrategy = snapshot.dragonStrategy;
+	}
+
+	private Logic(Logic logic) {
+		super(logic);
+		this.dragonStrategy = logic.dragonStrategy;
+		this.dragonPool = logic.dragonPool;
+	}
+
+	/**
+	 * Copies the game to branch it, for searches and what-if analysis. The
+	 * copy shares the maze cells with this game until either one changes
+	 * them, in pages, so forking costs time for the characters and not for
+	 * the whole board. Both games go on with the same random choices but
+	 * are played apart, and the copy has no listeners.
+	 * 
+	 * @return independent copy of the game
+	 */
+	public Logic fork() {
+		return new Logic(this);
+	}
+
+	/**
+	 * Takes a snapshot of the whole game, from which it can be restored.
+	 * 
+	 * @return state of the game
+	 */
+	public Snapshot snapshot() {
+		return new Snapshot(this);
+	}
+
+	/**
+	 * Puts the game back to the state of a snapshot. The listeners are
+	 * kept, the maze and characters are replaced by new objects.
+	 * 
+	 * @param snapshot
+	 *            state of the game to restore
+	 */
+	public void restore(Snapshot snapshot) {
+		restoreMaze(snapshot);
+		this.dragonStrategy = snapshot.dragonStrategy;
+	}
+
+	/**
+	 * Puts a fork back to the state of the game it was forked from, in
+	 * place: the grid and the distance fields are kept, and only the cells
+	 * written to the fork since it was forked or last rewound are copied back
+	 * from the game, so a search plays many rollouts on one fork for the
+	 * cost of their moves. A game that went on since gives the cells it
+	 * wrote, logged by {@link Grid#logWrites()}, so the fork follows it from
+	 * move to move without being forked again. The game is only read, and
+	 * must not change while rewinding.
+	 * 
+	 * @param game
+	 *            game this one was forked from
+	 * @param played
+	 *            cells written to the game since this fork was last rewound,
+	 *            or null if none
+	 */
+	public void rewind(Logic game, DirtyCells played) {
+		rewindMaze(game, played);
+		this.dragonStrategy = game.dragonStrategy;
+	}
+
+	/**
+	 * Gets the strategy used by the dragons.
+	 * 
+	 * @return dragon game strategy mode integer
+	 */
+	public int getDragonStrategy() {
+		return dragonStrategy;
+	}
+
+	/**
+	 * Sets the pool planning the dragons' moves when there are thousands of
+	 * them, the common pool by default. The moves don't depend on the pool,
+	 * only on the random choices.
+	 * 
+	 * @param pool
+	 *            pool splitting the dragons, or null to move them all on the
+	 *            calling thread
+	 */
+	public void setDragonPool(ForkJoinPool pool) {
+		this.dragonPool = pool;
+	}
+
+	/**
+	 * Gets the pool planning the dragons' moves.
+	 * 
+	 * @return pool splitting the dragons, or null
+	 */
+	public ForkJoinPool getDragonPool() {
+		return dragonPool;
+	}
+
 	/**
 	 * Processes the moves related to the game according to the input and game
 	 * initial configuration variables.
@@ -74,58 +249,42 @@ public class Logic extends Maze {
 		 * index 0 - general messages index 1 - hero messages index 2 - dragon
 		 * messages index 3 - eagle messages
 		 */
-		String message[] = new String[] { null, null, null, null };
-		int dragonState;
-		Random random = new Random();
-
-		HashMap<Integer, Boolean> heroMoves = validHeroMoves();
+		return playTurn(userInput, new TurnResult()).toMessages();
+	}
 
+	/**
+	 * Processes the moves of one turn like {@link #playGame(String)}, writing
+	 * the outcome into a given result instead of creating new objects.
+	 * 
+	 * @param userInput
+	 *            the <code>String</code> previously entered by the player used
+	 *            to attempt to move the hero
+	 * @param result
+	 *            result to clear and fill, may be reused between turns
+	 * @return the given result
+	 */
+	public TurnResult playTurn(String userInput, TurnResult result) {
+		result.clear();
 		if (userInput.equals("q")) {
-			message[0] = "Abort";
-			return message;
+			result.setAborted(true);
+			publish(GameEvent.GAME_ABORTED, hero.getPosX(), hero.getPosY());
+			return result;
 		}
 
+		int heroMoves = heroMoveMask();
 		if (!hero.getDead())
-			message[1] = moveHero(userInput, heroMoves);
-
-		// Iterate over all dragons
-		for (int i = 0; i < dragons.size(); i++) {
-			Dragon dragon = dragons.get(i);
-			dragonState = random.nextInt(4);
-
-			// If the strategy of the dragon is 0/2 then we assume that's
-			// sleeping
-			if (dragonState == 0 && dragonStrategy == 2)
-				dragon.setAsleep(true);
-			else
-				dragon.setAsleep(false);
-
-			/**
-			 * We only move the dragon if he's not dead and he's not sleeping If
-			 * he's sleeping than we change the piece state
-			 */
-			if (!dragon.getDead()) {
-				if (dragon.getAsleep()) {
-					getMazePiece(dragon.getPosX(), dragon.getPosY()).setSymbol(
-							dragon.showDragon());
-				} else if (dragonStrategy != 0)
-					if (message[2] == null) {
-						message[2] = moveDragon(dragon);
-					} else
-						moveDragon(dragon);
-			}
-		}
+			result.setHeroMessage(moveHero(userInput, heroMoves));
+
+		// Move all dragons
+		moveDragons(result);
 
 		// Move the eagle if not dead
 		if (!eagle.getDead())
-			message[3] = moveEagle();
+			result.setEagleMessage(moveEagle());
 
 		// Check game status
-		State state = checkGame();
-		if (state != null)
-			message[0] = state.toString();
-
-		return message;
+		result.setState(checkGame());
+		return result;
 	}
 
 	/**
@@ -141,6 +300,24 @@ public class Logic extends Maze {
 	 * @return message <code>String</code> used to display relevant Hero events
 	 */
 	public String moveHero(String userInput, HashMap<Integer, Boolean> moves) {
+		int mask = 0;
+		for (Integer direction : moves.keySet())
+			mask |= 1 << direction;
+		return moveHero(userInput, mask);
+	}
+
+	/**
+	 * Processes a valid hero move and deals with possible hero related game
+	 * events.
+	 * 
+	 * @param userInput
+	 *            the <code>String</code> previously entered by the player used
+	 *            to attempt to move the hero
+	 * @param moves
+	 *            mask of the valid hero moves, see {@link #heroMoveMask()}
+	 * @return message <code>String</code> used to display relevant Hero events
+	 */
+	public String moveHero(String userInput, int moves) {
 
 		String message = null;
 
@@ -157,47 +334,58 @@ public class Logic extends Maze {
 				hero.setEagle(false);
 				eagle.setHeroX(hero.getPosX());
 				eagle.setHeroY(hero.getPosY());
+				publish(GameEvent.EAGLE_RELEASED, hero.getPosX(),
+						hero.getPosY());
 				return "Hero released the eagle";
 			}
 		}
 
 		// User wants the move to hero up
 		if (userInput.equals("w")) {
-			// Check if HashMap contains the key with value 0)
-			if (moves.containsKey(Movement.MOVE_UP.getDirection())) {
+			// Check if the mask holds the up bit
+			if (canMove(moves, Movement.MOVE_UP)) {
 				// Move the hero
 				message = swapHero(Movement.MOVE_UP.getDirection());
 			} else
-				return "Hero can't move up!";
+				return heroBlocked("Hero can't move up!");
 		}
 		// Move the hero down
 		else if (userInput.equals("s")) {
-			// Check if HashMap contains the key with value 1)
-			if (moves.containsKey(Movement.MOVE_DOWN.getDirection())) {
+			// Check if the mask holds the down bit
+			if (canMove(moves, Movement.MOVE_DOWN)) {
 				// Move the hero
 				message = swapHero(Movement.MOVE_DOWN.getDirection());
 			} else
-				return "Hero can't move down!";
+				return heroBlocked("Hero can't move down!");
 		}
 		// Move the hero in the right direction
 		else if (userInput.equals("d")) {
-			// Check if HashMap contains the key with value 2)
-			if (moves.containsKey(Movement.MOVE_RIGHT.getDirection())) {
+			// Check if the mask holds the right bit
+			if (canMove(moves, Movement.MOVE_RIGHT)) {
 				message = swapHero(Movement.MOVE_RIGHT.getDirection());
 			} else
-				return "Hero can't move right!";
+				return heroBlocked("Hero can't move right!");
 		}
 		// Move the hero in the left direction
 		else if (userInput.equals("a")) {
-			// Check if HashMap contains the key with value 3)
-			if (moves.containsKey(Movement.MOVE_LEFT.getDirection())) {
+			// Check if the mask holds the left bit
+			if (canMove(moves, Movement.MOVE_LEFT)) {
 				message = swapHero(Movement.MOVE_LEFT.getDirection());
 			} else
-				return "Hero can't move left!";
+				return heroBlocked("Hero can't move left!");
 		}
 		return message;
 	}
 
+	private String heroBlocked(String message) {
+		publish(GameEvent.HERO_BLOCKED, hero.getPosX(), hero.getPosY());
+		return message;
+	}
+
+	private static boolean canMove(int moves, Movement move) {
+		return (moves & (1 << move.getDirection())) != 0;
+	}
+
 	/**
 	 * Processes a valid dragon move and deals with possible dragon related game
 	 * events.
@@ -209,13 +397,12 @@ public class Logic extends Maze {
 	 *         events
 	 */
 	public String moveDragon(Dragon dragon) {
-		Random random = new Random();
-		int previousX = dragon.getPosX(), previousY = dragon.getPosY();
 		int nextX = 0, nextY = 0;
 
-		// direction is used to the set the dragon direction randomly
-		int direction = random.nextInt(4);
-		String nearSymbol, message = null;
+		// direction is used to the set the dragon direction randomly, or
+		// towards the hero for chasing dragons
+		int direction = dragonStrategy == 3 ? chaseDirection(dragon) : random
+				.nextInt(4);
 
 		switch (direction) {
 		case (0):
@@ -246,24 +433,74 @@ public class Logic extends Maze {
 			break;
 		}
 
-		nearSymbol = getMazePieceSymbol(nextX, nextY);
-		// Reject invalid Dragon moves
-		if (!nearSymbol.equals(PieceType.FREE.asString())
-				&& !nearSymbol.equals(PieceType.GROUND_EAGLE.asString())
-				&& !nearSymbol.equals(PieceType.SWORD.asString())) {
-			nextX = 0;
-			nextY = 0;
+		return enterCell(dragon, nextX, nextY);
+	}
+
+	/**
+	 * Moves all the dragons in a batch, see {@link DragonBatch}. The random
+	 * choices are drawn and the cells checked as if each dragon moved with
+	 * {@link #moveDragon(Dragon)} in turn.
+	 * 
+	 * @param result
+	 *            result taking the first dragon message
+	 */
+	private void moveDragons(TurnResult result) {
+		if (dragonBatch == null)
+			dragonBatch = new DragonBatch();
+		dragonBatch.draw(dragons, grid, random, dragonStrategy);
+		if (dragonStrategy == 0)
+			return;
+
+		DistanceField field = dragonBatch.getChasers() > 0 ? getHeroDistances()
+				: null;
+		dragonBatch.plan(grid, field, hero.getArmed(), dragonPool);
+
+		// Moves are resolved in order, and indexed once all are done
+		DragonIndex index = getDragonIndex();
+		int width = grid.getWidth();
+		index.suspend();
+		for (int i = 0; i < dragonBatch.size(); i++) {
+			int target = dragonBatch.getTarget(i);
+			if (target == DragonBatch.STAY)
+				continue;
+			String message = enterCell(dragons.get(i), target % width, target
+					/ width);
+			if (result.getDragonMessage() == null)
+				result.setDragonMessage(message);
 		}
+		index.resume();
+	}
+
+	/**
+	 * Moves a dragon into a cell next to it, if free, and deals with the
+	 * sword and the eagle found there.
+	 * 
+	 * @param dragon
+	 *            dragon to move
+	 * @param nextX
+	 *            X position of the cell
+	 * @param nextY
+	 *            Y position of the cell
+	 * @return message <code>String</code> used to display relevant dragon
+	 *         events
+	 */
+	private String enterCell(Dragon dragon, int nextX, int nextY) {
+		int previousX = dragon.getPosX(), previousY = dragon.getPosY();
+		String message = null;
+
+		// Reject invalid Dragon moves, only free cells, the sword and the
+		// eagle landed on it can be entered
+		if (!grid.contains(nextX, nextY)
+				|| !DragonBatch.canEnter(grid.get(nextX, nextY)))
+			return null;
 
 		if (nextX != 0 && nextY != 0) {
 			// Clear left piece symbol
-			getMazePiece(previousX, previousY).setSymbol(
-					PieceType.FREE.asString());
+			grid.set(previousX, previousY, Cell.FREE);
 
 			if (dragon.getGuarding()
 					&& (nextX != previousX || nextY != previousY)) {
-				getMazePiece(previousX, previousY).setSymbol(
-						PieceType.SWORD.asString());
+				grid.set(previousX, previousY, Cell.SWORD);
 				dragon.setGuarding(false);
 			} else if ((getSword().getPosX() == nextX)
 					&& (getSword().getPosY() == nextY) && !hero.getArmed()
@@ -273,22 +510,42 @@ public class Logic extends Maze {
 					eagle.setDead(true);
 					dragon.setGuarding(true);
 					message = "Dragon killed the eagle!\n * Dragon is now guarding the sword";
+					publish(GameEvent.EAGLE_KILLED, nextX, nextY);
+					publish(GameEvent.DRAGON_GUARDING, nextX, nextY);
 				} else if (eagle.getState().equals(State.EAGLE_RETURNING))
 					dragon.setGuarding(false);
 				else {
 					dragon.setGuarding(true);
 					message = "Dragon is now guarding the sword";
+					publish(GameEvent.DRAGON_GUARDING, nextX, nextY);
 				}
 			}
 
 			// Set entry piece symbol
-			getMazePiece(nextX, nextY).setSymbol(dragon.showDragon());
+			grid.set(nextX, nextY, dragon.getCell());
 			// Update dragon position
 			dragon.setPosition(nextX, nextY);
+			publish(GameEvent.DRAGON_MOVED, nextX, nextY);
 		}
 		return message;
 	}
 
+	/**
+	 * Chooses the move of a chasing dragon: one step closer to an unarmed
+	 * hero or one step further from an armed one.
+	 * 
+	 * @param dragon
+	 *            one object of the class Dragon from the <code>ArrayList</code>
+	 *            dragons
+	 * @return <code>Movement</code> direction, or -1 to stay
+	 */
+	private int chaseDirection(Dragon dragon) {
+		DistanceField field = getHeroDistances();
+		if (hero.getArmed())
+			return field.stepAway(dragon.getPosX(), dragon.getPosY());
+		return field.stepCloser(dragon.getPosX(), dragon.getPosY());
+	}
+
 	/**
 	 * Processes a valid eagle move and deals with possible eagle related game
 	 * events.
@@ -296,8 +553,6 @@ public class Logic extends Maze {
 	 * @return message <code>String</code> used to display relevant eagle events
 	 */
 	public String moveEagle() {
-		String previousPiece;
-		String nextPiece;
 		int previousX = eagle.getPosX();
 		int previousY = eagle.getPosY();
 		int nextX = 0, nextY = 0;
@@ -331,15 +586,11 @@ public class Logic extends Maze {
 						nextY = eagle.getPosY() + 1;
 					}
 
-					// Generate custom maze symbols
-					previousPiece = getMazePiece(previousX, previousY)
-							.getSymbol().substring(0, 2) + " ";
-					nextPiece = getMazePiece(nextX, nextY).getSymbol()
-							.substring(0, 2) + eagle.showEagle();
-
-					// Set or restore maze symbols
-					getMazePiece(previousX, previousY).setSymbol(previousPiece);
-					getMazePiece(nextX, nextY).setSymbol(nextPiece);
+					// Lift the eagle from the left cell onto the next one
+					grid.set(previousX, previousY, (byte) (grid.get(previousX,
+							previousY) & ~Cell.EAGLE));
+					grid.set(nextX, nextY,
+							(byte) (grid.get(nextX, nextY) | Cell.EAGLE));
 
 					// Update eagle position
 					eagle.setPosition(nextX, nextY);
@@ -351,18 +602,22 @@ public class Logic extends Maze {
 				// Descend at arrival to the sword position
 				if (deltaX == 0 && deltaY == 0) {
 					// Dragon guarding sword at arrival position, eagle is dead
-					if (getMazePiece(eagle.getPosX(), eagle.getPosY())
-							.getSymbol().contains("F")) {
+					byte guarding = Grid.code(PieceType.DRAGON_GUARDING);
+					byte cell = grid.get(eagle.getPosX(), eagle.getPosY());
+					if ((cell & ~Cell.EAGLE) == guarding) {
 						eagle.setDead(true);
-						getMazePiece(eagle.getPosX(), eagle.getPosY())
-								.setSymbol(PieceType.DRAGON_GUARDING.asString());
+						grid.set(eagle.getPosX(), eagle.getPosY(), guarding);
+						publish(GameEvent.EAGLE_DIED, eagle.getPosX(),
+								eagle.getPosY());
 						return "Eagle died!";
 					}
 					// Free sword
 					else {
-						getMazePiece(eagle.getPosX(), eagle.getPosY())
-								.setSymbol(PieceType.GROUND_EAGLE.asString());
+						grid.set(eagle.getPosX(), eagle.getPosY(),
+								Grid.code(PieceType.GROUND_EAGLE));
 						eagle.setState(State.EAGLE_RETURNING);
+						publish(GameEvent.EAGLE_CAUGHT_SWORD, eagle.getPosX(),
+								eagle.getPosY());
 					}
 				}
 			}
@@ -392,18 +647,12 @@ public class Logic extends Maze {
 						nextY = eagle.getPosY() + 1;
 					}
 
-					// Generate custom maze symbols
-					previousPiece = " "
-							+ getMazePiece(previousX, previousY).getSymbol()
-									.substring(1, 2) + " ";
-					nextPiece = "E"
-							+ getMazePiece(nextX, nextY).getSymbol().substring(
-									1, 2) + eagle.showEagle();
-
-					// Set or restore maze symbols
-					getMazePiece(eagle.getPosX(), eagle.getPosY()).setSymbol(
-							previousPiece);
-					getMazePiece(nextX, nextY).setSymbol(nextPiece);
+					// Carry the sword from the left cell onto the next one
+					byte carried = Cell.SWORD | Cell.EAGLE;
+					grid.set(previousX, previousY,
+							(byte) (grid.get(previousX, previousY) & ~carried));
+					grid.set(nextX, nextY,
+							(byte) (grid.get(nextX, nextY) | carried));
 					// Update eagle and sword positions
 					eagle.setPosition(nextX, nextY);
 					getSword().setPosition(nextX, nextY);
@@ -417,14 +666,18 @@ public class Logic extends Maze {
 					if (eagle.getHeroX() != hero.getPosX()
 							|| eagle.getHeroY() != hero.getPosY()) {
 						eagle.setState(State.EAGLE_GROUND);
+						publish(GameEvent.EAGLE_GROUNDED, eagle.getPosX(),
+								eagle.getPosY());
 
 						return "Hero was not on the same spot - Eagle is in the ground!";
 					} else {
 						hero.setEagle(true);
 						hero.setArmed(true);
 						eagle.setState(State.EAGLE_PURSUING);
-						getMazePiece(hero.getPosX(), hero.getPosY()).setSymbol(
-								hero.showHero());
+						grid.set(hero.getPosX(), hero.getPosY(),
+								hero.getCell());
+						publish(GameEvent.EAGLE_RETURNED, hero.getPosX(),
+								hero.getPosY());
 
 						return "Eagle returned successfuly and hero is now armed";
 					}
@@ -445,34 +698,32 @@ public class Logic extends Maze {
 		State state = null;
 		if ((hero.getPosX() == getExitX()) && (hero.getPosY() == getExitY())
 				&& hero.getArmed() && dragons.size() == 0) {
+			publish(GameEvent.HERO_WON, hero.getPosX(), hero.getPosY());
 			return State.HERO_WON;
 		}
 
+		// When near an awake dragon and unarmed, hero dies and the game ends.
+		// Sleeping dragons are harmless and stay where they are
+		DragonIndex index = getDragonIndex();
+		int heroX = hero.getPosX(), heroY = hero.getPosY();
+		if (!hero.getArmed()) {
+			if (index.near(heroX, heroY, true) == null)
+				return null;
+			publish(GameEvent.HERO_DIED, heroX, heroY);
+			return State.HERO_DEAD;
+		}
+
+		// Hero is armed: set every near dragon as dead and remove it from the
+		// dragons ArrayList
 		Dragon dragon;
-		do {
-			dragon = nearDragon();
-			if (dragon != null) {
-				if (!hero.getArmed()) {
-					if (!dragon.getDead() && !dragon.getAsleep()) {
-						/**
-						 * When near a dragon and unarmed, hero dies and the
-						 * game ends
-						 */
-						return State.HERO_DEAD;
-					}
-				}
-				// Hero is armed
-				else if (!dragon.getDead()) {
-					// Set dragon state as dead and remove the dragon from the
-					// dragons ArrayList
-					dragon.setDead(true);
-					getMazePiece(dragon.getPosX(), dragon.getPosY()).setSymbol(
-							dragon.showDragon());
-					dragons.remove(dragon);
-					state = State.DRAGON_DEAD;
-				}
-			}
-		} while (dragon != null);
+		while ((dragon = index.near(heroX, heroY, false)) != null) {
+			dragon.setDead(true);
+			grid.set(dragon.getPosX(), dragon.getPosY(), dragon.getCell());
+			index.remove(dragon);
+			publish(GameEvent.DRAGON_KILLED, dragon.getPosX(),
+					dragon.getPosY());
+			state = State.DRAGON_DEAD;
+		}
 
 		return state;
 	}
@@ -485,89 +736,60 @@ public class Logic extends Maze {
 	 */
 	public HashMap<Integer, Boolean> validHeroMoves() {
 		HashMap<Integer, Boolean> validMoves = new HashMap<Integer, Boolean>();
-		boolean heroArmado = hero.getArmed();
+		int mask = heroMoveMask();
+		for (Movement move : Movement.values())
+			if (canMove(mask, move))
+				validMoves.put(move.getDirection(), true);
+		return validMoves;
+	}
+
+	/**
+	 * Checks each of the 4 directions near the hero for valid positions.
+	 * 
+	 * @return mask with bit <code>1 &lt;&lt; direction</code> set for every
+	 *         <code>Movement</code> the hero can take
+	 */
+	public int heroMoveMask() {
+		int heroX = hero.getPosX(), heroY = hero.getPosY(), mask = 0;
 
 		// Check if hero can move up
-		if (hero.getPosY() - 1 >= 0) {
-			if (maze.get(hero.getPosY() - 1).get(hero.getPosX()).getSymbol()
-					.equals(PieceType.FREE.asString())
-					|| maze.get(hero.getPosY() - 1).get(hero.getPosX())
-							.getSymbol()
-							.equals(PieceType.GROUND_EAGLE.asString())
-					|| maze.get(hero.getPosY() - 1).get(hero.getPosX())
-							.getSymbol()
-							.equals(PieceType.PURSUING_EAGLE.asString())
-					|| maze.get(hero.getPosY() - 1).get(hero.getPosX())
-							.getSymbol().equals(PieceType.SWORD.asString()))
-				validMoves.put(Movement.MOVE_UP.getDirection(), true);
-			// Confirms if hero is armed at exit
-			else if ((maze.get(hero.getPosY() - 1).get(hero.getPosX())
-					.getSymbol().equals(PieceType.EXIT.asString()))
-					&& heroArmado && dragons.size() == 0)
-				validMoves.put(Movement.MOVE_UP.getDirection(), true);
-		}
+		if (heroY - 1 >= 0 && heroCanEnter(heroX, heroY - 1))
+			mask |= 1 << Movement.MOVE_UP.getDirection();
 
 		// Check if hero can move down
-		if (hero.getPosY() + 1 < maze.size()) {
-			if (maze.get(hero.getPosY() + 1).get(hero.getPosX()).getSymbol()
-					.equals(PieceType.FREE.asString())
-					|| maze.get(hero.getPosY() + 1).get(hero.getPosX())
-							.getSymbol()
-							.equals(PieceType.GROUND_EAGLE.asString())
-					|| maze.get(hero.getPosY() + 1).get(hero.getPosX())
-							.getSymbol()
-							.equals(PieceType.PURSUING_EAGLE.asString())
-					|| maze.get(hero.getPosY() + 1).get(hero.getPosX())
-							.getSymbol().equals(PieceType.SWORD.asString()))
-				validMoves.put(Movement.MOVE_DOWN.getDirection(), true);
-
-			// Confirms if hero is armed at exit
-			else if ((maze.get(hero.getPosY() + 1).get(hero.getPosX())
-					.getSymbol().equals(PieceType.EXIT.asString()))
-					&& heroArmado && dragons.size() == 0)
-				validMoves.put(Movement.MOVE_DOWN.getDirection(), true);
-		}
+		if (heroY + 1 < grid.getHeight() && heroCanEnter(heroX, heroY + 1))
+			mask |= 1 << Movement.MOVE_DOWN.getDirection();
 
 		// Check if hero can move to the right
-		if (hero.getPosX() + 1 < maze.size()) {
-			if (maze.get(hero.getPosY()).get(hero.getPosX() + 1).getSymbol()
-					.equals(PieceType.FREE.asString())
-					|| maze.get(hero.getPosY()).get(hero.getPosX() + 1)
-							.getSymbol()
-							.equals(PieceType.GROUND_EAGLE.asString())
-					|| maze.get(hero.getPosY()).get(hero.getPosX() + 1)
-							.getSymbol()
-							.equals(PieceType.PURSUING_EAGLE.asString())
-					|| maze.get(hero.getPosY()).get(hero.getPosX() + 1)
-							.getSymbol().equals(PieceType.SWORD.asString()))
-				validMoves.put(Movement.MOVE_RIGHT.getDirection(), true);
-			// Confirms if hero is armed at exit
-			else if ((maze.get(hero.getPosY()).get(hero.getPosX() + 1)
-					.getSymbol().equals(PieceType.EXIT.asString()))
-					&& heroArmado && dragons.size() == 0)
-				validMoves.put(Movement.MOVE_RIGHT.getDirection(), true);
-		}
+		if (heroX + 1 < grid.getWidth() && heroCanEnter(heroX + 1, heroY))
+			mask |= 1 << Movement.MOVE_RIGHT.getDirection();
 
 		// Check if hero can move to the left
-		if (hero.getPosX() - 1 >= 0) {
-			if (maze.get(hero.getPosY()).get(hero.getPosX() - 1).getSymbol()
-					.equals(PieceType.FREE.asString())
-					|| maze.get(hero.getPosY()).get(hero.getPosX() - 1)
-							.getSymbol()
-							.equals(PieceType.GROUND_EAGLE.asString())
-					|| maze.get(hero.getPosY()).get(hero.getPosX() - 1)
-							.getSymbol()
-							.equals(PieceType.PURSUING_EAGLE.asString())
-					|| maze.get(hero.getPosY()).get(hero.getPosX() - 1)
-							.getSymbol().equals(PieceType.SWORD.asString()))
-				validMoves.put(Movement.MOVE_LEFT.getDirection(), true);
-			// Confirms if hero is armed at exit
-			else if ((maze.get(hero.getPosY()).get(hero.getPosX() - 1)
-					.getSymbol().equals(PieceType.EXIT.asString()))
-					&& heroArmado && dragons.size() == 0)
-				validMoves.put(Movement.MOVE_LEFT.getDirection(), true);
-		}
-		return validMoves;
+		if (heroX - 1 >= 0 && heroCanEnter(heroX - 1, heroY))
+			mask |= 1 << Movement.MOVE_LEFT.getDirection();
+
+		return mask;
+	}
+
+	/**
+	 * Checks if the hero can step into the given maze position.
+	 * 
+	 * @param x
+	 *            X position
+	 * @param y
+	 *            Y position
+	 * @return true if the position is free, holds the sword or a landed eagle,
+	 *         or is the exit while the hero is armed and every dragon is dead
+	 */
+	private boolean heroCanEnter(int x, int y) {
+		// Free cells and the sword, with or without the eagle over them
+		byte code = grid.get(x, y);
+		if ((code & ~(Cell.SWORD | Cell.EAGLE)) == 0)
+			return true;
+
+		// Confirms if hero is armed at exit
+		return code == Cell.EXIT && hero.getArmed()
+				&& dragons.size() == 0;
 	}
 
 	/**
@@ -576,25 +798,7 @@ public class Logic extends Maze {
 	 * @return Dragon object near the hero or null if inexistent
 	 */
 	public Dragon nearDragon() {
-		// Generic position returning function
-		int heroX = hero.getPosX();
-		int heroY = hero.getPosY();
-
-		for (int i = 0; i < dragons.size(); i++) {
-			Dragon dragon = dragons.get(i);
-			int dragonX = dragon.getPosX();
-			int dragonY = dragon.getPosY();
-
-			if (heroX + 1 == dragonX && heroY == dragonY)
-				return dragon;
-			else if (heroX - 1 == dragonX && heroY == dragonY)
-				return dragon;
-			else if (heroX == dragonX && heroY - 1 == dragonY)
-				return dragon;
-			else if (heroX == dragonX && heroY + 1 == dragonY)
-				return dragon;
-		}
-		return null;
+		return getDragonIndex().near(hero.getPosX(), hero.getPosY(), false);
 	}
 
 	/**
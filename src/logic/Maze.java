@@ -1,8 +1,10 @@
 package logic;
 
-import algorithms.Algorithm;
+import algorithms.BacktrackerGenerator;
+import algorithms.MazeGenerator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Random;
 
 /**
@@ -14,18 +16,44 @@ import java.util.Random;
  */
 public class Maze {
 
-	protected ArrayList<ArrayList<Piece>> maze;
+	private static final int HERO_FIELD = 1, SWORD_FIELD = 2, EXIT_FIELD = 4;
+
+	protected Grid grid;
 	protected ArrayList<Dragon> dragons;
 	protected Hero hero;
 	protected Eagle eagle;
 	protected Piece exit;
 	protected Piece sword;
+	protected GameRandom random;
+	private long seed;
+	private ArrayList<ArrayList<Piece>> mazeView;
+	private DistanceField heroDistances, swordDistances, exitDistances;
+	// Work arrays of the fields of this maze, not lent to forks
+	private DistanceField.Scratch scratch;
+	// Fields lent by the maze this one was forked from, copied before they
+	// are moved
+	private int lentFields;
+	// Cells written to a fork since it was forked or last rewound
+	private DirtyCells written;
+	private DragonIndex dragonIndex;
+	private GameListener[] listeners = new GameListener[0];
 
 	/**
 	 * Default constructor used to create a standard maze.
 	 */
 	public Maze() {
-		maze = new ArrayList<ArrayList<Piece>>();
+		this(new Random().nextLong());
+	}
+
+	/**
+	 * Constructor of the standard maze taking every random choice from a
+	 * seeded source.
+	 * 
+	 * @param seed
+	 *            seed of the random choices
+	 */
+	public Maze(long seed) {
+		setSeed(seed);
 		hero = new Hero(1, 1);
 		eagle = new Eagle(1, 1);
 		dragons = new ArrayList<Dragon>();
@@ -42,38 +70,193 @@ public class Maze {
 	 *            user define dragon counter
 	 */
 	public Maze(int mazeSize, int dragonCounter) {
-		maze = new ArrayList<ArrayList<Piece>>();
+		this(mazeSize, dragonCounter, new BacktrackerGenerator());
+	}
+
+	/**
+	 * Constructor of the random maze with custom maze size, dragon counter
+	 * and generation engine.
+	 * 
+	 * @param mazeSize
+	 *            user defined maze size
+	 * @param dragonCounter
+	 *            user define dragon counter
+	 * @param generator
+	 *            engine used to generate the maze
+	 */
+	public Maze(int mazeSize, int dragonCounter, MazeGenerator generator) {
+		this(mazeSize, dragonCounter, generator, new Random().nextLong());
+	}
+
+	/**
+	 * Constructor of the random maze taking every random choice, from maze
+	 * generation to placement of the game elements, from a seeded source. The
+	 * same seed always builds the same maze.
+	 * 
+	 * @param mazeSize
+	 *            user defined maze size
+	 * @param dragonCounter
+	 *            user define dragon counter
+	 * @param generator
+	 *            engine used to generate the maze
+	 * @param seed
+	 *            seed of the random choices
+	 */
+	public Maze(int mazeSize, int dragonCounter, MazeGenerator generator,
+			long seed) {
+		setSeed(seed);
 		hero = new Hero(0, 0);
 		eagle = new Eagle(0, 0);
 		dragons = new ArrayList<Dragon>();
-		startRandomMaze(mazeSize, dragonCounter);
+		startRandomMaze(mazeSize, dragonCounter, generator);
 	}
 
 	public Maze(ArrayList<ArrayList<Piece>> maze) {
-		this.maze = maze;
+		this(Grid.fromPieces(maze));
+	}
+
+	public Maze(Grid grid) {
+		setSeed(new Random().nextLong());
+		this.grid = grid;
 		hero = new Hero(0, 0);
 		eagle = new Eagle(0, 0);
 		dragons = new ArrayList<Dragon>();
 
-		setMazeData(maze, hero, eagle, dragons);
+		setMazeData(grid, hero, eagle, dragons);
 	}
 
-	public void setMazeData(ArrayList<ArrayList<Piece>> maze, Hero hero,
-			Eagle eagle, ArrayList<Dragon> dragons) {
-		for (int i = 0; i < maze.size(); i++) {
-			for (int j = 0; j < maze.get(i).size(); j++) {
-				if (maze.get(i).get(j).getSymbol()
-						.equals(PieceType.HERO_UNARMED_EAGLE.asString())) {
+	/**
+	 * Constructor resuming the maze of a snapshot.
+	 * 
+	 * @param snapshot
+	 *            state of the game to resume
+	 */
+	protected Maze(Snapshot snapshot) {
+		restoreMaze(snapshot);
+	}
+
+	/**
+	 * Constructor copying a maze, see {@link Logic#fork()}. The grid is
+	 * forked and shares its cells until either maze changes them, the
+	 * characters and random choices are copied. The distance fields are
+	 * lent until the copy moves their target. Listeners aren't copied. The
+	 * cells written to the copy are logged to rewind it, see
+	 * {@link #rewindMaze(Maze, DirtyCells)}.
+	 * 
+	 * @param maze
+	 *            maze to copy
+	 */
+	protected Maze(Maze maze) {
+		grid = maze.grid.fork();
+		written = grid.logWrites();
+		copyCharacters(maze);
+
+		// Walls are the same, so the fields are lent instead of searched
+		heroDistances = maze.heroDistances;
+		swordDistances = maze.swordDistances;
+		exitDistances = maze.exitDistances;
+		lentFields = HERO_FIELD | SWORD_FIELD | EXIT_FIELD;
+	}
+
+	// Copies the characters and random choices of another maze
+	private void copyCharacters(Maze maze) {
+		hero = new Hero(maze.hero.getPosX(), maze.hero.getPosY());
+		hero.setDead(maze.hero.getDead());
+		hero.setArmed(maze.hero.getArmed());
+		hero.setEagle(maze.hero.getEagle());
+
+		eagle = new Eagle(maze.eagle.getPosX(), maze.eagle.getPosY());
+		eagle.setDead(maze.eagle.getDead());
+		eagle.setState(maze.eagle.getState());
+		eagle.setHeroX(maze.eagle.getHeroX());
+		eagle.setHeroY(maze.eagle.getHeroY());
+
+		dragons = new ArrayList<Dragon>(maze.dragons.size());
+		for (Dragon from : maze.dragons) {
+			Dragon dragon = new Dragon(from.getPosX(), from.getPosY());
+			dragon.setDead(from.getDead());
+			dragon.setGuarding(from.getGuarding());
+			dragon.setAsleep(from.getAsleep());
+			dragons.add(dragon);
+		}
+
+		// The exit never moves, the eagle carries the sword around
+		exit = maze.exit;
+		sword = maze.sword == null ? null : new Piece(maze.sword.getPosX(),
+				maze.sword.getPosY(), maze.sword.getSymbol());
+		setSeed(maze.seed);
+		random.setState(maze.random.getState());
+	}
+
+	/**
+	 * Puts the maze, its characters and the random choices back to the state
+	 * of a snapshot.
+	 * 
+	 * @param snapshot
+	 *            state of the game to restore
+	 */
+	protected void restoreMaze(Snapshot snapshot) {
+		grid = snapshot.grid();
+		mazeView = null;
+		lentFields = 0;
+		written = null;
+		hero = snapshot.hero();
+		eagle = snapshot.eagle();
+		dragons = snapshot.dragons();
+		sword = snapshot.sword();
+		exit = snapshot.exit();
+		setSeed(snapshot.seed);
+		random.setState(snapshot.randomState);
+	}
+
+	/**
+	 * Puts a fork back to the state of the maze it was forked from, in
+	 * place, keeping the grid and distance fields. Only the cells written to
+	 * the fork since it was forked or last rewound are copied back, with
+	 * those the maze wrote since, see {@link Logic#rewind(Logic, DirtyCells)}.
+	 * 
+	 * @param maze
+	 *            maze this one was forked from
+	 * @param played
+	 *            cells written to the maze since, or null if none
+	 */
+	protected void rewindMaze(Maze maze, DirtyCells played) {
+		if (written == null)
+			throw new IllegalStateException("Not a fork");
+		copyCells(maze.grid, written);
+		if (played != null)
+			copyCells(maze.grid, played);
+		written.clear();
+		mazeView = null;
+		copyCharacters(maze);
+	}
+
+	private void copyCells(Grid from, DirtyCells cells) {
+		int width = grid.getWidth();
+		for (int i = 0; i < cells.size(); i++) {
+			int c = cells.get(i);
+			byte code = from.get(c);
+			// Fields only hold while the walls are the same
+			if (Grid.isWall(code) != Grid.isWall(grid.get(c))) {
+				heroDistances = swordDistances = exitDistances = null;
+				lentFields = 0;
+			}
+			grid.set(c % width, c / width, code);
+		}
+	}
+
+	public void setMazeData(Grid grid, Hero hero, Eagle eagle,
+			ArrayList<Dragon> dragons) {
+		for (int i = 0; i < grid.getHeight(); i++) {
+			for (int j = 0; j < grid.getWidth(); j++) {
+				if (grid.is(j, i, PieceType.HERO_UNARMED_EAGLE)) {
 					hero.setPosition(j, i);
 					eagle.setPosition(j, i);
-				} else if (maze.get(i).get(j).getSymbol()
-						.equals(PieceType.DRAGON.asString()))
+				} else if (grid.is(j, i, PieceType.DRAGON))
 					dragons.add(new Dragon(j, i));
-				else if (maze.get(i).get(j).getSymbol()
-						.equals(PieceType.SWORD.asString()))
+				else if (grid.is(j, i, PieceType.SWORD))
 					sword = new Piece(j, i, PieceType.SWORD.asString());
-				else if (maze.get(i).get(j).getSymbol()
-						.equals(PieceType.EXIT.asString()))
+				else if (grid.is(j, i, PieceType.EXIT))
 					exit = new Piece(j, i, PieceType.EXIT.asString());
 			}
 		}
@@ -82,73 +265,64 @@ public class Maze {
 	private void startDefaultMaze() {
 		exit = new Piece(9, 5, PieceType.EXIT.asString());
 		sword = new Piece(1, 8, PieceType.SWORD.asString());
+		grid = new Grid(10, 10);
 
-		for (int i = 0; i < 10; i++) {
-			ArrayList<Piece> linha = new ArrayList<Piece>();
-			for (int j = 0; j < 10; j++)
-				linha.add(new Piece(i, j, PieceType.WALL.asString()));
-
-			maze.add(linha);
-		}
+		byte free = Grid.code(PieceType.FREE);
+		Arrays.fill(grid.getCells(), Grid.code(PieceType.WALL));
 
 		for (int i = 2; i < 9; i++)
-			maze.get(1).get(i).setSymbol(PieceType.FREE.asString());
+			grid.set(i, 1, free);
 		for (int i = 2; i < 9; i++)
-			maze.get(i).get(1).setSymbol(PieceType.FREE.asString());
+			grid.set(1, i, free);
 
 		for (int i = 4; i < 9; i += 2) {
 			for (int j = 1; j < 9; j++)
-				maze.get(j).get(i).setSymbol(PieceType.FREE.asString());
+				grid.set(i, j, free);
 		}
 
 		for (int i = 1; i < 9; i++)
 			if (i != 7)
-				maze.get(5).get(i).setSymbol(PieceType.FREE.asString());
+				grid.set(i, 5, free);
 
 		for (int i = 1; i < 9; i++)
 			if (i != 2 && i != 3)
-				maze.get(8).get(i).setSymbol(PieceType.FREE.asString());
+				grid.set(i, 8, free);
 
-		maze.get(hero.getPosY()).get(hero.getPosX()).setSymbol(hero.showHero());
-		maze.get(exit.getPosY()).get(exit.getPosX())
-				.setSymbol(PieceType.EXIT.asString());
-		maze.get(sword.getPosY()).get(sword.getPosX())
-				.setSymbol(PieceType.SWORD.asString());
-		maze.get(dragons.get(0).getPosY()).get(dragons.get(0).getPosX())
-				.setSymbol(dragons.get(0).showDragon());
+		grid.set(hero.getPosX(), hero.getPosY(), hero.getCell());
+		grid.set(exit.getPosX(), exit.getPosY(), Cell.EXIT);
+		grid.set(sword.getPosX(), sword.getPosY(), Cell.SWORD);
+		grid.set(dragons.get(0).getPosX(), dragons.get(0).getPosY(),
+				dragons.get(0).getCell());
 	}
 
-	private void startRandomMaze(int mazeSize, int dragonCounter) {
-		Algorithm algorithm = new Algorithm(mazeSize);
-		maze = algorithm.createMaze();
+	private void startRandomMaze(int mazeSize, int dragonCounter,
+			MazeGenerator generator) {
+		grid = generator.generate(mazeSize, random);
+		int size = grid.getHeight();
 
 		// Find the appropriate positions for game elements
 		int posX, posY;
 
 		// Random number between [1, maze size - 1]
-		posX = 1 + (int) (Math.random() * ((maze.size() - 1 - 1) + 1));
-		posY = 1 + (int) (Math.random() * ((maze.size() - 1 - 1) + 1));
-		while (maze.get(posY).get(posX).getSymbol() == PieceType.WALL
-				.asString()
-				|| maze.get(posY).get(posX).getSymbol() == PieceType.EXIT
-						.asString()) {
-			posX = 1 + (int) (Math.random() * ((maze.size() - 1 - 1) + 1));
-			posY = 1 + (int) (Math.random() * ((maze.size() - 1 - 1) + 1));
+		posX = 1 + random.nextInt(size - 1);
+		posY = 1 + random.nextInt(size - 1);
+		while (grid.is(posX, posY, PieceType.WALL)
+				|| grid.is(posX, posY, PieceType.EXIT)) {
+			posX = 1 + random.nextInt(size - 1);
+			posY = 1 + random.nextInt(size - 1);
 		}
 
 		// Set hero position
 		hero.setPosition(posX, posY);
-		maze.get(hero.getPosY()).get(hero.getPosX()).setSymbol(hero.showHero());
-
-		posX = 1 + (int) (Math.random() * ((maze.size() - 1 - 1) + 1));
-		posY = 1 + (int) (Math.random() * ((maze.size() - 1 - 1) + 1));
-		while (maze.get(posY).get(posX).getSymbol() == PieceType.WALL
-				.asString()
-				|| maze.get(posY).get(posX).getSymbol() == PieceType.EXIT
-						.asString()
-				|| maze.get(posY).get(posX).getSymbol() == hero.showHero()) {
-			posX = 1 + (int) (Math.random() * ((maze.size() - 1 - 1) + 1));
-			posY = 1 + (int) (Math.random() * ((maze.size() - 1 - 1) + 1));
+		grid.set(hero.getPosX(), hero.getPosY(), hero.getCell());
+
+		posX = 1 + random.nextInt(size - 1);
+		posY = 1 + random.nextInt(size - 1);
+		while (grid.is(posX, posY, PieceType.WALL)
+				|| grid.is(posX, posY, PieceType.EXIT)
+				|| (posX == hero.getPosX() && posY == hero.getPosY())) {
+			posX = 1 + random.nextInt(size - 1);
+			posY = 1 + random.nextInt(size - 1);
 		}
 
 		// Set eagle position
@@ -156,19 +330,28 @@ public class Maze {
 
 		// Set sword position
 		sword = new Piece(posX, posY, PieceType.SWORD.asString());
-		maze.get(sword.getPosY()).get(sword.getPosX())
-				.setSymbol(PieceType.SWORD.asString());
+		grid.set(sword.getPosX(), sword.getPosY(), Cell.SWORD);
 
 		// Set dragon(s) position(s)
 		addDragons(dragonCounter);
 
 		// Set exit position
-		for (int i = 0; i < maze.size(); i++)
-			for (int j = 0; j < maze.get(i).size(); j++)
-				if (maze.get(j).get(i).getSymbol() == PieceType.EXIT.asString()) {
-					exit = new Piece(i, j, PieceType.EXIT.asString());
-					break;
-				}
+		exit = findExit(grid);
+	}
+
+	/**
+	 * Searches the maze for the exit.
+	 * 
+	 * @param grid
+	 *            maze grid
+	 * @return exit <code>Piece</code> or null if inexistent
+	 */
+	protected static Piece findExit(Grid grid) {
+		for (int i = 0; i < grid.getHeight(); i++)
+			for (int j = 0; j < grid.getWidth(); j++)
+				if (grid.is(j, i, PieceType.EXIT))
+					return new Piece(j, i, PieceType.EXIT.asString());
+		return null;
 	}
 
 	/**
@@ -225,14 +408,61 @@ public class Maze {
 			}
 		}
 		// Clear current position
-		getMazePiece(hero.getPosX(), hero.getPosY()).setSymbol(
-				PieceType.FREE.asString());
+		grid.set(hero.getPosX(), hero.getPosY(), Cell.FREE);
 		// Set next position
-		getMazePiece(nextX, nextY).setSymbol(hero.showHero());
+		grid.set(nextX, nextY, hero.getCell());
 		hero.setPosition(nextX, nextY);
+
+		publish(GameEvent.HERO_MOVED, nextX, nextY);
+		if (message != null)
+			publish(GameEvent.SWORD_PICKED, nextX, nextY);
 		return message;
 	}
 
+	/**
+	 * Registers a listener for the events of this game.
+	 * 
+	 * @param listener
+	 *            new listener
+	 */
+	public void addListener(GameListener listener) {
+		listeners = Arrays.copyOf(listeners, listeners.length + 1);
+		listeners[listeners.length - 1] = listener;
+	}
+
+	/**
+	 * Stops sending the events of this game to a listener.
+	 * 
+	 * @param listener
+	 *            listener to remove
+	 */
+	public void removeListener(GameListener listener) {
+		for (int i = 0; i < listeners.length; i++)
+			if (listeners[i] == listener) {
+				GameListener[] left = new GameListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, left, 0, i);
+				System.arraycopy(listeners, i + 1, left, i, left.length - i);
+				listeners = left;
+				return;
+			}
+	}
+
+	/**
+	 * Sends an event to every listener. Listeners are kept in an array
+	 * replaced on every change, so publishing creates no objects.
+	 * 
+	 * @param event
+	 *            what happened
+	 * @param x
+	 *            X position of the event
+	 * @param y
+	 *            Y position of the event
+	 */
+	protected void publish(GameEvent event, int x, int y) {
+		for (GameListener listener : listeners)
+			listener.gameEvent(event, x, y);
+	}
+
 	/**
 	 * Searches for available position used to place new game components.
 	 * 
@@ -240,15 +470,13 @@ public class Maze {
 	 */
 	public Piece getAvailablePosition() {
 		int randomX = 0, randomY = 0;
-		Random r = new Random();
 
-		for (int i = 0; i < maze.size() * maze.size(); i++) {
-			randomX = 1 + r.nextInt(maze.size() - 1);
-			randomY = 1 + r.nextInt(maze.size() - 1);
+		for (int i = 0; i < grid.getWidth() * grid.getHeight(); i++) {
+			randomX = 1 + random.nextInt(grid.getWidth() - 1);
+			randomY = 1 + random.nextInt(grid.getHeight() - 1);
 
-			if (maze.get(randomX).get(randomY).getSymbol() == (PieceType.FREE
-					.asString()))
-				return maze.get(randomX).get(randomY);
+			if (grid.is(randomX, randomY, PieceType.FREE))
+				return getMazePiece(randomX, randomY);
 		}
 		return null;
 	}
@@ -263,22 +491,66 @@ public class Maze {
 		for (int i = 0; i < dragonCounter; i++) {
 			Piece newDragonPiece = getAvailablePosition();
 			if (newDragonPiece != null) {
-				dragons.add(new Dragon(newDragonPiece.getPosX(), newDragonPiece
-						.getPosY()));
-				maze.get(dragons.get(i).getPosY())
-						.get(dragons.get(i).getPosX())
-						.setSymbol(dragons.get(i).showDragon());
+				Dragon dragon = new Dragon(newDragonPiece.getPosX(),
+						newDragonPiece.getPosY());
+				dragons.add(dragon);
+				grid.set(dragon.getPosX(), dragon.getPosY(), dragon.getCell());
+				dragonIndex = null;
 			}
 		}
 	}
 
 	/**
 	 * Gets 2 dimensional <code>ArrayList</code> containing all the maze Pieces.
+	 * The Pieces are only built on the first call and read and write through
+	 * to the maze <code>Grid</code>.
 	 * 
 	 * @return maze
 	 */
 	public ArrayList<ArrayList<Piece>> getMaze() {
-		return maze;
+		if (mazeView == null)
+			mazeView = grid.toPieces();
+		return mazeView;
+	}
+
+	/**
+	 * Gets the <code>Grid</code> storing all the maze symbols.
+	 * 
+	 * @return maze grid
+	 */
+	public Grid getGrid() {
+		return grid;
+	}
+
+	/**
+	 * Gets the seed of the random choices of this maze. Building a maze with
+	 * the same seed and settings, and playing the same moves, repeats the
+	 * same game.
+	 * 
+	 * @return random seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Gets the source of every random choice of this maze.
+	 * 
+	 * @return seeded random source
+	 */
+	public Random getRandom() {
+		return random;
+	}
+
+	/**
+	 * Restarts the random choices from the given seed.
+	 * 
+	 * @param seed
+	 *            new random seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+		this.random = new GameRandom(seed);
 	}
 
 	/**
@@ -309,7 +581,21 @@ public class Maze {
 	 * @return maze symbol in x,y position
 	 */
 	public String getMazePieceSymbol(int x, int y) {
-		return maze.get(y).get(x).getSymbol();
+		return grid.getSymbol(x, y);
+	}
+
+	/**
+	 * Sets maze symbol at given coordinates.
+	 * 
+	 * @param x
+	 *            X position
+	 * @param y
+	 *            Y position
+	 * @param symbol
+	 *            new maze symbol
+	 */
+	public void setMazePieceSymbol(int x, int y, String symbol) {
+		grid.setSymbol(x, y, symbol);
 	}
 
 	/**
@@ -322,7 +608,9 @@ public class Maze {
 	 * @return <code>Piece</code> from given coordinates
 	 */
 	public Piece getMazePiece(int x, int y) {
-		return maze.get(y).get(x);
+		if (mazeView != null)
+			return mazeView.get(y).get(x);
+		return new GridPiece(grid, x, y);
 	}
 
 	/**
@@ -334,6 +622,77 @@ public class Maze {
 		return sword;
 	}
 
+	/**
+	 * Gets the walking distances to the hero, filled again only if the hero
+	 * moved since the last call.
+	 * 
+	 * @return distance field of the hero
+	 */
+	public DistanceField getHeroDistances() {
+		heroDistances = distancesTo(heroDistances, HERO_FIELD,
+				hero.getPosX(), hero.getPosY());
+		return heroDistances;
+	}
+
+	/**
+	 * Gets the walking distances to the sword, filled again only if the sword
+	 * moved since the last call.
+	 * 
+	 * @return distance field of the sword
+	 */
+	public DistanceField getSwordDistances() {
+		swordDistances = distancesTo(swordDistances, SWORD_FIELD,
+				sword.getPosX(), sword.getPosY());
+		return swordDistances;
+	}
+
+	/**
+	 * Gets the walking distances to the exit.
+	 * 
+	 * @return distance field of the exit
+	 */
+	public DistanceField getExitDistances() {
+		exitDistances = distancesTo(exitDistances, EXIT_FIELD,
+				exit.getPosX(), exit.getPosY());
+		return exitDistances;
+	}
+
+	// Fields are only built when first needed and follow a new grid, a
+	// lent field is read as it is while its target is the same
+	private DistanceField distancesTo(DistanceField field, int lent, int x,
+			int y) {
+		if (field != null && (lentFields & lent) != 0) {
+			if (field.getTarget() == grid.index(x, y))
+				return field;
+			field = new DistanceField(field, grid, scratch());
+			lentFields &= ~lent;
+		} else if (field == null || field.getGrid() != grid)
+			field = new DistanceField(grid, scratch());
+		field.setTarget(x, y);
+		return field;
+	}
+
+	private DistanceField.Scratch scratch() {
+		if (scratch == null
+				|| scratch.getCellCount() != grid.getCellCount())
+			scratch = new DistanceField.Scratch(grid.getCellCount());
+		return scratch;
+	}
+
+	/**
+	 * Gets the index of the dragons positions, only built again if the grid
+	 * or the dragons <code>ArrayList</code> were replaced since the last
+	 * call.
+	 * 
+	 * @return dragons index
+	 */
+	public DragonIndex getDragonIndex() {
+		if (dragonIndex == null || dragonIndex.getGrid() != grid
+				|| dragonIndex.getDragons() != dragons)
+			dragonIndex = new DragonIndex(grid, dragons);
+		return dragonIndex;
+	}
+
 	/**
 	 * Gets hero object.
 	 * 
@@ -368,7 +727,8 @@ public class Maze {
 	 *            new maze
 	 */
 	public void setMaze(ArrayList<ArrayList<Piece>> maze) {
-		this.maze = maze;
+		this.grid = Grid.fromPieces(maze);
+		this.mazeView = null;
 	}
 
 	/**
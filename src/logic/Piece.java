@@ -2,6 +2,7 @@ package logic;
 
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Image;
 import java.io.Serializable;
 import javax.swing.ImageIcon;
 import javax.swing.JComponent;
@@ -21,6 +22,7 @@ public class Piece extends JComponent implements Serializable {
 	private int heightPixelsPerTile, widthPixelsPerTile;
 	private String symbol;
 	private ImageIcon image;
+	private Image floor;
 
 	public Piece(int posX, int posY, String symbol) {
 		this.posX = posX;
@@ -97,9 +99,24 @@ public class Piece extends JComponent implements Serializable {
 		repaint();
 	}
 
+	/**
+	 * Sets the path drawn under the piece when it's neither a path nor a
+	 * wall, cropped like their images. The image of such a piece is drawn
+	 * over it to the size of the piece, so one already scaled to the tile
+	 * size is only copied.
+	 * 
+	 * @param floor
+	 *            full path image
+	 */
+	public void setFloor(Image floor) {
+		this.floor = floor;
+		repaint();
+	}
+
 	@Override
 	public void paintComponent(Graphics g) {
 		Graphics2D g2 = (Graphics2D) g.create();
+		String symbol = getSymbol();
 		if (symbol.equals(PieceType.FREE.asString())
 				|| symbol.equals(PieceType.WALL.asString()))
 			g2.drawImage(image.getImage(), 0, 0, this.getWidth(),
@@ -108,11 +125,11 @@ public class Piece extends JComponent implements Serializable {
 							+ widthPixelsPerTile, heightPixelsPerTile * posY
 							+ heightPixelsPerTile, null);
 		else {
-			g2.drawImage(new ImageIcon("src//png//path.png").getImage(), 0, 0,
-					this.getWidth(), this.getHeight(), widthPixelsPerTile
-							* posX, heightPixelsPerTile * posY,
-					widthPixelsPerTile * posX + widthPixelsPerTile,
-					heightPixelsPerTile * posY + heightPixelsPerTile, null);
+			if (floor != null)
+				g2.drawImage(floor, 0, 0, this.getWidth(), this.getHeight(),
+						widthPixelsPerTile * posX, heightPixelsPerTile * posY,
+						widthPixelsPerTile * posX + widthPixelsPerTile,
+						heightPixelsPerTile * posY + heightPixelsPerTile, null);
 
 			g2.drawImage(image.getImage(), 0, 0, this.getWidth(),
 					this.getHeight(), this);
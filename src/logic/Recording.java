@@ -0,0 +1,132 @@
+package logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class <code>Recording</code> is a game read back from a {@link Journal}:
+ * the game as it started and the inputs played since. Playing the inputs
+ * again rebuilds the game at any turn, so a recording serves for crash
+ * recovery as well as a repeatable game for regression and performance
+ * tests.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class Recording {
+
+	private final Snapshot start;
+	private final byte[] inputs;
+	private final String[] keys = new String[128];
+
+	/**
+	 * @param start
+	 *            game before the first input
+	 * @param inputs
+	 *            inputs played, one character each
+	 */
+	public Recording(Snapshot start, byte[] inputs) {
+		this.start = start;
+		this.inputs = inputs;
+		for (int i = 0; i < keys.length; i++)
+			keys[i] = String.valueOf((char) i);
+	}
+
+	/**
+	 * Reads a journal file. Inputs of a batch cut short by a crash are kept
+	 * up to where the file ends.
+	 *
+	 * @param file
+	 *            journal file
+	 * @return recorded game
+	 * @throws IOException
+	 *             if the file can't be read or isn't a journal
+	 */
+	public static Recording read(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					channel.size());
+			if (buffer.remaining() < Journal.HEADER_SIZE
+					|| buffer.getInt() != Journal.MAGIC)
+				throw new IOException("Not a journal file");
+			short version = buffer.getShort();
+			if (version != Journal.VERSION)
+				throw new IOException("Unknown journal version " + version);
+			buffer.getShort(); // Flags, none yet
+			int snapshotSize = buffer.getInt();
+			if (snapshotSize < 0 || snapshotSize > buffer.remaining())
+				throw new IOException("Corrupt journal file");
+
+			ByteBuffer snapshot = buffer.slice();
+			snapshot.limit(snapshotSize);
+			Snapshot start = Snapshot.decode(snapshot);
+			buffer.position(buffer.position() + snapshotSize);
+			byte[] inputs = new byte[buffer.remaining()];
+			buffer.get(inputs);
+			for (byte input : inputs)
+				if (input < 0)
+					throw new IOException("Corrupt journal file");
+			return new Recording(start, inputs);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Gets the number of inputs recorded.
+	 *
+	 * @return inputs
+	 */
+	public int size() {
+		return inputs.length;
+	}
+
+	/**
+	 * Gets a recorded input.
+	 *
+	 * @param i
+	 *            input number, from 0
+	 * @return input, a single character such as "w" or "e"
+	 */
+	public String getInput(int i) {
+		return keys[inputs[i]];
+	}
+
+	/**
+	 * Gets the game as it was before the first input.
+	 *
+	 * @return starting state
+	 */
+	public Snapshot getStart() {
+		return start;
+	}
+
+	/**
+	 * Rebuilds the game after every recorded input.
+	 *
+	 * @return game as it was left
+	 */
+	public Logic replay() {
+		return replay(inputs.length);
+	}
+
+	/**
+	 * Rebuilds the game after the given number of inputs.
+	 *
+	 * @param turns
+	 *            inputs to play again, from 0 to {@link #size()}
+	 * @return game as it was after them
+	 */
+	public Logic replay(int turns) {
+		Logic logic = new Logic(start);
+		TurnResult result = new TurnResult();
+		for (int i = 0; i < turns; i++)
+			logic.playTurn(keys[inputs[i]], result);
+		return logic;
+	}
+}
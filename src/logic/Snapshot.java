@@ -0,0 +1,295 @@
+package logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * Class <code>Snapshot</code> holds the complete state of a game at one
+ * turn: the maze cells, the hero, the eagle, every dragon, the sword and
+ * exit, the dragon strategy and the state of the random choices. Restoring
+ * it, see {@link Logic#restore(Snapshot)}, continues the game exactly as it
+ * would have gone on, so a snapshot serves both as a save game and as a
+ * checkpoint to start simulations from without generating the maze again.
+ * <p>
+ * A snapshot is only arrays and numbers, so taking or restoring one costs
+ * little more than copying the cells. It never changes once taken and can
+ * be restored any number of times. {@link #encode()} writes it in a compact
+ * binary form: a header, the characters and every cell in a byte.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class Snapshot {
+
+	/**
+	 * First bytes of an encoded snapshot, "MZSV" in ASCII.
+	 */
+	public static final int MAGIC = 0x4D5A5356;
+
+	/**
+	 * Version of the encoding written.
+	 */
+	public static final short VERSION = 1;
+
+	// Character flags
+	private static final int DEAD = 0x01;
+	private static final int ARMED = 0x02, EAGLE = 0x04;
+	private static final int GUARDING = 0x02, ASLEEP = 0x04;
+
+	// Bytes taken by everything but the cells and dragons
+	private static final int FIXED_SIZE = 80;
+	private static final int DRAGON_SIZE = 9;
+
+	private static final State[] STATES = State.values();
+
+	final int width, height;
+	final byte[] cells;
+	final long seed, randomState;
+	final int dragonStrategy;
+	final int heroX, heroY, heroFlags;
+	final int eagleX, eagleY, eagleFlags, eagleState, eagleHeroX, eagleHeroY;
+	final int swordX, swordY, exitX, exitY;
+	final int[] dragonX, dragonY;
+	final byte[] dragonFlags;
+
+	/**
+	 * Takes a snapshot of a game.
+	 *
+	 * @param logic
+	 *            game to copy
+	 */
+	Snapshot(Logic logic) {
+		Grid grid = logic.getGrid();
+		width = grid.getWidth();
+		height = grid.getHeight();
+		cells = new byte[grid.getCellCount()];
+		grid.copyTo(cells);
+		seed = logic.getSeed();
+		randomState = logic.random.getState();
+		dragonStrategy = logic.getDragonStrategy();
+
+		Hero hero = logic.getHero();
+		heroX = hero.getPosX();
+		heroY = hero.getPosY();
+		heroFlags = (hero.getDead() ? DEAD : 0) | (hero.getArmed() ? ARMED : 0)
+				| (hero.getEagle() ? EAGLE : 0);
+
+		Eagle eagle = logic.getEagle();
+		eagleX = eagle.getPosX();
+		eagleY = eagle.getPosY();
+		eagleFlags = eagle.getDead() ? DEAD : 0;
+		eagleState = eagle.getState() == null ? -1 : eagle.getState()
+				.ordinal();
+		eagleHeroX = eagle.getHeroX();
+		eagleHeroY = eagle.getHeroY();
+
+		// The sword and exit are missing from some custom mazes
+		Piece sword = logic.getSword(), exit = logic.exit;
+		swordX = sword == null ? -1 : sword.getPosX();
+		swordY = sword == null ? -1 : sword.getPosY();
+		exitX = exit == null ? -1 : exit.getPosX();
+		exitY = exit == null ? -1 : exit.getPosY();
+
+		ArrayList<Dragon> dragons = logic.getDragons();
+		dragonX = new int[dragons.size()];
+		dragonY = new int[dragons.size()];
+		dragonFlags = new byte[dragons.size()];
+		for (int i = 0; i < dragons.size(); i++) {
+			Dragon dragon = dragons.get(i);
+			dragonX[i] = dragon.getPosX();
+			dragonY[i] = dragon.getPosY();
+			dragonFlags[i] = (byte) ((dragon.getDead() ? DEAD : 0)
+					| (dragon.getGuarding() ? GUARDING : 0)
+					| (dragon.getAsleep() ? ASLEEP : 0));
+		}
+	}
+
+	private Snapshot(ByteBuffer buffer) throws IOException {
+		if (buffer.remaining() < FIXED_SIZE || buffer.getInt() != MAGIC)
+			throw new IOException("Not a saved game");
+		short version = buffer.getShort();
+		if (version != VERSION)
+			throw new IOException("Unknown saved game version " + version);
+		buffer.getShort(); // Flags, none yet
+		width = buffer.getInt();
+		height = buffer.getInt();
+		seed = buffer.getLong();
+		randomState = buffer.getLong();
+		dragonStrategy = buffer.get();
+		heroX = buffer.getInt();
+		heroY = buffer.getInt();
+		heroFlags = buffer.get();
+		eagleX = buffer.getInt();
+		eagleY = buffer.getInt();
+		eagleFlags = buffer.get();
+		eagleState = buffer.get();
+		eagleHeroX = buffer.getInt();
+		eagleHeroY = buffer.getInt();
+		swordX = buffer.getInt();
+		swordY = buffer.getInt();
+		exitX = buffer.getInt();
+		exitY = buffer.getInt();
+		int dragons = buffer.getInt();
+		long size = (long) width * height + (long) dragons * DRAGON_SIZE;
+		if (width < 0 || height < 0 || dragons < 0
+				|| eagleState >= STATES.length || size > buffer.remaining())
+			throw new IOException("Corrupt saved game");
+
+		dragonX = new int[dragons];
+		dragonY = new int[dragons];
+		dragonFlags = new byte[dragons];
+		for (int i = 0; i < dragons; i++) {
+			dragonX[i] = buffer.getInt();
+			dragonY[i] = buffer.getInt();
+			dragonFlags[i] = buffer.get();
+		}
+		cells = new byte[width * height];
+		buffer.get(cells);
+	}
+
+	/**
+	 * Gets the number of bytes written by {@link #encode(ByteBuffer)}.
+	 *
+	 * @return encoded size
+	 */
+	public int encodedSize() {
+		return FIXED_SIZE + dragonX.length * DRAGON_SIZE + cells.length;
+	}
+
+	/**
+	 * Encodes the snapshot into a new buffer.
+	 *
+	 * @return buffer ready to be written
+	 */
+	public ByteBuffer encode() {
+		ByteBuffer buffer = ByteBuffer.allocate(encodedSize());
+		encode(buffer);
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Encodes the snapshot at the buffer position.
+	 *
+	 * @param buffer
+	 *            buffer with {@link #encodedSize()} bytes remaining
+	 */
+	public void encode(ByteBuffer buffer) {
+		buffer.putInt(MAGIC);
+		buffer.putShort(VERSION);
+		buffer.putShort((short) 0);
+		buffer.putInt(width);
+		buffer.putInt(height);
+		buffer.putLong(seed);
+		buffer.putLong(randomState);
+		buffer.put((byte) dragonStrategy);
+		buffer.putInt(heroX);
+		buffer.putInt(heroY);
+		buffer.put((byte) heroFlags);
+		buffer.putInt(eagleX);
+		buffer.putInt(eagleY);
+		buffer.put((byte) eagleFlags);
+		buffer.put((byte) eagleState);
+		buffer.putInt(eagleHeroX);
+		buffer.putInt(eagleHeroY);
+		buffer.putInt(swordX);
+		buffer.putInt(swordY);
+		buffer.putInt(exitX);
+		buffer.putInt(exitY);
+		buffer.putInt(dragonX.length);
+		for (int i = 0; i < dragonX.length; i++) {
+			buffer.putInt(dragonX[i]);
+			buffer.putInt(dragonY[i]);
+			buffer.put(dragonFlags[i]);
+		}
+		buffer.put(cells);
+	}
+
+	/**
+	 * Decodes a snapshot written by {@link #encode(ByteBuffer)}, from the
+	 * buffer position.
+	 *
+	 * @param buffer
+	 *            encoded snapshot
+	 * @return snapshot
+	 * @throws IOException
+	 *             if the buffer doesn't hold a snapshot of a known version
+	 */
+	public static Snapshot decode(ByteBuffer buffer) throws IOException {
+		try {
+			return new Snapshot(buffer);
+		} catch (RuntimeException e) {
+			throw new IOException("Corrupt saved game", e);
+		}
+	}
+
+	/**
+	 * Builds the grid of the snapshot.
+	 *
+	 * @return new grid with a copy of the cells
+	 */
+	Grid grid() {
+		Grid grid = new Grid(width, height);
+		System.arraycopy(cells, 0, grid.getCells(), 0, cells.length);
+		return grid;
+	}
+
+	Hero hero() {
+		Hero hero = new Hero(heroX, heroY);
+		hero.setDead((heroFlags & DEAD) != 0);
+		hero.setArmed((heroFlags & ARMED) != 0);
+		hero.setEagle((heroFlags & EAGLE) != 0);
+		return hero;
+	}
+
+	Eagle eagle() {
+		Eagle eagle = new Eagle(eagleX, eagleY);
+		eagle.setDead((eagleFlags & DEAD) != 0);
+		eagle.setState(eagleState < 0 ? null : STATES[eagleState]);
+		eagle.setHeroX(eagleHeroX);
+		eagle.setHeroY(eagleHeroY);
+		return eagle;
+	}
+
+	ArrayList<Dragon> dragons() {
+		ArrayList<Dragon> dragons = new ArrayList<Dragon>(dragonX.length);
+		for (int i = 0; i < dragonX.length; i++) {
+			Dragon dragon = new Dragon(dragonX[i], dragonY[i]);
+			dragon.setDead((dragonFlags[i] & DEAD) != 0);
+			dragon.setGuarding((dragonFlags[i] & GUARDING) != 0);
+			dragon.setAsleep((dragonFlags[i] & ASLEEP) != 0);
+			dragons.add(dragon);
+		}
+		return dragons;
+	}
+
+	Piece sword() {
+		return swordX < 0 ? null : new Piece(swordX, swordY,
+				PieceType.SWORD.asString());
+	}
+
+	Piece exit() {
+		return exitX < 0 ? null : new Piece(exitX, exitY,
+				PieceType.EXIT.asString());
+	}
+
+	/**
+	 * Gets the maze width.
+	 *
+	 * @return grid width
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Gets the maze height.
+	 *
+	 * @return grid height
+	 */
+	public int getHeight() {
+		return height;
+	}
+}
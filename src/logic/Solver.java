@@ -0,0 +1,417 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * Class <code>Solver</code> finds shortest paths over the cells of a
+ * <code>Grid</code> with a breadth-first-search, an A* search guided by the
+ * Manhattan distance or a bidirectional breadth-first-search. Paths are
+ * returned as arrays of cell indexes, see {@link Grid#index(int, int)}, from
+ * the start to the goal.
+ * <p>
+ * Work buffers are kept between calls and only grow, and cells are marked
+ * visited with a search number instead of clearing them, so a search only
+ * costs the cells it explores. A solver isn't thread safe, each thread
+ * needs its own.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class Solver {
+
+	/**
+	 * Available search algorithms.
+	 */
+	public enum Search {
+		BFS, A_STAR, BIDIRECTIONAL
+	}
+
+	private final boolean[] walkable;
+
+	// Search number of the last search that reached each cell, and the move
+	// that reached it (0 up, 1 down, 2 right, 3 left)
+	private int[] visited = new int[0];
+	private byte[] moves = new byte[0];
+	private int search;
+
+	// Queues of the forward and backward searches, A* heap and costs
+	private int[] queue = new int[16];
+	private int[] backQueue = new int[16];
+	private long[] heap = new long[16];
+	private int[] cost = new int[0];
+
+	/**
+	 * Creates a solver that walks every piece except walls.
+	 */
+	public Solver() {
+		walkable = new boolean[Grid.codeCount()];
+		for (int code = 0; code < walkable.length; code++)
+			walkable[code] = !Grid.isWall((byte) code);
+	}
+
+	/**
+	 * Creates a solver that only walks the given symbol codes.
+	 *
+	 * @param walkable
+	 *            walkable flags indexed by symbol code, see
+	 *            {@link Grid#codeCount()}
+	 */
+	public Solver(boolean[] walkable) {
+		this.walkable = walkable.clone();
+	}
+
+	/**
+	 * Finds a shortest path between two cells.
+	 *
+	 * @param grid
+	 *            maze cells
+	 * @param from
+	 *            start cell index
+	 * @param to
+	 *            goal cell index
+	 * @param type
+	 *            search algorithm
+	 * @return cell indexes from start to goal, or null if there's no path
+	 */
+	public int[] findPath(Grid grid, int from, int to, Search type) {
+		switch (type) {
+		case A_STAR:
+			return aStar(grid, from, to);
+		case BIDIRECTIONAL:
+			return bidirectional(grid, from, to);
+		default:
+			return bfs(grid, from, to);
+		}
+	}
+
+	/**
+	 * Finds a shortest path through several cells in order, for example from
+	 * the hero to the sword and then to the exit.
+	 *
+	 * @param grid
+	 *            maze cells
+	 * @param type
+	 *            search algorithm
+	 * @param stops
+	 *            cell indexes to go through
+	 * @return cell indexes from the first stop to the last one, or null if
+	 *         any of them can't be reached
+	 */
+	public int[] findRoute(Grid grid, Search type, int... stops) {
+		int[][] legs = new int[Math.max(0, stops.length - 1)][];
+		int length = 1;
+		for (int i = 0; i < legs.length; i++) {
+			legs[i] = findPath(grid, stops[i], stops[i + 1], type);
+			if (legs[i] == null)
+				return null;
+			length += legs[i].length - 1;
+		}
+
+		// Legs share their end cells
+		int[] route = new int[length];
+		route[0] = stops[0];
+		int end = 1;
+		for (int[] leg : legs) {
+			System.arraycopy(leg, 1, route, end, leg.length - 1);
+			end += leg.length - 1;
+		}
+		return route;
+	}
+
+	/**
+	 * Finds the shortest route of the hero: to the sword while unarmed and
+	 * then to the exit. Characters don't block the way.
+	 *
+	 * @param maze
+	 *            maze to solve
+	 * @param type
+	 *            search algorithm
+	 * @return cell indexes from the hero to the exit, or null if there's no
+	 *         route
+	 */
+	public int[] solve(Maze maze, Search type) {
+		Grid grid = maze.getGrid();
+		int hero = grid.index(maze.getHero().getPosX(), maze.getHero()
+				.getPosY());
+		int exit = grid.index(maze.getExitX(), maze.getExitY());
+		if (maze.getHero().getArmed())
+			return findRoute(grid, type, hero, exit);
+		int sword = grid.index(maze.getSword().getPosX(), maze.getSword()
+				.getPosY());
+		return findRoute(grid, type, hero, sword, exit);
+	}
+
+	/**
+	 * Finds a shortest path with a breadth-first-search.
+	 *
+	 * @param grid
+	 *            maze cells
+	 * @param from
+	 *            start cell index
+	 * @param to
+	 *            goal cell index
+	 * @return cell indexes from start to goal, or null if there's no path
+	 */
+	public int[] bfs(Grid grid, int from, int to) {
+		int mark = start(grid, 1);
+		int width = grid.getWidth(), count = grid.getCellCount();
+
+		visited[from] = mark;
+		int head = 0, tail = 0;
+		queue[tail++] = from;
+		while (head < tail) {
+			int c = queue[head++];
+			if (c == to)
+				return path(from, c, width);
+
+			// Borders are checked once per cell instead of once per move
+			int x = c % width;
+			if (c >= width)
+				tail = visit(grid, c - width, 0, mark, tail);
+			if (c + width < count)
+				tail = visit(grid, c + width, 1, mark, tail);
+			if (x + 1 < width)
+				tail = visit(grid, c + 1, 2, mark, tail);
+			if (x > 0)
+				tail = visit(grid, c - 1, 3, mark, tail);
+		}
+		return null;
+	}
+
+	// Queues a cell not yet reached by the search
+	private int visit(Grid grid, int n, int move, int mark, int tail) {
+		if (visited[n] != mark && walkable[grid.get(n) & 0xFF]) {
+			visited[n] = mark;
+			moves[n] = (byte) move;
+			queue[tail++] = n;
+		}
+		return tail;
+	}
+
+	/**
+	 * Finds a shortest path with an A* search, using the Manhattan distance
+	 * to the goal as heuristic.
+	 *
+	 * @param grid
+	 *            maze cells
+	 * @param from
+	 *            start cell index
+	 * @param to
+	 *            goal cell index
+	 * @return cell indexes from start to goal, or null if there's no path
+	 */
+	public int[] aStar(Grid grid, int from, int to) {
+		int mark = start(grid, 1);
+		int width = grid.getWidth(), count = grid.getCellCount();
+		if (cost.length < count)
+			cost = new int[count];
+
+		// Heap entries hold the estimated length in the high bits and the
+		// cell in the low ones, stale entries are skipped when popped
+		visited[from] = mark;
+		cost[from] = 0;
+		int size = 0;
+		size = push(size, heuristic(from, to, width), from);
+		while (size > 0) {
+			long entry = heap[0];
+			size = pop(size);
+			int c = (int) entry;
+			if (c == to)
+				return path(from, c, width);
+			if ((int) (entry >>> 32) > cost[c] + heuristic(c, to, width))
+				continue;
+
+			for (int move = 0; move < 4; move++) {
+				int n = next(c, move, width, count);
+				if (n >= 0 && walkable[grid.get(n) & 0xFF]
+						&& (visited[n] != mark || cost[c] + 1 < cost[n])) {
+					visited[n] = mark;
+					moves[n] = (byte) move;
+					cost[n] = cost[c] + 1;
+					size = push(size, cost[n] + heuristic(n, to, width), n);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Finds a shortest path with two breadth-first-searches, one from each
+	 * end, expanding the smaller frontier one level at a time until they
+	 * meet.
+	 *
+	 * @param grid
+	 *            maze cells
+	 * @param from
+	 *            start cell index
+	 * @param to
+	 *            goal cell index
+	 * @return cell indexes from start to goal, or null if there's no path
+	 */
+	public int[] bidirectional(Grid grid, int from, int to) {
+		int forward = start(grid, 2), backward = forward + 1;
+		int width = grid.getWidth(), count = grid.getCellCount();
+		if (from == to)
+			return new int[] { from };
+
+		visited[from] = forward;
+		visited[to] = backward;
+		queue[0] = from;
+		backQueue[0] = to;
+		int head = 0, tail = 1, backHead = 0, backTail = 1;
+
+		while (head < tail && backHead < backTail) {
+			boolean front = tail - head <= backTail - backHead;
+			int[] q = front ? queue : backQueue;
+			int mark = front ? forward : backward;
+			int other = front ? backward : forward;
+			int h = front ? head : backHead, t = front ? tail : backTail;
+
+			// Expand one whole level
+			for (int end = t; h < end; h++) {
+				int c = q[h];
+				for (int move = 0; move < 4; move++) {
+					int n = next(c, move, width, count);
+					if (n < 0 || !walkable[grid.get(n) & 0xFF])
+						continue;
+					if (visited[n] == other)
+						return front ? join(from, to, c, n, width) : join(
+								from, to, n, c, width);
+					if (visited[n] != mark) {
+						visited[n] = mark;
+						moves[n] = (byte) move;
+						q[t++] = n;
+					}
+				}
+			}
+
+			if (front) {
+				head = h;
+				tail = t;
+			} else {
+				backHead = h;
+				backTail = t;
+			}
+		}
+		return null;
+	}
+
+	/*
+	 * Prepares the buffers for a new search over the grid and returns the
+	 * first of the given number of marks reserved for it
+	 */
+	private int start(Grid grid, int marks) {
+		int cells = grid.getCellCount();
+		if (visited.length < cells) {
+			visited = new int[cells];
+			moves = new byte[cells];
+			queue = new int[cells];
+			backQueue = new int[cells];
+			search = 0;
+		}
+		if (search > Integer.MAX_VALUE - marks) {
+			Arrays.fill(visited, 0);
+			search = 0;
+		}
+		int mark = search + 1;
+		search += marks;
+		return mark;
+	}
+
+	// Neighbor cell reached by a move, or -1 if outside the grid
+	private static int next(int c, int move, int width, int cells) {
+		switch (move) {
+		case 0:
+			return c >= width ? c - width : -1;
+		case 1:
+			return c + width < cells ? c + width : -1;
+		case 2:
+			return (c + 1) % width != 0 ? c + 1 : -1;
+		default:
+			return c % width != 0 ? c - 1 : -1;
+		}
+	}
+
+	// Cell a move was made from
+	private static int previous(int c, int move, int width) {
+		switch (move) {
+		case 0:
+			return c + width;
+		case 1:
+			return c - width;
+		case 2:
+			return c - 1;
+		default:
+			return c + 1;
+		}
+	}
+
+	private static int heuristic(int c, int to, int width) {
+		return Math.abs(c % width - to % width)
+				+ Math.abs(c / width - to / width);
+	}
+
+	// Walks the moves back from the goal to build the path
+	private int[] path(int from, int to, int width) {
+		int length = 1;
+		for (int c = to; c != from; c = previous(c, moves[c], width))
+			length++;
+
+		int[] path = new int[length];
+		for (int c = to, i = length - 1; i >= 0; i--) {
+			path[i] = c;
+			if (i > 0)
+				c = previous(c, moves[c], width);
+		}
+		return path;
+	}
+
+	/*
+	 * Joins the forward path ending in cell a with the backward path starting
+	 * in its neighbor b
+	 */
+	private int[] join(int from, int to, int a, int b, int width) {
+		int[] head = path(from, a, width);
+		int length = head.length;
+		for (int c = b; c != to; c = previous(c, moves[c], width))
+			length++;
+
+		int[] path = Arrays.copyOf(head, length + 1);
+		int i = head.length;
+		for (int c = b; c != to; c = previous(c, moves[c], width))
+			path[i++] = c;
+		path[i] = to;
+		return path;
+	}
+
+	// Binary heap over the longs of the heap buffer
+	private int push(int size, int priority, int c) {
+		if (size == heap.length)
+			heap = Arrays.copyOf(heap, size * 2);
+		long entry = ((long) priority << 32) | c;
+		int i = size;
+		while (i > 0 && heap[(i - 1) / 2] > entry) {
+			heap[i] = heap[(i - 1) / 2];
+			i = (i - 1) / 2;
+		}
+		heap[i] = entry;
+		return size + 1;
+	}
+
+	private int pop(int size) {
+		long last = heap[--size];
+		int i = 0;
+		while (2 * i + 1 < size) {
+			int child = 2 * i + 1;
+			if (child + 1 < size && heap[child + 1] < heap[child])
+				child++;
+			if (heap[child] >= last)
+				break;
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = last;
+		return size;
+	}
+}
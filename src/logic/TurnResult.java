@@ -0,0 +1,117 @@
+package logic;
+
+/**
+ * Class <code>TurnResult</code> holds the outcome of one turn played by
+ * {@link Logic#playTurn(String, TurnResult)}. A single result can be passed
+ * to every turn of a game, so playing a turn doesn't create any objects.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class TurnResult {
+
+	private boolean aborted;
+	private State state;
+	private String heroMessage;
+	private String dragonMessage;
+	private String eagleMessage;
+
+	/**
+	 * Clears the result of the previous turn.
+	 */
+	public void clear() {
+		aborted = false;
+		state = null;
+		heroMessage = null;
+		dragonMessage = null;
+		eagleMessage = null;
+	}
+
+	/**
+	 * Checks if the player aborted the game.
+	 *
+	 * @return true if aborted, false otherwise
+	 */
+	public boolean isAborted() {
+		return aborted;
+	}
+
+	/**
+	 * Gets the state of the game after the turn.
+	 *
+	 * @return <code>State.HERO_WON</code>, <code>State.HERO_DEAD</code>,
+	 *         <code>State.DRAGON_DEAD</code> or null if nothing happened
+	 */
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * Checks if the game ended in this turn.
+	 *
+	 * @return true if aborted, won or lost
+	 */
+	public boolean isOver() {
+		return aborted || state == State.HERO_WON || state == State.HERO_DEAD;
+	}
+
+	/**
+	 * Gets the message of the hero move.
+	 *
+	 * @return hero message, null if none
+	 */
+	public String getHeroMessage() {
+		return heroMessage;
+	}
+
+	/**
+	 * Gets the first message of the dragon moves.
+	 *
+	 * @return dragon message, null if none
+	 */
+	public String getDragonMessage() {
+		return dragonMessage;
+	}
+
+	/**
+	 * Gets the message of the eagle move.
+	 *
+	 * @return eagle message, null if none
+	 */
+	public String getEagleMessage() {
+		return eagleMessage;
+	}
+
+	/**
+	 * Builds the message array returned by {@link Logic#playGame(String)}.
+	 *
+	 * @return general, hero, dragon and eagle messages
+	 */
+	public String[] toMessages() {
+		String general = aborted ? "Abort" : state != null ? state.toString()
+				: null;
+		return new String[] { general, heroMessage, dragonMessage,
+				eagleMessage };
+	}
+
+	void setAborted(boolean aborted) {
+		this.aborted = aborted;
+	}
+
+	void setState(State state) {
+		this.state = state;
+	}
+
+	void setHeroMessage(String heroMessage) {
+		this.heroMessage = heroMessage;
+	}
+
+	void setDragonMessage(String dragonMessage) {
+		this.dragonMessage = dragonMessage;
+	}
+
+	void setEagleMessage(String eagleMessage) {
+		this.eagleMessage = eagleMessage;
+	}
+}
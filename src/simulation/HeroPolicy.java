@@ -0,0 +1,27 @@
+package simulation;
+
+import logic.Logic;
+
+/**
+ * Chooses the hero moves of a simulated game. The same policy is shared by
+ * every thread of a <code>Simulator</code>, so implementations must not keep
+ * state between calls.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public interface HeroPolicy {
+
+	/**
+	 * Chooses the next hero move.
+	 * 
+	 * @param game
+	 *            game being played
+	 * @param turn
+	 *            number of turns already played, starting at 0
+	 * @return one of the moves accepted by {@link Logic#playGame(String)}:
+	 *         "w", "a", "s", "d" or "e"
+	 */
+	String nextMove(Logic game, int turn);
+}
@@ -0,0 +1,20 @@
+package simulation;
+
+import logic.Logic;
+
+/**
+ * Walks the hero in random directions. The choices come from the game's own
+ * random source, so a seeded game is always played the same way.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class RandomPolicy implements HeroPolicy {
+
+	private static final String[] MOVES = { "w", "s", "d", "a" };
+
+	public String nextMove(Logic game, int turn) {
+		return MOVES[game.getRandom().nextInt(MOVES.length)];
+	}
+}
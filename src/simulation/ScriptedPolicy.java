@@ -0,0 +1,31 @@
+package simulation;
+
+import logic.Logic;
+
+/**
+ * Plays a fixed sequence of moves, starting over when it reaches the end.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class ScriptedPolicy implements HeroPolicy {
+
+	private final String[] moves;
+
+	/**
+	 * @param script
+	 *            moves to play, one character each, e.g. "wwddse"
+	 */
+	public ScriptedPolicy(String script) {
+		if (script.isEmpty())
+			throw new IllegalArgumentException("Empty move script");
+		moves = new String[script.length()];
+		for (int i = 0; i < moves.length; i++)
+			moves[i] = script.substring(i, i + 1);
+	}
+
+	public String nextMove(Logic game, int turn) {
+		return moves[turn % moves.length];
+	}
+}
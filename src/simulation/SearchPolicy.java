@@ -0,0 +1,463 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import logic.Cell;
+import logic.DirtyCells;
+import logic.DistanceField;
+import logic.Dragon;
+import logic.Eagle;
+import logic.Grid;
+import logic.Hero;
+import logic.Logic;
+import logic.Movement;
+import logic.State;
+import logic.TurnResult;
+
+/**
+ * Hero that looks ahead before every move with a Monte Carlo search. Each
+ * move the hero can take, releasing the eagle included, is played on a fork
+ * of the game and followed by a short game of quick moves, a rollout. The
+ * dragons take new random choices in every rollout, so a move is judged on
+ * how the game usually goes on rather than on one guess. Moves whose
+ * rollouts end well are tried more often, by the UCB1 rule, and the move
+ * with the best average score is played.
+ * <p>
+ * Rollouts run on several threads for a time budget per move. Each thread
+ * searches its own fork of the game and keeps its own counts, merged once
+ * the budget is spent, so the threads share nothing while searching. The
+ * fork is rewound to the game before every rollout, writing back only the
+ * cells the last rollout changed, and keeps its distance fields, so a
+ * rollout costs its moves and not a copy of the board. A limit on the
+ * number of rollouts instead makes the choice repeatable when searching on
+ * a single thread.
+ * <p>
+ * The forks are kept for the next move, with a log of the cells the game
+ * writes in between and the field of the dragon hunted, so a move costs
+ * the turns played since rather than the board. They're kept apart for
+ * every calling thread, each following the last game it searched, so a
+ * <code>Simulator</code> may share the policy, but it keeps a pool of
+ * threads released by {@link #shutdown()}.
+ *
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class SearchPolicy implements HeroPolicy {
+
+	// Movement directions, then the eagle release
+	private static final String[] MOVES = { "w", "s", "d", "a", "e" };
+	private static final int EAGLE = 4;
+	private static final double EXPLORATION = Math.sqrt(2);
+
+	private final int threads, rollouts, depth;
+	private final long millisPerMove;
+	private final ExecutorService pool;
+	private final AtomicLong played = new AtomicLong();
+	private final ThreadLocal<Followed> games = new ThreadLocal<Followed>();
+
+	/**
+	 * Creates a search stopped by a time budget or a number of rollouts,
+	 * whichever comes first.
+	 *
+	 * @param threads
+	 *            threads searching each move, the calling one included
+	 * @param millisPerMove
+	 *            time budget of every move, 0 for no limit
+	 * @param rollouts
+	 *            rollouts of every move, 0 for no limit
+	 * @param depth
+	 *            turns played by a rollout after the move tried
+	 */
+	public SearchPolicy(int threads, long millisPerMove, int rollouts,
+			int depth) {
+		if (threads < 1)
+			throw new IllegalArgumentException("Invalid thread count: "
+					+ threads);
+		if (millisPerMove <= 0 && rollouts <= 0)
+			throw new IllegalArgumentException("No search budget");
+		this.threads = threads;
+		this.millisPerMove = millisPerMove;
+		this.rollouts = rollouts;
+		this.depth = depth;
+		this.pool = threads == 1 ? null : Executors.newFixedThreadPool(
+				threads - 1, new ThreadFactory() {
+					public Thread newThread(Runnable task) {
+						Thread thread = new Thread(task, "Search");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+	}
+
+	/**
+	 * Creates a search with a time budget, using one thread per available
+	 * processor.
+	 *
+	 * @param millisPerMove
+	 *            time budget of every move
+	 */
+	public SearchPolicy(long millisPerMove) {
+		this(Runtime.getRuntime().availableProcessors(), millisPerMove, 0, 50);
+	}
+
+	public String nextMove(Logic game, int turn) {
+		int[] candidates = candidates(game);
+		if (candidates.length == 0)
+			return MOVES[0]; // Blocked, the hero waits for the dragons
+		if (candidates.length == 1)
+			return MOVES[candidates[0]];
+
+		// Only walls block the distance fields and they never change, so the
+		// fields of the game serve every fork, which also borrows the field
+		// of the hero the dragons chase
+		Followed forks = followed(game);
+		for (Logic fork : forks.forks)
+			fork.rewind(game, forks.played);
+		forks.played.clear();
+		DistanceField sword = game.getSword() == null ? null : game
+				.getSwordDistances();
+		DistanceField prey = forks.nearestDragon(game);
+		DistanceField exit = game.getExitDistances();
+		long deadline = millisPerMove > 0 ? System.nanoTime() + millisPerMove
+				* 1000000 : Long.MAX_VALUE;
+
+		Search[] searches = new Search[threads];
+		for (int i = 0; i < threads; i++) {
+			int limit = rollouts <= 0 ? 0 : rollouts / threads
+					+ (i < rollouts % threads ? 1 : 0);
+			long seed = game.getSeed() + turn * 0x9E3779B97F4A7C15L + i;
+			searches[i] = new Search(forks.forks[i], game, candidates, sword,
+					prey, exit, deadline, limit, seed);
+		}
+
+		// Searches left once the pool is shut down run on this thread
+		List<Future<?>> results = new ArrayList<Future<?>>(threads - 1);
+		for (int i = 1; i < threads; i++)
+			if (!pool.isShutdown())
+				results.add(pool.submit(searches[i]));
+		searches[0].run();
+		for (int i = results.size() + 1; i < threads; i++)
+			searches[i].run();
+		await(results, searches);
+
+		// Merge the counts of every thread
+		int[] visits = new int[candidates.length];
+		double[] scores = new double[candidates.length];
+		for (Search search : searches) {
+			for (int c = 0; c < candidates.length; c++) {
+				visits[c] += search.visits[c];
+				scores[c] += search.scores[c];
+			}
+			played.addAndGet(search.played);
+		}
+
+		// Best average score, compared without dividing
+		int best = 0;
+		for (int c = 1; c < candidates.length; c++)
+			if (visits[c] > 0
+					&& (visits[best] == 0 || scores[c] * visits[best]
+							> scores[best] * visits[c]))
+				best = c;
+		return MOVES[candidates[best]];
+	}
+
+	/**
+	 * Forks the game for the searches of the calling thread, unless it's the
+	 * game it searched last. Forking changes how the grid of the game keeps
+	 * its cells, so a game drawn by another thread is followed while holding
+	 * the drawing lock, and {@link #nextMove(Logic, int)} then only reads it.
+	 *
+	 * @param game
+	 *            game to search
+	 */
+	public void follow(Logic game) {
+		followed(game);
+	}
+
+	private Followed followed(Logic game) {
+		Followed last = games.get();
+		if (last != null && last.game == game
+				&& last.grid == game.getGrid())
+			return last;
+		if (last != null)
+			last.grid.stopLogging(last.played);
+		Followed next = new Followed(game, threads);
+		games.set(next);
+		return next;
+	}
+
+	/**
+	 * Gets the number of rollouts played by every call so far, to measure
+	 * the search throughput.
+	 *
+	 * @return rollouts
+	 */
+	public long getRollouts() {
+		return played.get();
+	}
+
+	/**
+	 * Stops the threads of the search. Moves are then searched on the
+	 * calling thread only.
+	 */
+	public void shutdown() {
+		if (pool != null)
+			pool.shutdownNow();
+	}
+
+	// Moves the hero can take: free directions and releasing the eagle
+	private static int[] candidates(Logic game) {
+		Hero hero = game.getHero();
+		if (hero.getDead())
+			return new int[0];
+		Eagle eagle = game.getEagle();
+		int mask = game.heroMoveMask();
+		if (!eagle.getDead() && !hero.getArmed()
+				&& eagle.getState() == State.EAGLE_FOLLOWING)
+			mask |= 1 << EAGLE;
+
+		int[] candidates = new int[Integer.bitCount(mask)];
+		for (int move = 0, c = 0; move < MOVES.length; move++)
+			if ((mask & (1 << move)) != 0)
+				candidates[c++] = move;
+		return candidates;
+	}
+
+	// Waits for the other threads, which stop early if interrupted
+	private static void await(List<Future<?>> results, Search[] searches) {
+		boolean interrupted = false;
+		for (int i = 0; i < results.size(); i++)
+			try {
+				results.get(i).get();
+			} catch (InterruptedException e) {
+				interrupted = true;
+				for (Search search : searches)
+					search.stopped = true;
+				i--;
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException)
+					throw (RuntimeException) e.getCause();
+				throw new IllegalStateException(e.getCause());
+			}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	// Forks of the game a thread searched last, the cells the game wrote
+	// since they were rewound and the field of the dragon hunted
+	private static class Followed {
+
+		final Logic game;
+		final Grid grid;
+		final Logic[] forks;
+		final DirtyCells played;
+		DistanceField prey;
+
+		Followed(Logic game, int threads) {
+			this.game = game;
+			this.grid = game.getGrid();
+			this.forks = new Logic[threads];
+			for (int i = 0; i < threads; i++)
+				forks[i] = game.fork();
+			this.played = grid.logWrites();
+		}
+
+		// Distances to the dragon closest to an armed hero, the one to hunt,
+		// moved from the last one hunted
+		DistanceField nearestDragon(Logic game) {
+			Hero hero = game.getHero();
+			if (!hero.getArmed() || game.getDragons().isEmpty())
+				return null;
+			DistanceField distances = game.getHeroDistances();
+			Dragon nearest = null;
+			int best = Integer.MAX_VALUE;
+			for (Dragon dragon : game.getDragons()) {
+				int d = distances.distance(dragon.getPosX(), dragon.getPosY());
+				if (d >= 0 && d < best) {
+					nearest = dragon;
+					best = d;
+				}
+			}
+			if (nearest == null)
+				return null;
+			if (prey == null)
+				prey = new DistanceField(grid);
+			prey.setTarget(nearest.getPosX(), nearest.getPosY());
+			return prey;
+		}
+	}
+
+	// Rollouts of one thread, on its own fork of the game
+	private class Search implements Runnable {
+
+		final Logic fork, game;
+		final int[] candidates;
+		final DistanceField sword, prey, exit;
+		final long deadline;
+		final int limit, dragons, heroX, heroY;
+		final Random random;
+		final TurnResult result = new TurnResult();
+		final int[] visits;
+		final double[] scores;
+		volatile boolean stopped;
+		int played;
+
+		Search(Logic fork, Logic game, int[] candidates,
+				DistanceField sword, DistanceField prey, DistanceField exit,
+				long deadline, int limit, long seed) {
+			this.fork = fork;
+			this.game = game;
+			this.candidates = candidates;
+			this.sword = sword;
+			this.prey = prey;
+			this.exit = exit;
+			this.deadline = deadline;
+			this.limit = limit;
+			this.dragons = fork.getDragons().size();
+			this.heroX = fork.getHero().getPosX();
+			this.heroY = fork.getHero().getPosY();
+			this.random = new Random(seed);
+			this.visits = new int[candidates.length];
+			this.scores = new double[candidates.length];
+		}
+
+		public void run() {
+			while ((limit <= 0 || played < limit) && !stopped
+					&& System.nanoTime() < deadline) {
+				int c = select();
+				visits[c]++;
+				scores[c] += rollout(MOVES[candidates[c]]);
+				played++;
+			}
+		}
+
+		// UCB1, trying every move once first
+		private int select() {
+			int best = 0;
+			double bestValue = -1;
+			double log = Math.log(played + 1);
+			for (int c = 0; c < candidates.length; c++) {
+				if (visits[c] == 0)
+					return c;
+				double value = scores[c] / visits[c] + EXPLORATION
+						* Math.sqrt(log / visits[c]);
+				if (value > bestValue) {
+					best = c;
+					bestValue = value;
+				}
+			}
+			return best;
+		}
+
+		// Plays the move and a quick game after it on the fork rewound, with
+		// new random choices, scoring how it ended from 0 to 1. Wins score
+		// above 0.9, sooner ones higher, deaths below 0.05, later ones higher
+		private double rollout(String move) {
+			fork.rewind(game, null);
+			fork.setSeed(random.nextLong());
+			fork.playTurn(move, result);
+			int turn = 0;
+			while (turn < depth && !result.isOver()) {
+				fork.playTurn(quickMove(fork), result);
+				turn++;
+			}
+
+			double time = turn / (double) (depth + 1);
+			if (result.getState() == State.HERO_WON)
+				return 1 - 0.1 * time;
+			if (result.getState() == State.HERO_DEAD)
+				return 0.05 * time;
+
+			// Unfinished games score by how far the hero got: armed, dragons
+			// killed, then the steps taken towards the next goal
+			Hero hero = fork.getHero();
+			int left = fork.getDragons().size();
+			double progress;
+			if (!hero.getArmed())
+				progress = 0.3 * gain(sword, hero);
+			else if (left > 0)
+				progress = 0.3 + 0.5 * (dragons - left) / dragons + 0.1
+						* gain(prey, hero);
+			else
+				progress = 0.8 + 0.2 * gain(exit, hero);
+			return 0.05 + 0.8 * progress;
+		}
+
+		// Heads for the next goal most of the time, otherwise moves at
+		// random. An unarmed hero keeps away from the dragons when it can
+		private String quickMove(Logic fork) {
+			Hero hero = fork.getHero();
+			int mask = fork.heroMoveMask();
+			if (mask == 0)
+				return MOVES[0];
+			if (!hero.getArmed()) {
+				int safe = safeMoves(fork.getGrid(), hero, mask);
+				if (safe != 0)
+					mask = safe;
+			}
+
+			DistanceField field = goal(fork);
+			if (field != null && random.nextInt(4) != 0) {
+				int move = field.stepCloser(hero.getPosX(), hero.getPosY());
+				if (move >= 0 && (mask & (1 << move)) != 0)
+					return MOVES[move];
+			}
+
+			int k = random.nextInt(Integer.bitCount(mask));
+			for (int move = 0;; move++)
+				if ((mask & (1 << move)) != 0 && k-- == 0)
+					return MOVES[move];
+		}
+
+		// Moves that don't end next to a dragon
+		private int safeMoves(Grid grid, Hero hero, int mask) {
+			int x = hero.getPosX(), y = hero.getPosY();
+			if (nearDragon(grid, x, y - 1))
+				mask &= ~(1 << Movement.MOVE_UP.getDirection());
+			if (nearDragon(grid, x, y + 1))
+				mask &= ~(1 << Movement.MOVE_DOWN.getDirection());
+			if (nearDragon(grid, x + 1, y))
+				mask &= ~(1 << Movement.MOVE_RIGHT.getDirection());
+			if (nearDragon(grid, x - 1, y))
+				mask &= ~(1 << Movement.MOVE_LEFT.getDirection());
+			return mask;
+		}
+
+		private boolean nearDragon(Grid grid, int x, int y) {
+			return dragon(grid, x, y - 1) || dragon(grid, x, y + 1)
+					|| dragon(grid, x + 1, y) || dragon(grid, x - 1, y);
+		}
+
+		private boolean dragon(Grid grid, int x, int y) {
+			return grid.contains(x, y) && (grid.get(x, y) & Cell.DRAGON) != 0;
+		}
+
+		private DistanceField goal(Logic fork) {
+			if (!fork.getHero().getArmed())
+				return sword;
+			return fork.getDragons().isEmpty() ? exit : prey;
+		}
+
+		// Steps taken towards the target since the move searched, from 0
+		// when going the whole rollout away to 1 when getting closer on every
+		// turn
+		private double gain(DistanceField field, Hero hero) {
+			if (field == null)
+				return 0.5;
+			int from = field.distance(heroX, heroY);
+			int to = field.distance(hero.getPosX(), hero.getPosY());
+			if (from < 0 || to < 0)
+				return 0.5;
+			return 0.5 + 0.5 * (from - to) / (depth + 1);
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package simulation;
+
+import java.util.Arrays;
+
+import logic.Cell;
+import logic.DistanceField;
+import logic.Grid;
+import logic.Hero;
+import logic.Logic;
+import logic.Movement;
+
+/**
+ * Hero that plays to win. It walks the shortest path to the sword, then to
+ * the nearest dragon and, once every dragon is dead, to the exit. While
+ * there are dragons a search keeps it away from them, without dragons it
+ * just follows the distance fields of the sword and the exit. When no path
+ * is open, for example while a dragon guards the sword, it waits for the
+ * dragons to move.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class SeekingPolicy implements HeroPolicy {
+
+	private static final String[] MOVES = { "w", "s", "d", "a" };
+
+	private final RandomPolicy waiting = new RandomPolicy();
+
+	public String nextMove(Logic game, int turn) {
+		Grid grid = game.getGrid();
+		int width = grid.getWidth(), count = grid.getCellCount();
+		Hero hero = game.getHero();
+		int start = grid.index(hero.getPosX(), hero.getPosY());
+
+		// Without dragons around the sword and exit fields give the next step
+		// in O(1), otherwise the search keeps the hero away from them
+		if (game.getDragons().isEmpty()) {
+			DistanceField field = hero.getArmed() ? game.getExitDistances()
+					: game.getSwordDistances();
+			int move = field.stepCloser(hero.getPosX(), hero.getPosY());
+			if (move >= 0
+					&& canEnter(game, grid, width,
+							neighbor(start, move, width)))
+				return MOVES[move];
+		}
+
+		// Breadth first search from the hero, prev[c] is the cell before c
+		int[] prev = new int[count];
+		int[] queue = new int[count];
+		Arrays.fill(prev, -1);
+		prev[start] = start;
+		int head = 0, tail = 0;
+		queue[tail++] = start;
+
+		while (head < tail) {
+			int c = queue[head++];
+			if (c != start && isGoal(game, grid, width, c))
+				return firstStep(prev, start, c, width);
+
+			int[] next = { c - width, c + width, c + 1, c - 1 };
+			for (int n : next)
+				if (n >= 0 && n < count && prev[n] < 0
+						&& Math.abs(n % width - c % width) <= 1
+						&& canEnter(game, grid, width, n)) {
+					prev[n] = c;
+					queue[tail++] = n;
+				}
+		}
+		return waiting.nextMove(game, turn);
+	}
+
+	// An unarmed hero keeps away from the dragons and the exit can only be
+	// entered by an armed hero with every dragon dead
+	private boolean canEnter(Logic game, Grid grid, int width, int c) {
+		if (!game.getHero().getArmed())
+			return walkable(grid.get(c)) && !nearDragon(grid, width, c);
+		return walkable(grid.get(c))
+				|| (grid.get(c) == Cell.EXIT && game.getDragons().isEmpty());
+	}
+
+	private boolean isGoal(Logic game, Grid grid, int width, int c) {
+		if (!game.getHero().getArmed())
+			return grid.get(c) == Cell.SWORD;
+		if (game.getDragons().isEmpty())
+			return grid.get(c) == Cell.EXIT;
+
+		// An armed hero kills the dragons next to him
+		return nearDragon(grid, width, c);
+	}
+
+	// Free cells and the sword, with or without the eagle over them
+	private static boolean walkable(byte cell) {
+		return (cell & ~(Cell.SWORD | Cell.EAGLE)) == 0;
+	}
+
+	private static boolean dragon(byte cell) {
+		return (cell & Cell.DRAGON) != 0;
+	}
+
+	private boolean nearDragon(Grid grid, int width, int c) {
+		return (c >= width && dragon(grid.get(c - width)))
+				|| (c + width < grid.getCellCount() && dragon(grid
+						.get(c + width)))
+				|| (c % width + 1 < width && dragon(grid.get(c + 1)))
+				|| (c % width > 0 && dragon(grid.get(c - 1)));
+	}
+
+	// Cell reached from c by a Movement direction
+	private int neighbor(int c, int move, int width) {
+		if (move == Movement.MOVE_UP.getDirection())
+			return c - width;
+		else if (move == Movement.MOVE_DOWN.getDirection())
+			return c + width;
+		else if (move == Movement.MOVE_RIGHT.getDirection())
+			return c + 1;
+		return c - 1;
+	}
+
+	// Walks back from the goal to the move that leaves the start
+	private String firstStep(int[] prev, int start, int goal, int width) {
+		int c = goal;
+		while (prev[c] != start)
+			c = prev[c];
+
+		if (c == start - width)
+			return "w";
+		else if (c == start + width)
+			return "s";
+		else if (c == start + 1)
+			return "d";
+		return "a";
+	}
+}
@@ -0,0 +1,178 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import logic.Logic;
+import logic.State;
+import logic.TurnResult;
+import algorithms.GeneratorType;
+import algorithms.MazeGenerator;
+
+/**
+ * Class <code>Simulator</code> plays batches of games without a console or a
+ * window. Games are spread over a pool of threads, each one playing whole
+ * games and keeping its own <code>Statistics</code>, so the threads share
+ * nothing but a game counter and the work scales with the number of cores.
+ * <p>
+ * Game <code>i</code> of a batch is seeded with <code>seed + i</code>, so a
+ * batch played with the same seed and a stateless policy always gives the
+ * same results, whatever the number of threads.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class Simulator {
+
+	// Games claimed at once by a thread, keeps the shared counter cold
+	private static final int CHUNK = 64;
+
+	private final int mazeSize, dragonCounter, dragonStrategy, threads;
+	private final GeneratorType generatorType;
+
+	/**
+	 * Creates a simulator of random mazes. A size of 10 plays the predefined
+	 * puzzle, as in the other game modes.
+	 * 
+	 * @param mazeSize
+	 *            maze size integer
+	 * @param dragonCounter
+	 *            dragon number integer
+	 * @param dragonStrategy
+	 *            dragon game strategy mode integer
+	 * @param generatorType
+	 *            maze generation engine
+	 * @param threads
+	 *            number of threads playing games
+	 */
+	public Simulator(int mazeSize, int dragonCounter, int dragonStrategy,
+			GeneratorType generatorType, int threads) {
+		if (threads < 1)
+			throw new IllegalArgumentException("Invalid thread count: "
+					+ threads);
+		this.mazeSize = mazeSize;
+		this.dragonCounter = dragonCounter;
+		this.dragonStrategy = dragonStrategy;
+		this.generatorType = generatorType;
+		this.threads = threads;
+	}
+
+	/**
+	 * Creates a simulator using one thread per available processor.
+	 * 
+	 * @param mazeSize
+	 *            maze size integer
+	 * @param dragonCounter
+	 *            dragon number integer
+	 * @param dragonStrategy
+	 *            dragon game strategy mode integer
+	 * @param generatorType
+	 *            maze generation engine
+	 */
+	public Simulator(int mazeSize, int dragonCounter, int dragonStrategy,
+			GeneratorType generatorType) {
+		this(mazeSize, dragonCounter, dragonStrategy, generatorType, Runtime
+				.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Plays a batch of games and waits for all of them to end.
+	 * 
+	 * @param games
+	 *            number of games
+	 * @param seed
+	 *            seed of the first game
+	 * @param policy
+	 *            hero moves, shared by every thread
+	 * @param maxTurns
+	 *            turns after which a game is stopped as unfinished
+	 * @return results of every game
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for the games
+	 */
+	public Statistics run(final int games, final long seed,
+			final HeroPolicy policy, final int maxTurns)
+			throws InterruptedException {
+		final AtomicInteger nextGame = new AtomicInteger();
+		List<Callable<Statistics>> workers = new ArrayList<Callable<Statistics>>(
+				threads);
+		for (int i = 0; i < threads; i++)
+			workers.add(new Callable<Statistics>() {
+				public Statistics call() {
+					Statistics statistics = new Statistics();
+					MazeGenerator generator = generatorType.create();
+					int first;
+					while ((first = nextGame.getAndAdd(CHUNK)) < games) {
+						int last = Math.min(first + CHUNK, games);
+						for (int game = first; game < last; game++)
+							play(generator, seed + game, policy, maxTurns,
+									statistics);
+					}
+					return statistics;
+				}
+			});
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			Statistics statistics = new Statistics();
+			for (Future<Statistics> result : pool.invokeAll(workers))
+				statistics.merge(result.get());
+			return statistics;
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Plays a single game in the calling thread.
+	 * 
+	 * @param seed
+	 *            game seed
+	 * @param policy
+	 *            hero moves
+	 * @param maxTurns
+	 *            turns after which the game is stopped as unfinished
+	 * @return results of the game
+	 */
+	public Statistics play(long seed, HeroPolicy policy, int maxTurns) {
+		Statistics statistics = new Statistics();
+		play(generatorType.create(), seed, policy, maxTurns, statistics);
+		return statistics;
+	}
+
+	private void play(MazeGenerator generator, long seed, HeroPolicy policy,
+			int maxTurns, Statistics statistics) {
+		Logic game;
+		if (mazeSize == 10)
+			game = new Logic(seed);
+		else
+			game = new Logic(mazeSize, dragonCounter, dragonStrategy,
+					generator, seed);
+
+		// One result is filled by every turn of the game
+		TurnResult result = new TurnResult();
+		for (int turn = 0; turn < maxTurns; turn++) {
+			State state = game.playTurn(policy.nextMove(game, turn), result)
+					.getState();
+			if (state == State.HERO_WON) {
+				statistics.addWin(turn + 1);
+				return;
+			} else if (state == State.HERO_DEAD) {
+				statistics.addDeath(turn + 1);
+				return;
+			}
+		}
+		statistics.addUnfinished(maxTurns);
+	}
+}
@@ -0,0 +1,125 @@
+package simulation;
+
+/**
+ * Results of a batch of simulated games. Each thread of a
+ * <code>Simulator</code> fills its own instance and they are merged at the
+ * end, so no locking is needed while games run.
+ * 
+ * @author Andre Pinheiro
+ * @author Jose Peixoto
+ * @author Paulo Faria
+ */
+public class Statistics {
+
+	private int games, wins, deaths, unfinished;
+	private long turns;
+	private int minTurns = Integer.MAX_VALUE, maxTurns;
+
+	/**
+	 * Records a game won by the hero.
+	 * 
+	 * @param turns
+	 *            turns played
+	 */
+	public void addWin(int turns) {
+		wins++;
+		add(turns);
+	}
+
+	/**
+	 * Records a game where the hero died.
+	 * 
+	 * @param turns
+	 *            turns played
+	 */
+	public void addDeath(int turns) {
+		deaths++;
+		add(turns);
+	}
+
+	/**
+	 * Records a game stopped at the turn limit.
+	 * 
+	 * @param turns
+	 *            turns played
+	 */
+	public void addUnfinished(int turns) {
+		unfinished++;
+		add(turns);
+	}
+
+	private void add(int turns) {
+		games++;
+		this.turns += turns;
+		minTurns = Math.min(minTurns, turns);
+		maxTurns = Math.max(maxTurns, turns);
+	}
+
+	/**
+	 * Adds the results of other games to these.
+	 * 
+	 * @param other
+	 *            statistics to add
+	 */
+	public void merge(Statistics other) {
+		games += other.games;
+		wins += other.wins;
+		deaths += other.deaths;
+		unfinished += other.unfinished;
+		turns += other.turns;
+		minTurns = Math.min(minTurns, other.minTurns);
+		maxTurns = Math.max(maxTurns, other.maxTurns);
+	}
+
+	public int getGames() {
+		return games;
+	}
+
+	public int getWins() {
+		return wins;
+	}
+
+	public int getDeaths() {
+		return deaths;
+	}
+
+	public int getUnfinished() {
+		return unfinished;
+	}
+
+	public long getTurns() {
+		return turns;
+	}
+
+	/**
+	 * @return fewest turns of a game, 0 if there are no games
+	 */
+	public int getMinTurns() {
+		return games == 0 ? 0 : minTurns;
+	}
+
+	public int getMaxTurns() {
+		return maxTurns;
+	}
+
+	/**
+	 * @return average turns per game, 0 if there are no games
+	 */
+	public double getAverageTurns() {
+		return games == 0 ? 0 : (double) turns / games;
+	}
+
+	/**
+	 * @return fraction of games won by the hero, 0 if there are no games
+	 */
+	public double getWinRate() {
+		return games == 0 ? 0 : (double) wins / games;
+	}
+
+	public String toString() {
+		return games + " games: " + wins + " won, " + deaths + " lost, "
+				+ unfinished + " unfinished, " + getAverageTurns()
+				+ " turns on average (" + getMinTurns() + " to " + maxTurns
+				+ ")";
+	}
+}
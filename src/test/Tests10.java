@@ -0,0 +1,91 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import logic.Dragon;
+import logic.DragonIndex;
+import logic.Logic;
+import logic.State;
+
+import org.junit.Test;
+
+import algorithms.BacktrackerGenerator;
+
+public class Tests10 {
+
+	/*
+	 * Checks if the index follows the dragons through a game with many of
+	 * them
+	 */
+	@Test
+	public void testIndexFollowsDragons() {
+		Logic j1 = new Logic(41, 200, 1, new BacktrackerGenerator(), 3);
+		String[] moves = { "w", "s", "d", "a" };
+
+		for (int turn = 0; turn < 50 && !j1.getHero().getDead(); turn++) {
+			j1.playGame(moves[turn % 4]);
+			DragonIndex index = j1.getDragonIndex();
+
+			for (Dragon dragon : j1.getDragons())
+				assertSame(dragon,
+						index.get(dragon.getPosX(), dragon.getPosY()));
+
+			// The index finds a near dragon exactly when a scan does
+			boolean near = false;
+			for (Dragon dragon : j1.getDragons())
+				near |= Math.abs(dragon.getPosX() - j1.getHero().getPosX())
+						+ Math.abs(dragon.getPosY() - j1.getHero().getPosY()) == 1;
+			assertEquals(near, j1.nearDragon() != null);
+		}
+	}
+
+	/*
+	 * Checks if an armed hero kills every dragon around him, keeping the
+	 * other dragons in the list
+	 */
+	@Test
+	public void testKillSurrounding() {
+		Logic j1 = new Logic();
+		ArrayList<Dragon> dragons = new ArrayList<Dragon>();
+		dragons.add(new Dragon(4, 3));
+		dragons.add(new Dragon(4, 2));
+		dragons.add(new Dragon(8, 8));
+		dragons.add(new Dragon(4, 4));
+		j1.setDragons(dragons);
+		j1.getHero().setArmed(true);
+		j1.getHero().setPosition(4, 3);
+
+		// Hero stands between the dragons at (4, 2) and (4, 4)
+		DragonIndex index = j1.getDragonIndex();
+		dragons.get(0).setPosition(6, 6);
+		assertSame(index, j1.getDragonIndex());
+		assertSame(dragons.get(0), index.get(6, 6));
+		assertNull(index.get(4, 3));
+
+		assertEquals(State.DRAGON_DEAD, j1.checkGame());
+		assertEquals(2, dragons.size());
+		assertNull(j1.nearDragon());
+		for (Dragon dragon : dragons)
+			assertFalse(dragon.getDead());
+	}
+
+	/*
+	 * Checks if sleeping dragons don't kill an unarmed hero
+	 */
+	@Test
+	public void testSleepingNeighbor() {
+		Logic j1 = new Logic();
+		ArrayList<Dragon> dragons = new ArrayList<Dragon>();
+		dragons.add(new Dragon(1, 2));
+		j1.setDragons(dragons);
+
+		dragons.get(0).setAsleep(true);
+		assertNull(j1.checkGame());
+		assertSame(dragons.get(0), j1.nearDragon());
+
+		dragons.get(0).setAsleep(false);
+		assertEquals(State.HERO_DEAD, j1.checkGame());
+	}
+}
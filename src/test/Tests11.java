@@ -0,0 +1,106 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+
+import logic.Logic;
+import logic.Movement;
+import logic.TurnResult;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import algorithms.BacktrackerGenerator;
+
+import com.sun.management.ThreadMXBean;
+
+public class Tests11 {
+
+	private static final String[] MOVES = { "w", "d", "s", "a", "e" };
+
+	/*
+	 * Checks if reused turn results play the same game as message arrays
+	 */
+	@Test
+	public void testSameGame() {
+		for (int seed = 0; seed < 20; seed++) {
+			Logic j1 = new Logic(21, 3, 2, new BacktrackerGenerator(), seed);
+			Logic j2 = new Logic(21, 3, 2, new BacktrackerGenerator(), seed);
+			TurnResult result = new TurnResult();
+
+			for (int turn = 0; turn < 100; turn++) {
+				String move = MOVES[(turn * 7 + seed) % MOVES.length];
+				String[] message = j1.playGame(move);
+				assertArrayEquals(message, j2.playTurn(move, result)
+						.toMessages());
+				assertArrayEquals(j1.getGrid().getCells(), j2.getGrid()
+						.getCells());
+				if (result.isOver())
+					break;
+			}
+		}
+	}
+
+	/*
+	 * Checks if the move mask holds the same moves as the HashMap
+	 */
+	@Test
+	public void testMoveMask() {
+		Logic j1 = new Logic();
+		HashMap<Integer, Boolean> moves = j1.validHeroMoves();
+		int mask = j1.heroMoveMask();
+
+		for (Movement move : Movement.values())
+			assertEquals(moves.containsKey(move.getDirection()),
+					(mask & (1 << move.getDirection())) != 0);
+		assertEquals(1 << Movement.MOVE_RIGHT.getDirection()
+				| 1 << Movement.MOVE_DOWN.getDirection(), mask);
+	}
+
+	/*
+	 * Checks if a result is cleared by the next turn
+	 */
+	@Test
+	public void testResultReuse() {
+		Logic j1 = new Logic();
+		TurnResult result = new TurnResult();
+
+		j1.playTurn("a", result);
+		assertEquals("Hero can't move left!", result.getHeroMessage());
+		j1.playTurn("q", result);
+		assertTrue(result.isAborted());
+		assertTrue(result.isOver());
+		assertNull(result.getHeroMessage());
+		assertNull(result.getState());
+		assertEquals("Abort", result.toMessages()[0]);
+	}
+
+	/*
+	 * Checks if playing turns with a reused result creates no garbage
+	 */
+	@Test
+	public void testNoGarbage() {
+		Assume.assumeTrue(ManagementFactory.getThreadMXBean()
+				instanceof ThreadMXBean);
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		Logic j1 = new Logic(51, 20, 3, new BacktrackerGenerator(), 1);
+		TurnResult result = new TurnResult();
+		for (int turn = 0; turn < 1000; turn++)
+			j1.playTurn(MOVES[turn % 4], result);
+
+		long id = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(id);
+		for (int turn = 0; turn < 10000; turn++)
+			j1.playTurn(MOVES[turn % 4], result);
+		long allocated = threads.getThreadAllocatedBytes(id) - before;
+
+		// Allow for the bean itself, far below one object per turn
+		assertTrue(allocated + " bytes", allocated < 10000);
+	}
+}
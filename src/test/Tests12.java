@@ -0,0 +1,119 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import logic.Dragon;
+import logic.EventBuffer;
+import logic.GameEvent;
+import logic.GameListener;
+import logic.Hero;
+import logic.Logic;
+import logic.Movement;
+import logic.State;
+import logic.TurnResult;
+
+import org.junit.Test;
+
+public class Tests12 {
+
+	private static List<GameEvent> drain(EventBuffer buffer) {
+		final List<GameEvent> events = new ArrayList<GameEvent>();
+		buffer.drain(new GameListener() {
+			public void gameEvent(GameEvent event, int x, int y) {
+				events.add(event);
+			}
+		});
+		return events;
+	}
+
+	/*
+	 * Checks if picking the sword up and killing a dragon are published
+	 */
+	@Test
+	public void testHeroEvents() {
+		Logic j1 = new Logic();
+		EventBuffer buffer = new EventBuffer(16);
+		j1.addListener(buffer);
+		ArrayList<Dragon> dragons = new ArrayList<Dragon>();
+		dragons.add(new Dragon(2, 8));
+		j1.setDragons(dragons);
+		j1.setHero(new Hero(1, 7));
+
+		j1.swapHero(Movement.MOVE_DOWN.getDirection());
+		assertEquals(State.DRAGON_DEAD, j1.checkGame());
+		assertEquals(Arrays.asList(GameEvent.HERO_MOVED,
+				GameEvent.SWORD_PICKED, GameEvent.DRAGON_KILLED), drain(buffer));
+		assertEquals(0, buffer.size());
+	}
+
+	/*
+	 * Checks if the death of the hero and blocked moves are published
+	 */
+	@Test
+	public void testHeroDied() {
+		Logic j1 = new Logic();
+		EventBuffer buffer = new EventBuffer(16);
+		j1.addListener(buffer);
+		ArrayList<Dragon> dragons = new ArrayList<Dragon>();
+		dragons.add(new Dragon(1, 3));
+		j1.setDragons(dragons);
+
+		j1.moveHero("a", j1.heroMoveMask());
+		j1.swapHero(Movement.MOVE_DOWN.getDirection());
+		assertEquals(State.HERO_DEAD, j1.checkGame());
+		assertEquals(Arrays.asList(GameEvent.HERO_BLOCKED,
+				GameEvent.HERO_MOVED, GameEvent.HERO_DIED), drain(buffer));
+	}
+
+	/*
+	 * Checks if the eagle flight is published with the positions where it
+	 * happened
+	 */
+	@Test
+	public void testEagleEvents() {
+		Logic j1 = new Logic();
+		final List<String> events = new ArrayList<String>();
+		j1.addListener(new GameListener() {
+			public void gameEvent(GameEvent event, int x, int y) {
+				events.add(event + " " + x + "," + y);
+			}
+		});
+		j1.setDragons(new ArrayList<Dragon>());
+
+		TurnResult turn = new TurnResult();
+		for (int i = 0; i < 20 && !j1.getHero().getArmed(); i++)
+			j1.playTurn("e", turn);
+
+		assertEquals(Arrays.asList("EAGLE_RELEASED 1,1",
+				"EAGLE_CAUGHT_SWORD 1,8", "EAGLE_RETURNED 1,1"), events);
+	}
+
+	/*
+	 * Checks if a full buffer drops the oldest events and removed listeners
+	 * get nothing
+	 */
+	@Test
+	public void testBuffer() {
+		EventBuffer buffer = new EventBuffer(3);
+		assertEquals(4, buffer.capacity());
+		for (int i = 0; i < 6; i++)
+			buffer.gameEvent(i < 2 ? GameEvent.HERO_MOVED
+					: GameEvent.DRAGON_MOVED, i, 0);
+
+		assertEquals(4, buffer.size());
+		assertEquals(2, buffer.getDropped());
+		assertEquals(Arrays.asList(GameEvent.DRAGON_MOVED,
+				GameEvent.DRAGON_MOVED, GameEvent.DRAGON_MOVED,
+				GameEvent.DRAGON_MOVED), drain(buffer));
+
+		Logic j1 = new Logic();
+		j1.addListener(buffer);
+		j1.removeListener(buffer);
+		j1.playTurn("q", new TurnResult());
+		assertEquals(0, buffer.size());
+	}
+}
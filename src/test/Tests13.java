@@ -0,0 +1,71 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import logic.DirtyCells;
+import logic.Grid;
+import logic.Logic;
+import logic.PieceType;
+import logic.TurnResult;
+
+import org.junit.Test;
+
+import algorithms.BacktrackerGenerator;
+
+public class Tests13 {
+
+	/*
+	 * Checks if every cell changed by a turn is reported, and only those
+	 * written by it
+	 */
+	@Test
+	public void testTurnChanges() {
+		Logic j1 = new Logic(31, 10, 2, new BacktrackerGenerator(), 9);
+		DirtyCells changes = j1.getGrid().trackChanges();
+		TurnResult turn = new TurnResult();
+		String[] moves = { "e", "w", "d", "s", "a" };
+
+		for (int i = 0; i < 60 && !turn.isOver(); i++) {
+			byte[] before = j1.getGrid().getCells().clone();
+			j1.playTurn(moves[i % moves.length], turn);
+			byte[] after = j1.getGrid().getCells();
+
+			Set<Integer> reported = new HashSet<Integer>();
+			for (int c = 0; c < changes.size(); c++)
+				assertTrue(reported.add(changes.get(c)));
+			for (int c = 0; c < after.length; c++)
+				if (before[c] != after[c])
+					assertTrue(reported.contains(c));
+			assertTrue(changes.size() < after.length / 10);
+			changes.clear();
+		}
+	}
+
+	/*
+	 * Checks if repeated writes list a cell once and clearing forgets them
+	 */
+	@Test
+	public void testMarks() {
+		Grid grid = new Grid(100, 3);
+		DirtyCells changes = grid.trackChanges();
+		assertSame(changes, grid.trackChanges());
+		assertTrue(changes.isEmpty());
+
+		grid.set(70, 0, Grid.code(PieceType.WALL));
+		grid.setSymbol(70, 0, " S ");
+		grid.set(5, 2, Grid.code(PieceType.SWORD));
+		assertEquals(2, changes.size());
+		assertEquals(70, changes.get(0));
+		assertEquals(grid.index(5, 2), changes.get(1));
+
+		changes.clear();
+		assertTrue(changes.isEmpty());
+		for (int x = 0; x < 100; x++)
+			grid.set(x, 1, Grid.code(PieceType.FREE));
+		grid.set(70, 0, Grid.code(PieceType.FREE));
+		assertEquals(101, changes.size());
+	}
+}
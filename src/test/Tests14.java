@@ -0,0 +1,52 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+
+import gui.SpriteCache;
+
+import org.junit.Test;
+
+public class Tests14 {
+
+	/*
+	 * Checks if sprites are scaled once per tile size and crop
+	 */
+	@Test
+	public void testScaledOnce() {
+		SpriteCache cache = new SpriteCache(16, 12);
+		Image source = new BufferedImage(SpriteCache.SPRITE_SIZE,
+				SpriteCache.SPRITE_SIZE, BufferedImage.TYPE_INT_ARGB);
+
+		Image sprite = cache.get(source, 0);
+		assertEquals(16, sprite.getWidth(null));
+		assertEquals(12, sprite.getHeight(null));
+		assertSame(sprite, cache.get(source, 0));
+
+		Image cropped = cache.get(source, 7);
+		assertNotSame(sprite, cropped);
+		assertSame(cropped, cache.get(source, 7));
+		assertSame(sprite, cache.get(source, 0));
+
+		// A new tile size drops the scaled sprites
+		cache.setTileSize(16, 12);
+		assertSame(sprite, cache.get(source, 0));
+		cache.setTileSize(8, 8);
+		Image resized = cache.get(source, 0);
+		assertNotSame(sprite, resized);
+		assertEquals(8, resized.getWidth(null));
+	}
+
+	/*
+	 * Checks if image files are loaded only once
+	 */
+	@Test
+	public void testLoadedOnce() {
+		assertSame(SpriteCache.icon("src//png//path.png"),
+				SpriteCache.icon("src//png//path.png"));
+		assertSame(SpriteCache.load("src//png//path.png"),
+				SpriteCache.load("src//png//path.png"));
+	}
+}
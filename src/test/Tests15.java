@@ -0,0 +1,81 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import logic.Logic;
+
+import org.junit.Test;
+
+import algorithms.BacktrackerGenerator;
+import gui.GameUI;
+import gui.Viewport;
+
+public class Tests15 {
+
+	/*
+	 * Checks if small boards fill the window and big ones keep the minimum
+	 * tile size, showing only part of the board
+	 */
+	@Test
+	public void testTileSize() {
+		Viewport small = new Viewport(21, 21, new Dimension(800, 800));
+		assertEquals(38, small.getTileWidth());
+		assertEquals(21, small.getColumns());
+		assertEquals(21, small.getRows());
+
+		Viewport big = new Viewport(5001, 5001, new Dimension(800, 600));
+		assertEquals(Viewport.MIN_TILE, big.getTileWidth());
+		assertEquals(Viewport.MIN_TILE, big.getTileHeight());
+		assertEquals(50, big.getColumns());
+		assertEquals(38, big.getRows());
+	}
+
+	/*
+	 * Checks if the camera stays still while the hero is away from the
+	 * edges, and scrolls and centers on him near them, without leaving the
+	 * board
+	 */
+	@Test
+	public void testFollow() {
+		Viewport view = new Viewport(1001, 1001, new Dimension(800, 800));
+		assertEquals(50, view.getColumns());
+
+		assertFalse(view.follow(1, 1));
+		assertFalse(view.follow(30, 20));
+		assertTrue(view.contains(49, 49));
+		assertFalse(view.contains(50, 0));
+
+		assertTrue(view.follow(40, 20));
+		assertEquals(15, view.getLeft());
+		assertEquals(0, view.getTop());
+		assertTrue(view.follow(999, 999));
+		assertEquals(951, view.getLeft());
+		assertEquals(951, view.getTop());
+		assertFalse(view.follow(1000, 1000));
+	}
+
+	/*
+	 * Checks if a huge board draws the tiles around the hero
+	 */
+	@Test
+	public void testHugeBoard() {
+		Logic j1 = new Logic(1001, 5, 1, new BacktrackerGenerator(), 3);
+		Dimension dimension = new Dimension(400, 400);
+		GameUI gameUI = new GameUI(j1, dimension);
+		gameUI.setSize(dimension);
+		Viewport view = gameUI.getViewport();
+		assertTrue(view.contains(j1.getHero().getPosX(), j1.getHero()
+				.getPosY()));
+
+		BufferedImage image = new BufferedImage(dimension.width,
+				dimension.height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = image.createGraphics();
+		gameUI.paint(g);
+		g.dispose();
+		assertEquals(25, view.getColumns());
+	}
+}
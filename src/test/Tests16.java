@@ -0,0 +1,57 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import gui.TimeHistogram;
+
+import org.junit.Test;
+
+public class Tests16 {
+
+	/*
+	 * Checks if percentiles are found within the bucket precision
+	 */
+	@Test
+	public void testPercentiles() {
+		TimeHistogram histogram = new TimeHistogram();
+		assertEquals(0, histogram.percentile(99));
+
+		// 1 to 1000 microseconds
+		for (int i = 1; i <= 1000; i++)
+			histogram.record(i * 1000L);
+
+		assertEquals(1000, histogram.getCount());
+		assertEquals(500500, histogram.getMean());
+		assertEquals(1000000, histogram.getMax());
+		assertNear(500000, histogram.percentile(50));
+		assertNear(990000, histogram.percentile(99));
+		assertEquals(1000000, histogram.percentile(100));
+		assertNear(1000, histogram.percentile(0));
+	}
+
+	private static void assertNear(long expected, long actual) {
+		assertTrue(actual + " for " + expected, actual >= expected
+				&& actual <= expected * 1.125 + 1000);
+	}
+
+	/*
+	 * Checks if very short and very long durations are kept, and clearing
+	 * forgets them
+	 */
+	@Test
+	public void testRange() {
+		TimeHistogram histogram = new TimeHistogram();
+		histogram.record(300);
+		histogram.record(-5);
+		histogram.record(3600000000000L);
+		assertEquals(3, histogram.getCount());
+		assertEquals(999, histogram.percentile(50));
+		assertEquals(3600000000000L, histogram.percentile(100));
+
+		histogram.clear();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+		assertEquals(0, histogram.percentile(50));
+		assertTrue(histogram.toString().startsWith("n=0 "));
+	}
+}
@@ -0,0 +1,124 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+import gui.MazeFile;
+import logic.Grid;
+import logic.Logic;
+import logic.Piece;
+import logic.PieceType;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import algorithms.BacktrackerGenerator;
+
+public class Tests17 {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/*
+	 * Checks if a maze in the middle of a game is read back the same, and
+	 * far smaller than serialized
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		Logic j1 = new Logic(101, 12, 2, new BacktrackerGenerator(), 4);
+		j1.playGame("e");
+		j1.playGame("s");
+		Grid grid = j1.getGrid();
+		File file = folder.newFile("random.maze");
+		MazeFile.write(grid, file.toPath());
+
+		Grid read = MazeFile.read(file.toPath());
+		assertEquals(101, read.getWidth());
+		assertEquals(101, read.getHeight());
+		assertArrayEquals(grid.getCells(), read.getCells());
+		assertTrue(file.length() < grid.getCells().length / 2);
+
+		File legacy = folder.newFile("legacy.maze");
+		writeLegacy(grid.toPieces(), legacy);
+		assertTrue(file.length() * 20 < legacy.length());
+	}
+
+	/*
+	 * Checks if long runs and mazes full of entities are kept
+	 */
+	@Test
+	public void testRuns() throws IOException {
+		Grid grid = new Grid(300, 3);
+		for (int x = 0; x < 300; x++) {
+			grid.set(x, 0, Grid.code(PieceType.WALL));
+			grid.set(x, 2, Grid.code(x % 2 == 0 ? PieceType.DRAGON
+					: PieceType.SWORD));
+		}
+		grid.set(299, 1, Grid.code(PieceType.EXIT));
+
+		ByteBuffer buffer = MazeFile.encode(grid);
+		assertEquals(MazeFile.MAGIC, buffer.getInt(0));
+		assertArrayEquals(grid.getCells(), MazeFile.decode(buffer)
+				.getCells());
+		assertFalse(buffer.hasRemaining());
+	}
+
+	/*
+	 * Checks if mazes saved by the old serialization are imported
+	 */
+	@Test
+	public void testLegacyImport() throws IOException {
+		Grid grid = new Logic().getGrid();
+		File file = folder.newFile("old.maze");
+		writeLegacy(grid.toPieces(), file);
+
+		assertArrayEquals(grid.getCells(), MazeFile.read(file.toPath())
+				.getCells());
+	}
+
+	/*
+	 * Checks if unknown versions and broken files are refused
+	 */
+	@Test
+	public void testCorrupt() {
+		ByteBuffer buffer = MazeFile.encode(new Logic().getGrid());
+		buffer.putShort(4, (short) 99);
+		assertRefused(buffer);
+
+		buffer = MazeFile.encode(new Logic().getGrid());
+		buffer.limit(buffer.limit() - 3);
+		assertRefused(buffer);
+
+		buffer = MazeFile.encode(new Logic().getGrid());
+		buffer.putInt(8, 11);
+		assertRefused(buffer);
+
+		assertRefused(ByteBuffer.wrap("not a maze at all, really".getBytes()));
+	}
+
+	private static void assertRefused(ByteBuffer buffer) {
+		try {
+			MazeFile.decode(buffer);
+			fail();
+		} catch (IOException e) {
+		}
+	}
+
+	private static void writeLegacy(ArrayList<ArrayList<Piece>> maze,
+			File file) throws IOException {
+		ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(
+				file));
+		try {
+			out.writeObject(maze);
+		} finally {
+			out.close();
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import gui.GameIO;
+import gui.MazeFile;
+import logic.Grid;
+import logic.Logic;
+import logic.PieceType;
+import logic.Solver;
+import logic.TurnResult;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import algorithms.BacktrackerGenerator;
+import algorithms.EllerGenerator;
+
+public class Tests18 {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/*
+	 * Checks if a mapped maze reads the saved cells and copies written ones,
+	 * leaving the file as it was
+	 */
+	@Test
+	public void testCopyOnWrite() throws IOException {
+		Grid saved = new Logic(201, 20, 2, new BacktrackerGenerator(), 8)
+				.getGrid();
+		File file = folder.newFile("huge.maze");
+		MazeFile.write(saved, file.toPath(), true);
+		assertEquals(MazeFile.HEADER_SIZE + 201 * 201, file.length());
+
+		Grid mapped = MazeFile.map(file.toPath());
+		assertTrue(mapped.isBuffered());
+		for (int y = 0; y < 201; y++)
+			for (int x = 0; x < 201; x++)
+				assertEquals(saved.get(x, y), mapped.get(x, y));
+
+		mapped.set(100, 150, Grid.code(PieceType.SWORD));
+		mapped.setSymbol(200, 200, PieceType.DRAGON.asString());
+		assertTrue(mapped.isBuffered());
+		assertTrue(mapped.is(100, 150, PieceType.SWORD));
+		assertTrue(mapped.is(200, 200, PieceType.DRAGON));
+		assertEquals(saved.get(101, 150), mapped.get(101, 150));
+
+		Grid reopened = MazeFile.map(file.toPath());
+		assertEquals(saved.get(100, 150), reopened.get(100, 150));
+		assertEquals(saved.get(200, 200), reopened.get(200, 200));
+
+		// The whole array is only copied when asked for
+		byte[] cells = mapped.getCells();
+		assertFalse(mapped.isBuffered());
+		assertEquals(Grid.code(PieceType.SWORD), cells[mapped.index(100, 150)]);
+		assertArrayEquals(reopened.getCells(), MazeFile.read(file.toPath())
+				.getCells());
+	}
+
+	/*
+	 * Checks if a game is played over a mapped maze without copying it
+	 */
+	@Test
+	public void testPlayMapped() throws IOException {
+		Logic original = new Logic(51, 5, 1, new BacktrackerGenerator(), 2);
+		File file = folder.newFile("game.maze");
+		MazeFile.write(original.getGrid(), file.toPath(), true);
+
+		Logic j1 = new Logic(MazeFile.map(file.toPath()), 1);
+		assertEquals(original.getHero().getPosX(), j1.getHero().getPosX());
+		assertEquals(original.getDragons().size(), j1.getDragons().size());
+
+		TurnResult turn = new TurnResult();
+		String[] moves = { "d", "s", "e", "a", "w" };
+		for (int i = 0; i < 40 && !turn.isOver(); i++)
+			j1.playTurn(moves[i % moves.length], turn);
+		assertTrue(j1.getGrid().isBuffered());
+	}
+
+	/*
+	 * Checks if compact files are read to the heap when mapped, and mappable
+	 * ones are read like any other
+	 */
+	@Test
+	public void testFormats() throws IOException {
+		Grid grid = new Logic().getGrid();
+		File compact = folder.newFile("compact.maze");
+		MazeFile.write(grid, compact.toPath());
+		Grid read = MazeFile.map(compact.toPath());
+		assertFalse(read.isBuffered());
+		assertArrayEquals(grid.getCells(), read.getCells());
+
+		File raw = folder.newFile("raw.maze");
+		MazeFile.write(grid, raw.toPath(), true);
+		assertArrayEquals(grid.getCells(), MazeFile.read(raw.toPath())
+				.getCells());
+
+		try {
+			new Grid(10, 10, ByteBuffer.allocate(99));
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/*
+	 * Checks if a maze streamed to a file while generated is a maze file
+	 * that can be mapped or read
+	 */
+	@Test
+	public void testStreamedMaze() throws IOException {
+		File file = folder.newFile("streamed.maze");
+		new GameIO().saveMaze(file.getPath(), new EllerGenerator(), 101,
+				new Random(4));
+		Grid grid = new EllerGenerator().generate(101, new Random(4));
+		assertEquals(MazeFile.HEADER_SIZE + 101 * 101, file.length());
+
+		Grid mapped = MazeFile.map(file.toPath());
+		assertTrue(mapped.isBuffered());
+		for (int i = 0; i < grid.getCellCount(); i++)
+			assertEquals(grid.get(i), mapped.get(i));
+		assertEquals(grid.toPieces().size(), new GameIO().readFile(
+				file.getPath()).size());
+		assertArrayEquals(grid.getCells(), MazeFile.read(file.toPath())
+				.getCells());
+	}
+
+	/*
+	 * Checks if a huge maze saved by the game is mapped when opened, and
+	 * stays mapped while chasing dragons, the solver and snapshots read it
+	 */
+	@Test
+	public void testSaveHuge() throws IOException {
+		Logic original = new Logic(301, 30, 3, new BacktrackerGenerator(), 6);
+		File file = folder.newFile("saved.maze");
+		new GameIO().saveMaze(file.getPath(), original.getGrid().toPieces());
+		assertEquals(MazeFile.HEADER_SIZE + 301 * 301, file.length());
+
+		Grid grid = MazeFile.map(file.toPath());
+		Logic j1 = new Logic(grid, 3);
+		TurnResult turn = new TurnResult();
+		String[] moves = { "d", "s", "a", "w" };
+		for (int i = 0; i < 20 && !turn.isOver(); i++)
+			j1.playTurn(moves[i % moves.length], turn);
+		assertNotNull(new Solver().bfs(grid, grid.index(1, 1),
+				grid.index(299, 299)));
+		assertEquals(j1.getGrid().get(150, 150), new Logic(j1.snapshot())
+				.getGrid().get(150, 150));
+		assertTrue(grid.isBuffered());
+	}
+}
@@ -0,0 +1,130 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import logic.GameRandom;
+import logic.Logic;
+import logic.Snapshot;
+import logic.State;
+import logic.TurnResult;
+
+import org.junit.Test;
+
+import algorithms.BacktrackerGenerator;
+
+public class Tests19 {
+
+	private static final String[] MOVES = { "d", "s", "e", "a", "w", "s",
+			"d" };
+
+	// Plays the same moves on both games, checking they stay the same
+	private static void playAlike(Logic expected, Logic actual, int turns) {
+		TurnResult a = new TurnResult(), b = new TurnResult();
+		for (int i = 0; i < turns && !a.isOver(); i++) {
+			expected.playTurn(MOVES[i % MOVES.length], a);
+			actual.playTurn(MOVES[i % MOVES.length], b);
+			assertArrayEquals(expected.getGrid().getCells(), actual.getGrid()
+					.getCells());
+			assertEquals(a.isOver(), b.isOver());
+		}
+		assertEquals(expected.getHero().getPosX(), actual.getHero().getPosX());
+		assertEquals(expected.getHero().getArmed(), actual.getHero()
+				.getArmed());
+		assertEquals(expected.getDragons().size(), actual.getDragons().size());
+	}
+
+	/*
+	 * Checks if the game random source repeats Random and resumes from its
+	 * state
+	 */
+	@Test
+	public void testRandom() {
+		Random reference = new Random(42);
+		GameRandom random = new GameRandom(42);
+		for (int i = 0; i < 100; i++)
+			assertEquals(reference.nextInt(1000), random.nextInt(1000));
+
+		long state = random.getState();
+		long next = random.nextLong();
+		random.nextDouble();
+		random.setState(state);
+		assertEquals(next, random.nextLong());
+	}
+
+	/*
+	 * Checks if a game resumed from a snapshot goes on like the original,
+	 * random dragon moves included
+	 */
+	@Test
+	public void testResume() {
+		Logic original = new Logic(31, 6, 2, new BacktrackerGenerator(), 5);
+		TurnResult turn = new TurnResult();
+		for (int i = 0; i < 5; i++)
+			original.playTurn(MOVES[i], turn);
+
+		Snapshot snapshot = original.snapshot();
+		Logic resumed = new Logic(snapshot);
+		assertEquals(2, resumed.getDragonStrategy());
+		assertEquals(original.getSeed(), resumed.getSeed());
+		playAlike(original, resumed, 60);
+
+		// Restoring again starts over from the same turn
+		Logic other = new Logic(snapshot);
+		resumed.restore(snapshot);
+		playAlike(other, resumed, 60);
+	}
+
+	/*
+	 * Checks if an encoded snapshot keeps the eagle flight and goes on like
+	 * the original
+	 */
+	@Test
+	public void testEncode() throws IOException {
+		Logic original = new Logic(21, 3, 2, new BacktrackerGenerator(), 11);
+		original.playTurn("e", new TurnResult());
+		assertEquals(State.EAGLE_PURSUING, original.getEagle().getState());
+		assertFalse(original.getHero().getEagle());
+
+		Snapshot snapshot = original.snapshot();
+		ByteBuffer buffer = snapshot.encode();
+		assertEquals(snapshot.encodedSize(), buffer.remaining());
+		Logic resumed = new Logic(Snapshot.decode(buffer));
+		assertFalse(buffer.hasRemaining());
+
+		assertEquals(State.EAGLE_PURSUING, resumed.getEagle().getState());
+		assertEquals(original.getEagle().getHeroX(), resumed.getEagle()
+				.getHeroX());
+		assertFalse(resumed.getHero().getEagle());
+		assertEquals(original.getSword().getPosX(), resumed.getSword()
+				.getPosX());
+		playAlike(original, resumed, 60);
+	}
+
+	/*
+	 * Checks if truncated and foreign buffers are refused
+	 */
+	@Test
+	public void testCorrupt() {
+		ByteBuffer buffer = new Logic().snapshot().encode();
+		buffer.limit(buffer.limit() - 1);
+		assertRefused(buffer);
+
+		buffer = new Logic().snapshot().encode();
+		buffer.putShort(4, (short) 7);
+		assertRefused(buffer);
+
+		assertRefused(ByteBuffer.allocate(200));
+	}
+
+	private static void assertRefused(ByteBuffer buffer) {
+		try {
+			Snapshot.decode(buffer);
+			fail();
+		} catch (IOException e) {
+		}
+	}
+}
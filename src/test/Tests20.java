@@ -0,0 +1,149 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import logic.Journal;
+import logic.Logic;
+import logic.Recording;
+import logic.TurnResult;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import algorithms.BacktrackerGenerator;
+
+public class Tests20 {
+
+	private static final String[] MOVES = { "d", "s", "e", "a", "w", "s",
+			"d", "d", "s" };
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	// Plays the moves, recording them, and returns the game as it was left
+	private static Logic record(Logic logic, Journal journal, int turns)
+			throws IOException {
+		TurnResult turn = new TurnResult();
+		for (int i = 0; i < turns; i++) {
+			journal.record(MOVES[i % MOVES.length]);
+			logic.playTurn(MOVES[i % MOVES.length], turn);
+		}
+		return logic;
+	}
+
+	private static void assertSame(Logic expected, Logic actual) {
+		assertArrayEquals(expected.getGrid().getCells(), actual.getGrid()
+				.getCells());
+		assertEquals(expected.getHero().getPosX(), actual.getHero().getPosX());
+		assertEquals(expected.getHero().getPosY(), actual.getHero().getPosY());
+		assertEquals(expected.getHero().getDead(), actual.getHero().getDead());
+		assertEquals(expected.getDragons().size(), actual.getDragons().size());
+		assertEquals(expected.snapshot().encode(), actual.snapshot().encode());
+	}
+
+	/*
+	 * Checks if a replayed journal ends like the game recorded, random dragon
+	 * moves included
+	 */
+	@Test
+	public void testReplay() throws IOException {
+		Path file = folder.newFile("game.journal").toPath();
+		Logic logic = new Logic(31, 6, 2, new BacktrackerGenerator(), 5);
+		Journal journal = new Journal(file, logic);
+		record(logic, journal, 150);
+		journal.close();
+		assertEquals(150, journal.getInputs());
+
+		Recording recording = Recording.read(file);
+		assertEquals(150, recording.size());
+		assertEquals("d", recording.getInput(0));
+		assertEquals("e", recording.getInput(2));
+		assertSame(logic, recording.replay());
+
+		// Any turn can be rebuilt
+		Logic start = new Logic(31, 6, 2, new BacktrackerGenerator(), 5);
+		assertSame(start, recording.replay(0));
+		assertSame(record(start, new Journal(folder.newFile().toPath(), start),
+				40), recording.replay(40));
+	}
+
+	/*
+	 * Checks if a journal started in the middle of a game resumes from there
+	 */
+	@Test
+	public void testResume() throws IOException {
+		Path file = folder.newFile().toPath();
+		Logic logic = new Logic(21, 3, 2, new BacktrackerGenerator(), 11);
+		logic.playTurn("e", new TurnResult());
+		Journal journal = new Journal(file, logic);
+		record(logic, journal, 30);
+		journal.close();
+		assertSame(logic, Recording.read(file).replay());
+	}
+
+	/*
+	 * Checks if moves are written in batches, and only the last batch is lost
+	 * without closing the journal
+	 */
+	@Test
+	public void testBatches() throws IOException {
+		File file = folder.newFile();
+		Logic logic = new Logic(21, 3, 2, new BacktrackerGenerator(), 3);
+		Journal journal = new Journal(file.toPath(), logic);
+		long header = file.length();
+		record(logic, journal, Journal.BATCH_SIZE - 1);
+		assertEquals(header, file.length());
+		record(logic, journal, 1);
+		assertEquals(header + Journal.BATCH_SIZE, file.length());
+		record(logic, journal, 10);
+		assertEquals(Journal.BATCH_SIZE, Recording.read(file.toPath()).size());
+
+		journal.flush();
+		assertEquals(Journal.BATCH_SIZE + 10, Recording.read(file.toPath())
+				.size());
+		journal.close();
+
+		try {
+			journal.record("wa");
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/*
+	 * Checks if foreign and truncated files are refused
+	 */
+	@Test
+	public void testCorrupt() throws IOException {
+		File file = folder.newFile();
+		Journal journal = new Journal(file.toPath(), new Logic());
+		journal.record("d");
+		journal.close();
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.setLength(100);
+		raf.close();
+		assertRefused(file.toPath());
+
+		raf = new RandomAccessFile(file, "rw");
+		raf.writeInt(0x12345678);
+		raf.close();
+		assertRefused(file.toPath());
+
+		assertRefused(folder.newFile().toPath());
+	}
+
+	private static void assertRefused(Path file) {
+		try {
+			Recording.read(file);
+			fail();
+		} catch (IOException e) {
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import logic.DistanceField;
+import logic.Dragon;
+import logic.DragonIndex;
+import logic.Grid;
+import logic.Logic;
+import logic.PieceType;
+import logic.TurnResult;
+
+import org.junit.Test;
+
+import algorithms.BacktrackerGenerator;
+
+public class Tests21 {
+
+	private static final String[] MOVES = { "d", "s", "e", "a", "w", "s",
+			"d", "d", "w" };
+
+	private static void play(Logic logic, int first, int turns) {
+		TurnResult turn = new TurnResult();
+		for (int i = first; i < first + turns; i++)
+			logic.playTurn(MOVES[i % MOVES.length], turn);
+	}
+
+	private static void assertAlike(Logic expected, Logic actual) {
+		assertArrayEquals(expected.getGrid().getCells(), actual.getGrid()
+				.getCells());
+		assertEquals(expected.snapshot().encode(), actual.snapshot().encode());
+	}
+
+	/*
+	 * Checks if a fork goes on like the original, random dragon moves
+	 * included, without sharing any character
+	 */
+	@Test
+	public void testForkPlaysAlike() {
+		Logic original = new Logic(31, 6, 2, new BacktrackerGenerator(), 5);
+		play(original, 0, 7);
+		Logic fork = original.fork();
+		assertNotSame(original.getGrid(), fork.getGrid());
+		assertNotSame(original.getHero(), fork.getHero());
+		assertNotSame(original.getDragons().get(0), fork.getDragons().get(0));
+		assertNotSame(original.getSword(), fork.getSword());
+		assertTrue(fork.getGrid().isBuffered());
+
+		play(original, 7, 80);
+		play(fork, 7, 80);
+		assertAlike(original, fork);
+	}
+
+	/*
+	 * Checks if neither the original nor its forks see what the others play
+	 */
+	@Test
+	public void testForksApart() {
+		Logic original = new Logic(31, 6, 2, new BacktrackerGenerator(), 8);
+		Logic copy = original.fork();
+		Logic first = original.fork(), second = first.fork();
+
+		play(first, 0, 30);
+		assertAlike(copy, original);
+		assertAlike(copy, second);
+
+		play(original, 0, 30);
+		assertAlike(first, original);
+		play(second, 5, 30);
+		assertAlike(first, original);
+
+		play(copy, 5, 30);
+		assertAlike(copy, second);
+	}
+
+	/*
+	 * Checks if a forked grid copies only the pages it writes and keeps both
+	 * grids apart
+	 */
+	@Test
+	public void testGridPages() {
+		Grid grid = new Grid(300, 300);
+		grid.set(10, 10, Grid.code(PieceType.WALL));
+		Grid fork = grid.fork();
+		Grid other = fork.fork();
+
+		fork.set(299, 299, Grid.code(PieceType.SWORD));
+		grid.set(0, 0, Grid.code(PieceType.EXIT));
+		assertTrue(grid.isBuffered());
+		assertTrue(fork.is(10, 10, PieceType.WALL));
+		assertTrue(fork.is(0, 0, PieceType.FREE));
+		assertTrue(grid.is(299, 299, PieceType.FREE));
+		assertTrue(other.is(299, 299, PieceType.FREE));
+
+		other.set(10, 10, Grid.code(PieceType.FREE));
+		assertTrue(fork.is(10, 10, PieceType.WALL));
+		assertTrue(grid.is(10, 10, PieceType.WALL));
+
+		byte[] cells = fork.getCells();
+		assertFalse(fork.isBuffered());
+		assertEquals(Grid.code(PieceType.SWORD), cells[fork.index(299, 299)]);
+		assertEquals(Grid.code(PieceType.WALL), cells[fork.index(10, 10)]);
+
+		// The array given away is written by its grid only
+		Grid last = grid.fork();
+		grid.getCells()[0] = Grid.code(PieceType.WALL);
+		assertTrue(last.is(0, 0, PieceType.EXIT));
+	}
+
+	/*
+	 * Checks if a fork reads the distance fields of the original until it
+	 * moves their target, then follows its own hero with a copy
+	 */
+	@Test
+	public void testForkFields() {
+		Logic original = new Logic(31, 3, 3, new BacktrackerGenerator(), 9);
+		DistanceField hero = original.getHeroDistances();
+		DistanceField exit = original.getExitDistances();
+		int target = hero.getTarget();
+		Logic fork = original.fork();
+		assertSame(hero, fork.getHeroDistances());
+		assertSame(exit, fork.getExitDistances());
+
+		play(fork, 0, 6);
+		DistanceField moved = fork.getHeroDistances();
+		assertNotSame(hero, moved);
+		assertSame(fork.getGrid(), moved.getGrid());
+		assertEquals(target, hero.getTarget());
+		assertSame(exit, fork.getExitDistances());
+
+		DistanceField filled = new DistanceField(fork.getGrid());
+		filled.setTarget(fork.getHero().getPosX(), fork.getHero().getPosY());
+		for (int y = 0; y < 31; y++)
+			for (int x = 0; x < 31; x++)
+				assertEquals(filled.distance(x, y), moved.distance(x, y));
+	}
+
+	/*
+	 * Checks if the index finds every dragon while many of them move and are
+	 * removed at random
+	 */
+	@Test
+	public void testIndexTable() {
+		Random random = new Random(13);
+		Logic logic = new Logic(101, 1, 1, new BacktrackerGenerator(), 2);
+		Grid grid = logic.getGrid();
+		ArrayList<Dragon> dragons = new ArrayList<Dragon>();
+		boolean[] taken = new boolean[grid.getCellCount()];
+		for (int i = 0; i < 500; i++) {
+			int x = random.nextInt(101), y = random.nextInt(101);
+			if (!taken[grid.index(x, y)]) {
+				taken[grid.index(x, y)] = true;
+				dragons.add(new Dragon(x, y));
+			}
+		}
+		DragonIndex index = new DragonIndex(grid, dragons);
+
+		for (int step = 0; step < 5000 && !dragons.isEmpty(); step++) {
+			Dragon dragon = dragons.get(random.nextInt(dragons.size()));
+			int x = random.nextInt(101), y = random.nextInt(101);
+			if (random.nextInt(10) == 0) {
+				taken[grid.index(dragon.getPosX(), dragon.getPosY())] = false;
+				index.remove(dragon);
+			} else if (!taken[grid.index(x, y)]) {
+				taken[grid.index(dragon.getPosX(), dragon.getPosY())] = false;
+				taken[grid.index(x, y)] = true;
+				dragon.setPosition(x, y);
+			}
+		}
+
+		int found = 0;
+		for (int y = 0; y < 101; y++)
+			for (int x = 0; x < 101; x++)
+				if (index.get(x, y) != null) {
+					assertEquals(x, index.get(x, y).getPosX());
+					assertEquals(y, index.get(x, y).getPosY());
+					found++;
+				}
+		assertEquals(dragons.size(), found);
+	}
+}
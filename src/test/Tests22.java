@@ -0,0 +1,153 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import logic.DirtyCells;
+import logic.Logic;
+import logic.TurnResult;
+
+import org.junit.Test;
+
+import simulation.SearchPolicy;
+import simulation.SeekingPolicy;
+import simulation.Simulator;
+import simulation.Statistics;
+import algorithms.BacktrackerGenerator;
+import algorithms.GeneratorType;
+
+public class Tests22 {
+
+	// Moves chosen over a game, searched on one thread with a rollout limit
+	private static String play(long seed, int turns) {
+		Logic game = new Logic(15, 3, 2, new BacktrackerGenerator(), seed);
+		SearchPolicy policy = new SearchPolicy(1, 0, 100, 20);
+		TurnResult result = new TurnResult();
+		StringBuilder moves = new StringBuilder();
+		for (int turn = 0; turn < turns && !result.isOver(); turn++) {
+			String move = policy.nextMove(game, turn);
+			moves.append(move);
+			game.playTurn(move, result);
+		}
+		return moves.toString();
+	}
+
+	/*
+	 * Checks if a search limited by rollouts on one thread always chooses
+	 * the same moves
+	 */
+	@Test
+	public void testRepeatable() {
+		assertEquals(play(4, 40), play(4, 40));
+	}
+
+	/*
+	 * Checks if searching leaves the game as it was
+	 */
+	@Test
+	public void testGameUntouched() {
+		Logic game = new Logic(21, 4, 2, new BacktrackerGenerator(), 6);
+		game.playTurn("e", new TurnResult());
+		byte[] cells = game.getGrid().getCells().clone();
+		byte[] state = game.snapshot().encode().array();
+
+		new SearchPolicy(1, 0, 300, 30).nextMove(game, 1);
+		assertArrayEquals(cells, game.getGrid().getCells());
+		assertArrayEquals(state, game.snapshot().encode().array());
+	}
+
+	/*
+	 * Checks if a fork rewound after every game plays on like a new fork of
+	 * the game, also once the game went on, leaving the changes to draw
+	 */
+	@Test
+	public void testRewind() {
+		Logic game = new Logic(31, 5, 3, new BacktrackerGenerator(), 3);
+		DirtyCells drawn = game.getGrid().trackChanges();
+		Logic fork = game.fork();
+		DirtyCells played = game.getGrid().logWrites();
+		for (int round = 0; round < 6; round++) {
+			if (round == 3)
+				game.playTurn("d", new TurnResult());
+			fork.rewind(game, played);
+			played.clear();
+			Logic fresh = game.fork();
+			fork.setSeed(round);
+			fresh.setSeed(round);
+			TurnResult result = new TurnResult();
+			for (int turn = 0; turn < 25 && !result.isOver(); turn++) {
+				String move = "wasde".substring(turn % 5, turn % 5 + 1);
+				fork.playTurn(move, result);
+				fresh.playTurn(move, new TurnResult());
+			}
+			assertArrayEquals(fresh.snapshot().encode().array(), fork
+					.snapshot().encode().array());
+		}
+		assertFalse(drawn.isEmpty());
+	}
+
+	/*
+	 * Checks if a policy following a game from move to move chooses the
+	 * moves a new policy would
+	 */
+	@Test
+	public void testFollow() {
+		Logic game = new Logic(15, 3, 2, new BacktrackerGenerator(), 4);
+		SearchPolicy policy = new SearchPolicy(1, 0, 100, 20);
+		TurnResult result = new TurnResult();
+		for (int turn = 0; turn < 40 && !result.isOver(); turn++) {
+			String move = policy.nextMove(game, turn);
+			assertEquals(new SearchPolicy(1, 0, 100, 20).nextMove(
+					game.fork(), turn), move);
+			game.playTurn(move, result);
+		}
+	}
+
+	/*
+	 * Checks if the search wins more games than the seeking hero, which
+	 * doesn't look ahead
+	 */
+	@Test
+	public void testBeatsSeeking() throws Exception {
+		Simulator simulator = new Simulator(15, 3, 1,
+				GeneratorType.RECURSIVE_BACKTRACKER, 1);
+		Statistics seeking = simulator.run(12, 100, new SeekingPolicy(), 500);
+		Statistics search = simulator.run(12, 100, new SearchPolicy(1, 0,
+				200, 30), 500);
+
+		assertTrue(search.getWins() > seeking.getWins());
+		assertTrue(search.getDeaths() < seeking.getDeaths());
+	}
+
+	/*
+	 * Checks if rollouts are shared between threads and a time budget stops
+	 * the search, on the calling thread once shut down
+	 */
+	@Test
+	public void testThreads() {
+		Logic game = new Logic(21, 3, 1, new BacktrackerGenerator(), 9);
+		SearchPolicy counted = new SearchPolicy(3, 0, 100, 20);
+		assertTrue("wsdae".contains(counted.nextMove(game, 0)));
+		assertEquals(100, counted.getRollouts());
+		counted.shutdown();
+
+		SearchPolicy timed = new SearchPolicy(2, 30, 0, 20);
+		long start = System.nanoTime();
+		timed.nextMove(game, 0);
+		long millis = (System.nanoTime() - start) / 1000000;
+		assertTrue(millis >= 30 && millis < 5000);
+		assertTrue(timed.getRollouts() > 0);
+
+		timed.shutdown();
+		long before = timed.getRollouts();
+		timed.nextMove(game, 1);
+		assertTrue(timed.getRollouts() > before);
+	}
+
+	/*
+	 * Checks if searches without threads or a budget are refused
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoBudget() {
+		new SearchPolicy(2, 0, 0, 20);
+	}
+}
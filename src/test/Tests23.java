@@ -0,0 +1,109 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import logic.Dragon;
+import logic.DragonIndex;
+import logic.Grid;
+import logic.Logic;
+import logic.PieceType;
+import logic.TurnResult;
+
+import org.junit.Test;
+
+import algorithms.BacktrackerGenerator;
+
+public class Tests23 {
+
+	private static final String PIECES = "XHDES ";
+	private static final PieceType[] TYPES = { PieceType.WALL,
+			PieceType.HERO_UNARMED_EAGLE, PieceType.DRAGON, PieceType.SWORD,
+			PieceType.EXIT, PieceType.FREE };
+
+	// Chasing dragons on a maze drawn with one character per cell
+	private static Logic chase(String... lines) {
+		Grid grid = new Grid(lines[0].length(), lines.length);
+		for (int y = 0; y < lines.length; y++)
+			for (int x = 0; x < lines[y].length(); x++)
+				grid.setSymbol(x, y,
+						TYPES[PIECES.indexOf(lines[y].charAt(x))].asString());
+		return new Logic(grid, 3);
+	}
+
+	private static void assertDragon(Logic logic, int x, int y) {
+		assertTrue(logic.getGrid().is(x, y, PieceType.DRAGON));
+		assertNotNull(logic.getDragonIndex().get(x, y));
+	}
+
+	/*
+	 * Checks if a dragon enters the cell left by a dragon before it in the
+	 * same turn, but not the cell of a dragon still to move
+	 */
+	@Test
+	public void testInOrder() {
+		// The hero runs into a wall and both dragons close in
+		Logic left = chase("XXXXXXXX", "XH  DDEX", "SXXXXXXX");
+		left.playTurn("w", new TurnResult());
+		assertDragon(left, 3, 1);
+		assertDragon(left, 4, 1);
+		assertTrue(left.getGrid().is(5, 1, PieceType.FREE));
+
+		Logic right = chase("XXXXXXXX", "XEDD  HX", "SXXXXXXX");
+		right.playTurn("w", new TurnResult());
+		assertDragon(right, 2, 1);
+		assertDragon(right, 4, 1);
+		assertTrue(right.getGrid().is(3, 1, PieceType.FREE));
+	}
+
+	/*
+	 * Checks if the first of two dragons heading for the same cell takes it
+	 */
+	@Test
+	public void testSameCell() {
+		Logic logic = chase("XXXXX", "XXHXX", "XD EX", "XXDXX", "SXXXX");
+		Dragon first = logic.getDragons().get(0);
+		logic.playTurn("w", new TurnResult());
+
+		assertEquals(2, first.getPosX());
+		assertEquals(2, first.getPosY());
+		assertDragon(logic, 2, 2);
+		assertDragon(logic, 2, 3);
+		assertTrue(logic.getGrid().is(1, 2, PieceType.FREE));
+	}
+
+	/*
+	 * Checks if thousands of dragons planned on a pool move like on a single
+	 * thread, and the index finds them where they are
+	 */
+	@Test
+	public void testPool() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		for (int strategy = 1; strategy <= 3; strategy++) {
+			Logic single = new Logic(201, 6000, strategy,
+					new BacktrackerGenerator(), 7);
+			single.setDragonPool(null);
+			Logic split = single.fork();
+			split.setDragonPool(pool);
+
+			TurnResult result = new TurnResult();
+			for (int turn = 0; turn < 30; turn++) {
+				single.playTurn("wasd".substring(turn % 4, turn % 4 + 1),
+						result);
+				split.playTurn("wasd".substring(turn % 4, turn % 4 + 1),
+						result);
+			}
+			assertArrayEquals(single.getGrid().getCells(), split.getGrid()
+					.getCells());
+			assertEquals(single.snapshot().encode(), split.snapshot()
+					.encode());
+
+			DragonIndex index = split.getDragonIndex();
+			for (Dragon dragon : split.getDragons())
+				assertSame(dragon, index.get(dragon.getPosX(),
+						dragon.getPosY()));
+		}
+		pool.shutdown();
+	}
+}
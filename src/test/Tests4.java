@@ -0,0 +1,151 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Random;
+
+import logic.Grid;
+import logic.Logic;
+import logic.Piece;
+import logic.PieceType;
+
+import org.junit.Test;
+
+import algorithms.Algorithm;
+
+public class Tests4 {
+
+	/*
+	 * Checks if the grid stores and decodes every maze symbol
+	 */
+	@Test
+	public void testGridSymbols() {
+		Grid grid = new Grid(3, 2);
+
+		assertEquals(PieceType.FREE.asString(), grid.getSymbol(2, 1));
+		grid.setSymbol(2, 1, PieceType.DRAGON_GUARDING.asString());
+		assertTrue(grid.is(2, 1, PieceType.DRAGON_GUARDING));
+		assertEquals(" F ", grid.getSymbol(2, 1));
+
+		// symbols generated by the eagle flying over the maze
+		grid.setSymbol(0, 0, "EAG");
+		assertEquals("EAG", grid.getSymbol(0, 0));
+		assertEquals(grid.index(2, 1), 5);
+	}
+
+	/*
+	 * Checks if the maze view writes through to the grid
+	 */
+	@Test
+	public void testMazeView() {
+		Logic j1 = new Logic();
+		ArrayList<ArrayList<Piece>> maze = j1.getMaze();
+
+		assertEquals(10, maze.size());
+		assertEquals(" HG", maze.get(1).get(1).getSymbol());
+		assertSame(maze, j1.getMaze());
+
+		maze.get(1).get(2).setSymbol(PieceType.SWORD.asString());
+		assertEquals(" E ", j1.getMazePieceSymbol(2, 1));
+		j1.setMazePieceSymbol(2, 1, PieceType.FREE.asString());
+		assertEquals("   ", maze.get(1).get(2).getSymbol());
+	}
+
+	/*
+	 * Checks if moving a maze piece only changes its coordinates, like any
+	 * piece, leaving the grid, the maze view and the sword as they were
+	 */
+	@Test
+	public void testMovePiece() {
+		Logic j1 = new Logic();
+		ArrayList<ArrayList<Piece>> maze = j1.getMaze();
+		Piece piece = j1.getMazePiece(1, 8);
+		assertEquals(PieceType.SWORD.asString(), piece.getSymbol());
+
+		piece.setPosition(1, 7);
+		assertEquals(7, piece.getPosY());
+		assertEquals(PieceType.SWORD.asString(), piece.getSymbol());
+		assertTrue(j1.getGrid().is(1, 8, PieceType.SWORD));
+		assertTrue(j1.getGrid().is(1, 7, PieceType.FREE));
+		assertSame(piece, maze.get(8).get(1));
+		assertEquals(PieceType.FREE.asString(), maze.get(7).get(1)
+				.getSymbol());
+		assertEquals(8, j1.getSword().getPosY());
+	}
+
+	/*
+	 * Checks if a maze built from pieces keeps its game elements
+	 */
+	@Test
+	public void testGridFromPieces() {
+		Logic j1 = new Logic();
+		Logic j2 = new Logic(j1.getMaze(), 1);
+
+		assertEquals(1, j2.getHero().getPosX());
+		assertEquals(1, j2.getHero().getPosY());
+		assertEquals(9, j2.getExitX());
+		assertEquals(5, j2.getExitY());
+		assertEquals(1, j2.getDragons().size());
+		assertArrayEquals(j1.getGrid().getCells(), j2.getGrid().getCells());
+	}
+
+	/*
+	 * Checks if the grid carved by the search is a perfect maze: every free
+	 * piece reached from the exit, one passage less than the free pieces, so
+	 * there are no loops, and a single exit on the border
+	 */
+	@Test
+	public void testCarvedGrid() {
+		for (int size = 3; size <= 51; size += 4) {
+			Grid grid = new Algorithm(size, new Random(size)).createGrid();
+			int free = 0, passages = 0, exits = 0, exit = -1;
+			for (int y = 0; y < size; y++)
+				for (int x = 0; x < size; x++) {
+					if (grid.is(x, y, PieceType.WALL))
+						continue;
+					free++;
+					if (x + 1 < size && !grid.is(x + 1, y, PieceType.WALL))
+						passages++;
+					if (y + 1 < size && !grid.is(x, y + 1, PieceType.WALL))
+						passages++;
+					if (grid.is(x, y, PieceType.EXIT)) {
+						exits++;
+						exit = grid.index(x, y);
+						assertTrue(x == 0 || x == size - 1);
+					}
+				}
+			assertEquals(1, exits);
+			assertEquals(free - 1, passages);
+
+			boolean[] seen = new boolean[size * size];
+			ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+			queue.add(exit);
+			seen[exit] = true;
+			int reached = 0;
+			while (!queue.isEmpty()) {
+				int c = queue.poll(), x = c % size, y = c / size;
+				reached++;
+				int[][] next = { { x, y - 1 }, { x, y + 1 }, { x + 1, y },
+						{ x - 1, y } };
+				for (int[] p : next)
+					if (grid.contains(p[0], p[1])
+							&& !seen[grid.index(p[0], p[1])]
+							&& !grid.is(p[0], p[1], PieceType.WALL)) {
+						seen[grid.index(p[0], p[1])] = true;
+						queue.add(grid.index(p[0], p[1]));
+					}
+			}
+			assertEquals(free, reached);
+		}
+	}
+
+	/*
+	 * Checks if boards without a middle are refused
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testCarvedGridSize() {
+		new Algorithm(10, new Random()).createGrid();
+	}
+}
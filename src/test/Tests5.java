@@ -0,0 +1,164 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import logic.Grid;
+import logic.Logic;
+import logic.PieceType;
+
+import org.junit.Test;
+
+import algorithms.EllerGenerator;
+import algorithms.GeneratorType;
+import algorithms.MazeGenerator;
+import algorithms.ParallelGenerator;
+import algorithms.RowSink;
+
+public class Tests5 {
+
+	/*
+	 * Counts the pieces that can be reached from the exit
+	 */
+	private int reachablePieces(Grid grid) {
+		int size = grid.getWidth(), exit = -1;
+		for (int i = 0; i < size * size; i++)
+			if (grid.getCells()[i] == Grid.code(PieceType.EXIT))
+				exit = i;
+		assertTrue(exit >= 0);
+
+		boolean[] seen = new boolean[size * size];
+		ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+		queue.add(exit);
+		seen[exit] = true;
+		int count = 0;
+		while (!queue.isEmpty()) {
+			int c = queue.poll();
+			count++;
+			int[] next = { c - size, c + size, c + 1, c - 1 };
+			for (int n : next)
+				if (n >= 0 && n < size * size && !seen[n]
+						&& Math.abs(n % size - c % size) <= 1
+						&& grid.getCells()[n] != Grid.code(PieceType.WALL)) {
+					seen[n] = true;
+					queue.add(n);
+				}
+		}
+		return count;
+	}
+
+	/*
+	 * Checks if every engine builds a perfect maze: all cells connected
+	 * without loops
+	 */
+	@Test
+	public void testPerfectMazes() {
+		for (GeneratorType type : GeneratorType.values()) {
+			MazeGenerator generator = type.create();
+			for (int size = 5; size <= 41; size += 6) {
+				Grid grid = generator.generate(size, new Random());
+				int cells = (size / 2) * (size / 2);
+				int free = 0;
+				for (byte code : grid.getCells())
+					if (code != Grid.code(PieceType.WALL))
+						free++;
+
+				// cells, one passage less than the cells, and the exit
+				assertEquals(type.toString(), 2 * cells, free);
+				assertEquals(type.toString(), free, reachablePieces(grid));
+			}
+		}
+	}
+
+	/*
+	 * Checks if tiles carved in parallel are joined into a perfect maze that
+	 * only depends on the seed
+	 */
+	@Test
+	public void testParallelTiles() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		for (int tile = 1; tile <= 4; tile++) {
+			MazeGenerator generator = new ParallelGenerator(tile, pool);
+			for (int size = 5; size <= 41; size += 12) {
+				Grid grid = generator.generate(size, new Random(size));
+				int cells = (size / 2) * (size / 2), free = 0;
+				for (byte code : grid.getCells())
+					if (code != Grid.code(PieceType.WALL))
+						free++;
+
+				assertEquals(2 * cells, free);
+				assertEquals(free, reachablePieces(grid));
+				assertArrayEquals(grid.getCells(),
+						generator.generate(size, new Random(size)).getCells());
+			}
+		}
+		pool.shutdown();
+	}
+
+	/*
+	 * Checks if a game can be started with any engine
+	 */
+	@Test
+	public void testLogicWithGenerator() {
+		for (GeneratorType type : GeneratorType.values()) {
+			Logic j1 = new Logic(21, 3, 1, type.create());
+			assertEquals(21, j1.getGrid().getWidth());
+			assertEquals(3, j1.getDragons().size());
+			assertTrue(j1.getGrid().is(j1.getExitX(), j1.getExitY(),
+					PieceType.EXIT));
+		}
+	}
+
+	/*
+	 * Checks if Eller's engine emits every line once, from top to bottom
+	 */
+	@Test
+	public void testStreamingLines() throws Exception {
+		final int[] lines = { 0, 0 };
+		new EllerGenerator().generate(31, new Random(), new RowSink() {
+			public void startMaze(int width, int height) {
+				assertEquals(31, width);
+				assertEquals(31, height);
+			}
+
+			public void writeRow(int y, byte[] row) {
+				assertEquals(lines[0]++, y);
+				assertEquals(31, row.length);
+				for (byte code : row)
+					if (code == Grid.code(PieceType.EXIT))
+						lines[1]++;
+			}
+
+			public void endMaze() {
+				assertEquals(31, lines[0]);
+			}
+		});
+		assertEquals(1, lines[1]);
+	}
+
+	/*
+	 * Checks if the same seed repeats the same maze and game
+	 */
+	@Test
+	public void testSeededGames() {
+		String moves = "wasdewasdwwssaaddeasdw";
+		for (GeneratorType type : GeneratorType.values()) {
+			Logic j1 = new Logic(25, 6, 1, type.create(), 42);
+			Logic j2 = new Logic(25, 6, 1, type.create(), 42);
+			assertArrayEquals(j1.getGrid().getCells(), j2.getGrid()
+					.getCells());
+
+			for (int i = 0; i < moves.length(); i++) {
+				String move = moves.substring(i, i + 1);
+				assertArrayEquals(j1.playGame(move), j2.playGame(move));
+			}
+			assertArrayEquals(j1.getGrid().getCells(), j2.getGrid()
+					.getCells());
+			assertEquals(j1.getHero().getPosX(), j2.getHero().getPosX());
+			assertEquals(j1.getHero().getPosY(), j2.getHero().getPosY());
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import simulation.RandomPolicy;
+import simulation.ScriptedPolicy;
+import simulation.SeekingPolicy;
+import simulation.Simulator;
+import simulation.Statistics;
+import algorithms.GeneratorType;
+
+public class Tests6 {
+
+	/*
+	 * Checks if a batch gives the same results with any number of threads
+	 */
+	@Test
+	public void testThreadsGiveSameResults() throws Exception {
+		Statistics s1 = new Simulator(15, 3, 2, GeneratorType.PRIM, 1).run(
+				300, 7, new RandomPolicy(), 200);
+		Statistics s4 = new Simulator(15, 3, 2, GeneratorType.PRIM, 4).run(
+				300, 7, new RandomPolicy(), 200);
+
+		assertEquals(300, s1.getGames());
+		assertEquals(s1.getGames(), s1.getWins() + s1.getDeaths()
+				+ s1.getUnfinished());
+		assertEquals(s1.getWins(), s4.getWins());
+		assertEquals(s1.getDeaths(), s4.getDeaths());
+		assertEquals(s1.getTurns(), s4.getTurns());
+	}
+
+	/*
+	 * Checks if the seeking hero wins most games against a moving dragon
+	 */
+	@Test
+	public void testSeekingHeroWins() throws Exception {
+		Statistics statistics = new Simulator(21, 1, 1,
+				GeneratorType.RECURSIVE_BACKTRACKER, 2).run(50, 1,
+				new SeekingPolicy(), 5000);
+
+		assertTrue(statistics.getWins() > 40);
+		assertEquals(0, statistics.getUnfinished());
+	}
+
+	/*
+	 * Checks if games are stopped at the turn limit
+	 */
+	@Test
+	public void testTurnLimit() {
+		Statistics statistics = new Simulator(10, 1, 1,
+				GeneratorType.RECURSIVE_BACKTRACKER).play(3,
+				new ScriptedPolicy("wswsws"), 10);
+
+		assertEquals(1, statistics.getUnfinished());
+		assertEquals(10, statistics.getMaxTurns());
+	}
+}
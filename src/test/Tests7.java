@@ -0,0 +1,115 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import logic.Grid;
+import logic.Logic;
+import logic.PieceType;
+import logic.Solver;
+import logic.Solver.Search;
+
+import org.junit.Test;
+
+import algorithms.GeneratorType;
+import algorithms.KruskalGenerator;
+
+public class Tests7 {
+
+	/*
+	 * Checks if a path starts and ends at the right cells and only takes
+	 * single steps over free pieces
+	 */
+	private void assertPath(Grid grid, int from, int to, int[] path) {
+		assertEquals(from, path[0]);
+		assertEquals(to, path[path.length - 1]);
+		for (int i = 1; i < path.length; i++) {
+			int a = path[i - 1], b = path[i], width = grid.getWidth();
+			assertEquals(1, Math.abs(a % width - b % width)
+					+ Math.abs(a / width - b / width));
+			assertFalse(grid.getCells()[b] == Grid.code(PieceType.WALL));
+		}
+	}
+
+	/*
+	 * Checks if every search finds a path of the same, shortest, length
+	 */
+	@Test
+	public void testSearchesAgree() {
+		Solver solver = new Solver();
+		Random random = new Random(3);
+		for (GeneratorType type : GeneratorType.values()) {
+			Grid grid = type.create().generate(41, random);
+			for (int i = 0; i < 20; i++) {
+				int from = grid.index(2 * random.nextInt(20) + 1,
+						2 * random.nextInt(20) + 1);
+				int to = grid.index(2 * random.nextInt(20) + 1,
+						2 * random.nextInt(20) + 1);
+
+				int[] bfs = solver.bfs(grid, from, to);
+				int[] aStar = solver.aStar(grid, from, to);
+				int[] both = solver.bidirectional(grid, from, to);
+				assertPath(grid, from, to, bfs);
+				assertPath(grid, from, to, aStar);
+				assertPath(grid, from, to, both);
+				assertEquals(bfs.length, aStar.length);
+				assertEquals(bfs.length, both.length);
+			}
+		}
+	}
+
+	/*
+	 * Checks if shortest paths are found on open boards, where there are
+	 * many of them
+	 */
+	@Test
+	public void testOpenBoard() {
+		Grid grid = new Grid(30, 20);
+		Solver solver = new Solver();
+		int from = grid.index(2, 3), to = grid.index(27, 15);
+		for (Search type : Search.values())
+			assertEquals(25 + 12 + 1,
+					solver.findPath(grid, from, to, type).length);
+
+		assertArrayEquals(new int[] { from },
+				solver.bidirectional(grid, from, from));
+	}
+
+	/*
+	 * Checks if unreachable cells give no path
+	 */
+	@Test
+	public void testNoPath() {
+		Grid grid = new Grid(5, 5);
+		for (int y = 0; y < 5; y++)
+			grid.set(2, y, Grid.code(PieceType.WALL));
+
+		Solver solver = new Solver();
+		for (Search type : Search.values())
+			assertNull(solver.findPath(grid, 0, 4, type));
+	}
+
+	/*
+	 * Checks the route of the hero through the sword to the exit
+	 */
+	@Test
+	public void testHeroRoute() {
+		Logic j1 = new Logic();
+		Grid grid = j1.getGrid();
+		Solver solver = new Solver();
+		int[] route = solver.solve(j1, Search.A_STAR);
+
+		assertPath(grid, grid.index(1, 1), grid.index(9, 5), route);
+		boolean sword = false;
+		for (int c : route)
+			sword |= c == grid.index(1, 8);
+		assertTrue(sword);
+
+		// Buffers grow for a larger board and are reused for a small one
+		Grid big = new KruskalGenerator().generate(301, new Random(1));
+		assertNotNull(solver.bidirectional(big, big.index(1, 1),
+				big.index(299, 299)));
+		assertEquals(route.length, solver.solve(j1, Search.BFS).length);
+	}
+}
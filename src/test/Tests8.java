@@ -0,0 +1,196 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Random;
+
+import logic.DistanceField;
+import logic.Dragon;
+import logic.Grid;
+import logic.Logic;
+import logic.Movement;
+import logic.PieceType;
+import logic.Solver;
+
+import org.junit.Test;
+
+import algorithms.PrimGenerator;
+
+public class Tests8 {
+
+	/*
+	 * Checks if field distances match the shortest paths
+	 */
+	@Test
+	public void testDistances() {
+		Grid grid = new PrimGenerator().generate(31, new Random(5));
+		DistanceField field = new DistanceField(grid);
+		Solver solver = new Solver();
+
+		assertTrue(field.setTarget(1, 1));
+		assertFalse(field.setTarget(1, 1));
+		for (int y = 1; y < 30; y += 2)
+			for (int x = 1; x < 30; x += 2)
+				assertEquals(
+						solver.bfs(grid, grid.index(x, y), grid.index(1, 1)).length - 1,
+						field.distance(x, y));
+
+		assertEquals(DistanceField.UNREACHABLE, field.distance(0, 0));
+		assertEquals(-1, field.stepCloser(1, 1));
+	}
+
+	/*
+	 * Checks if a wall under the eagle still blocks the way
+	 */
+	@Test
+	public void testEagleOverWall() {
+		Grid grid = new Grid(3, 1);
+		grid.set(1, 0, Grid.code(PieceType.PURSUING_WALL_EAGLE));
+		DistanceField field = new DistanceField(grid);
+		field.setTarget(0, 0);
+
+		assertEquals(DistanceField.UNREACHABLE, field.distance(2, 0));
+	}
+
+	/*
+	 * Checks if chasing dragons get closer to an unarmed hero every turn
+	 */
+	@Test
+	public void testChasingDragon() {
+		Logic j1 = new Logic(31, 1, 3, new PrimGenerator(), 11);
+		Dragon dragon = j1.getDragons().get(0);
+
+		// The hero keeps walking into a wall
+		HashMap<Integer, Boolean> moves = j1.validHeroMoves();
+		String wall = !moves.containsKey(Movement.MOVE_UP.getDirection()) ? "w"
+				: !moves.containsKey(Movement.MOVE_DOWN.getDirection()) ? "s"
+						: "a";
+
+		int distance = j1.getHeroDistances().distance(dragon.getPosX(),
+				dragon.getPosY());
+		assertTrue(distance > 3);
+		while (distance > 2) {
+			j1.playGame(wall);
+			int next = j1.getHeroDistances().distance(dragon.getPosX(),
+					dragon.getPosY());
+			assertEquals(distance - 1, next);
+			distance = next;
+		}
+		assertEquals("Hero died!", j1.playGame(wall)[0]);
+	}
+
+	/*
+	 * Checks if a field repaired along a walk, with jumps to far and walled
+	 * off cells, matches a field filled from scratch, on a maze with loops
+	 */
+	@Test
+	public void testRepair() {
+		Grid grid = new PrimGenerator().generate(41, new Random(3));
+		Random random = new Random(8);
+		for (int i = 0; i < 120; i++)
+			grid.set(1 + random.nextInt(39), 1 + random.nextInt(39),
+					Grid.code(PieceType.FREE));
+		grid.set(1, 1, Grid.code(PieceType.WALL));
+		int[] stepX = { 0, 0, 1, -1 }, stepY = { -1, 1, 0, 0 };
+		DistanceField walked = new DistanceField(grid);
+		int x = 3, y = 3;
+		walked.setTarget(x, y);
+
+		for (int turn = 0; turn < 300; turn++) {
+			if (turn % 50 == 49) {
+				x = 1 + 2 * random.nextInt(20);
+				y = 1 + 2 * random.nextInt(20);
+			} else {
+				int move = random.nextInt(4);
+				if (!Grid.isWall(grid.get(x + stepX[move], y + stepY[move]))) {
+					x += stepX[move];
+					y += stepY[move];
+				}
+			}
+			walked.setTarget(x, y);
+			DistanceField filled = new DistanceField(grid);
+			filled.setTarget(x, y);
+			for (int j = 0; j < 41; j++)
+				for (int i = 0; i < 41; i++)
+					assertEquals(filled.distance(i, j), walked.distance(i, j));
+		}
+	}
+
+	/*
+	 * Checks if a target stepping off a wall doesn't keep the ways through
+	 * it
+	 */
+	@Test
+	public void testLeaveWall() {
+		Grid grid = new Grid(5, 1);
+		grid.set(2, 0, Grid.code(PieceType.WALL));
+		DistanceField field = new DistanceField(grid);
+		field.setTarget(2, 0);
+		assertEquals(2, field.distance(4, 0));
+
+		field.setTarget(1, 0);
+		assertEquals(DistanceField.UNREACHABLE, field.distance(3, 0));
+		assertEquals(1, field.distance(0, 0));
+	}
+
+	/*
+	 * Checks if a field over a buffered grid reads it in place
+	 */
+	@Test
+	public void testBufferedGrid() {
+		Grid grid = new PrimGenerator().generate(31, new Random(5));
+		Grid buffered = new Grid(31, 31, ByteBuffer.wrap(grid.getCells()));
+		DistanceField field = new DistanceField(buffered);
+		field.setTarget(1, 1);
+		field.setTarget(1, 2);
+
+		assertTrue(buffered.isBuffered());
+		assertEquals(new Solver().bfs(grid, grid.index(29, 29),
+				grid.index(1, 2)).length - 1, field.distance(29, 29));
+	}
+
+	/*
+	 * Checks if fields sharing their work arrays, stepped in turns, match
+	 * fields filled from scratch, and work arrays of another size are
+	 * refused
+	 */
+	@Test
+	public void testSharedScratch() {
+		Grid grid = new PrimGenerator().generate(31, new Random(2));
+		DistanceField.Scratch scratch = new DistanceField.Scratch(
+				grid.getCellCount());
+		DistanceField[] fields = new DistanceField[3];
+		int[] x = new int[3], y = new int[3];
+		for (int f = 0; f < 3; f++) {
+			fields[f] = new DistanceField(grid, scratch);
+			x[f] = y[f] = 1 + 2 * f;
+			fields[f].setTarget(x[f], y[f]);
+		}
+
+		Random random = new Random(6);
+		int[] stepX = { 0, 0, 1, -1 }, stepY = { -1, 1, 0, 0 };
+		for (int turn = 0; turn < 90; turn++) {
+			int f = turn % 3, move = random.nextInt(4);
+			if (!Grid.isWall(grid.get(x[f] + stepX[move], y[f]
+					+ stepY[move]))) {
+				x[f] += stepX[move];
+				y[f] += stepY[move];
+			}
+			fields[f].setTarget(x[f], y[f]);
+			DistanceField filled = new DistanceField(grid);
+			filled.setTarget(x[f], y[f]);
+			for (int j = 0; j < 31; j++)
+				for (int i = 0; i < 31; i++)
+					assertEquals(filled.distance(i, j), fields[f]
+							.distance(i, j));
+		}
+
+		try {
+			new DistanceField(new Grid(5, 5), scratch);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
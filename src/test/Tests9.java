@@ -0,0 +1,98 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import logic.Cell;
+import logic.Dragon;
+import logic.Grid;
+import logic.Hero;
+import logic.Logic;
+import logic.PieceType;
+import logic.State;
+
+import org.junit.Test;
+
+public class Tests9 {
+
+	/*
+	 * Checks if every piece type keeps its symbol through its cell state
+	 */
+	@Test
+	public void testTypeStates() {
+		for (PieceType type : PieceType.values()) {
+			byte code = Grid.code(type);
+			assertEquals(type.asString(), Grid.decode(code));
+			assertEquals(type.asString(), Grid.type(code).asString());
+			assertEquals(code, Grid.encode(type.asString()));
+		}
+
+		// A sword under the eagle is always the one it carries
+		assertEquals("E G", Grid.decode(Grid.encode(" EG")));
+		assertNull(Grid.decode((byte) (Cell.HERO | Cell.DRAGON)));
+		assertNull(Grid.type((byte) (Cell.HERO | Cell.DRAGON)));
+	}
+
+	/*
+	 * Checks if characters and walls are read from their flags
+	 */
+	@Test
+	public void testFlags() {
+		assertEquals(Grid.code(PieceType.HERO_ARMED_EAGLE),
+				Cell.hero(true, true));
+		assertEquals(Grid.code(PieceType.HERO_UNARMED),
+				Cell.hero(false, false));
+		assertEquals(Grid.code(PieceType.DRAGON_GUARDING_ASLEEP),
+				Cell.dragon(true, true));
+
+		Hero hero = new Hero(1, 1);
+		assertEquals(Grid.code(PieceType.HERO_UNARMED_EAGLE), hero.getCell());
+		Dragon dragon = new Dragon(1, 1);
+		dragon.setAsleep(true);
+		assertEquals(Grid.code(PieceType.DRAGON_ASLEEP), dragon.getCell());
+		dragon.setDead(true);
+		assertEquals(Cell.FREE, dragon.getCell());
+
+		assertTrue(Grid.isWall(Grid.code(PieceType.WALL)));
+		assertTrue(Grid.isWall(Grid.code(PieceType.PURSUING_WALL_EAGLE)));
+		assertTrue(Grid.isWall(Grid.code(PieceType.RETURNING_WALL_EAGLE)));
+		assertFalse(Grid.isWall(Grid.code(PieceType.EXIT)));
+		assertTrue(Cell.has(Grid.code(PieceType.RETURNING_DRAGON_EAGLE),
+				(byte) (Cell.DRAGON | Cell.EAGLE)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownSymbol() {
+		Grid.encode(" Z ");
+	}
+
+	/*
+	 * Checks if the eagle only changes its own flags on the cells it crosses
+	 */
+	@Test
+	public void testEagleFlight() {
+		Logic j1 = new Logic();
+		j1.getEagle().setState(State.EAGLE_PURSUING);
+		j1.getHero().setEagle(false);
+
+		j1.moveEagle();
+		assertEquals(" H ", j1.getMazePieceSymbol(1, 1));
+		assertEquals("  G", j1.getMazePieceSymbol(1, 2));
+
+		for (int i = 0; i < 4; i++)
+			j1.moveEagle();
+		assertEquals("   ", j1.getMazePieceSymbol(1, 5));
+		assertEquals(" DG", j1.getMazePieceSymbol(1, 6));
+
+		while (j1.getEagle().getState() == State.EAGLE_PURSUING)
+			j1.moveEagle();
+		assertEquals(" D ", j1.getMazePieceSymbol(1, 6));
+		assertEquals("E G", j1.getMazePieceSymbol(1, 8));
+
+		// Returning, the eagle carries the sword away
+		j1.moveEagle();
+		assertEquals("   ", j1.getMazePieceSymbol(1, 8));
+		assertEquals("E G", j1.getMazePieceSymbol(1, 7));
+		assertEquals(1, j1.getSword().getPosX());
+		assertEquals(7, j1.getSword().getPosY());
+	}
+}